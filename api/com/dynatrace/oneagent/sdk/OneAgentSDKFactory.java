@@ -1,14 +1,29 @@
 package com.dynatrace.oneagent.sdk;
 
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+import com.dynatrace.oneagent.sdk.impl.local.LocalOneAgentSDK;
+import com.dynatrace.oneagent.sdk.impl.noop.OneAgentSDKNoop;
 
 public class OneAgentSDKFactory {
 
 	/**
-	 * This method returns an instance of the OneAgent SDK.
+	 * This method returns an instance of the OneAgent SDK. Never returns null: in case no (compatible) agent is present,
+	 * a no-op instance in state {@link SDKState#PERMANENTLY_INACTIVE} is returned, which can be used without any
+	 * null checks and does not allocate on any of its calls.
 	 */
 	public static OneAgentSDK createInstance() {
-		return null; // SDK implementation will return valid instance 
+		return OneAgentSDKNoop.INSTANCE; // SDK implementation will return agent backed instance, if agent is present
+	}
+
+	/**
+	 * This method returns a new instance of the OneAgent SDK that records Tracers within the process, regardless of any
+	 * agent, and hands them to the exporter installed via
+	 * {@link OneAgentSDK#setTracerExporter(com.dynatrace.oneagent.sdk.api.export.TracerExporter, int, long, int)}.
+	 * Intended for tests, benchmarks and applications exporting their traces themselves. See {@link LocalOneAgentSDK}.
+	 */
+	public static OneAgentSDK createLocalInstance() {
+		return new LocalOneAgentSDK();
 	}
 
 }
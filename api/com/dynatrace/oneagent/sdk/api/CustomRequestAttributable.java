@@ -0,0 +1,40 @@
+package com.dynatrace.oneagent.sdk.api;
+
+/**
+ * Common interface for Tracers of service calls, that custom request attributes can be added to directly. Not to be
+ * directly used by SDK user.
+ * <p>
+ * Unlike {@link OneAgentSDK#addCustomRequestAttribute(String, String)}, the methods of this interface do not look
+ * up the currently traced service call of the calling thread. They can be called from any thread, also concurrently,
+ * e.g. from the thread completing an asynchronous part of the service call. Attributes added after the Tracer
+ * was ended are ignored and reported via {@link OneAgentSDK#setLoggingCallback(LoggingCallback)}.
+ */
+public interface CustomRequestAttributable {
+
+	/**
+	 * Adds a custom request attribute to this service call. Might be called multiple times, to add more than one
+	 * attribute. If two attributes with same key are set, both attribute-values are captured.
+	 *
+	 * @param key				key of the attribute. required parameter.
+	 * @param value				value of the attribute. required parameter.
+	 */
+	void addCustomRequestAttribute(String key, String value);
+
+	/**
+	 * Does exactly the same as {@link #addCustomRequestAttribute(String, String)}, but request-attribute type long.
+	 */
+	void addCustomRequestAttribute(String key, long value);
+
+	/**
+	 * Does exactly the same as {@link #addCustomRequestAttribute(String, String)}, but request-attribute type double.
+	 */
+	void addCustomRequestAttribute(String key, double value);
+
+	/**
+	 * Adds all attributes of the batch to this service call. Afterwards the batch is empty and can be reused.
+	 *
+	 * @param batch				batch created via {@link OneAgentSDK#createCustomRequestAttributeBatch()}. required parameter.
+	 */
+	void addCustomRequestAttributes(CustomRequestAttributeBatch batch);
+
+}
@@ -0,0 +1,32 @@
+package com.dynatrace.oneagent.sdk.api;
+
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+
+/**
+ * Reusable collection of numeric custom request attributes, added to the currently traced service call in one go via
+ * {@link OneAgentSDK#addCustomRequestAttributes(CustomRequestAttributeBatch)}. Values are stored unboxed.
+ * <p>
+ * Instances are not thread-safe. Create one per thread (or per request) via
+ * {@link OneAgentSDK#createCustomRequestAttributeBatch()} and reuse it.
+ */
+public interface CustomRequestAttributeBatch {
+
+	/**
+	 * Adds a long attribute to this batch. If two attributes with same key are added, both attribute-values are captured.
+	 *
+	 * @param key		key created via {@link OneAgentSDK#createCustomRequestAttributeKey(String)}. required parameter.
+	 * @param value		value of the attribute
+	 */
+	void add(CustomRequestAttributeKey key, long value);
+
+	/**
+	 * Does exactly the same as {@link #add(CustomRequestAttributeKey, long)}, but request-attribute type double.
+	 */
+	void add(CustomRequestAttributeKey key, double value);
+
+	/**
+	 * Removes all attributes from this batch, keeping its storage for reuse.
+	 */
+	void clear();
+
+}
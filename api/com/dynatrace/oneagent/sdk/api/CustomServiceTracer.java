@@ -3,6 +3,6 @@ package com.dynatrace.oneagent.sdk.api;
 /**
  * Interface for custom requests.
  */
-public interface CustomServiceTracer extends Tracer {
+public interface CustomServiceTracer extends Tracer, CustomRequestAttributable {
 
 }
@@ -0,0 +1,17 @@
+package com.dynatrace.oneagent.sdk.api;
+
+/**
+ * This interface is used for reading headers (key-value pairs)
+ */
+public interface HeaderGetter<Carrier> {
+	/**
+	 * Returns the value for the specified name. The SDK only asks for the headers it is configured to capture.
+	 * @param name a valid HTTP header name, never null or empty. Has to be matched case-insensitively, like any HTTP header name.
+	 * @param carrier the header carrier (i.e., the web request object or its map of headers),
+	 *                forwarded as it is passed to the calling method (could be null therefore)
+	 * @return the header value or null, if the carrier does not contain this header. If a header occurs in multiple
+	 *         lines, the values should be concatenated, separated by a comma. The value is only read during the call
+	 *         of the method the getter was passed to, so any (e.g. mutable or pooled) CharSequence may be returned.
+	 */
+	CharSequence getHeader(String name, Carrier carrier);
+}
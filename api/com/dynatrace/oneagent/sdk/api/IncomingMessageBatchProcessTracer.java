@@ -0,0 +1,50 @@
+package com.dynatrace.oneagent.sdk.api;
+
+/**
+ * Interface for processing a batch of messages (e.g. received by a single poll) with one tracer.
+ * <a href="https://github.com/Dynatrace/OneAgent-SDK#messaging">https://github.com/Dynatrace/OneAgent-SDK#messaging</a>
+ */
+public interface IncomingMessageBatchProcessTracer extends Tracer {
+
+	/**
+	 * Sets the messages processed by this tracer. Each message is linked to the tracer that sent it, but start/end
+	 * of this tracer are only captured once for the whole batch.
+	 * All arrays are read before this method returns, so they can be reused for the next batch.
+	 *
+	 * <p>This function can not be used after the tracer was started. Calling it more than once replaces the messages set before.
+	 *
+	 * @param messageCount			number of messages in the batch. Only the first messageCount entries of each array are read.
+	 * @param dynatraceStringTags	tags retrieved via {@link OutgoingTaggable#getDynatraceStringTag()}, one per message.
+	 * 								null entries mark messages without tag. may be null, if no message carries a tag.
+	 * @param vendorMessageIds		message ids provided by messaging system, one per message. optional (may be null).
+	 * @param correlationIds		application provided correlation ids, one per message. optional (may be null).
+	 */
+	void setMessages(int messageCount, String[] dynatraceStringTags, String[] vendorMessageIds, String[] correlationIds);
+
+	/**
+	 * Same as {@link #setMessages(int, String[], String[], String[])}, but reads the tag of each message from its
+	 * headers, like {@link IncomingTaggable#extractTracingHeaders(HeaderGetter, Object)}. Based on your configuration,
+	 * the 'dtdTraceTagInfo' property and/or the W3C Trace Context headers are read, so messages sent with
+	 * {@link OutgoingTaggable#injectTracingHeaders(HeaderSetter, Object)} or
+	 * {@link OutgoingMessageTracer#injectTracingHeaders(HeaderSetter, Object, int)} are linked.
+	 * All headers are read before this method returns.
+	 *
+	 * @param messageCount			number of messages in the batch. Only the first messageCount entries of each array are read.
+	 * @param headerGetter			reads the headers of a message. required parameter.
+	 * @param carriers				header carriers (e.g. the messages), one per message. passed to headerGetter as they are.
+	 * @param vendorMessageIds		message ids provided by messaging system, one per message. optional (may be null).
+	 * @param correlationIds		application provided correlation ids, one per message. optional (may be null).
+	 */
+	<Carrier> void setMessages(int messageCount, HeaderGetter<Carrier> headerGetter, Carrier[] carriers,
+			String[] vendorMessageIds, String[] correlationIds);
+
+	/**
+	 * Marks a single message of the batch as failed, without marking the whole batch as failed (see
+	 * {@link #error(String)}). Might be called once per message, after the tracer was started.
+	 *
+	 * @param messageIndex			index of the message, as passed to setMessages.
+	 * @param message				error message
+	 */
+	void messageError(int messageIndex, String message);
+
+}
@@ -4,7 +4,7 @@ package com.dynatrace.oneagent.sdk.api;
  * Interface for processing message tracer.
  * <a href="https://github.com/Dynatrace/OneAgent-SDK#messaging">https://github.com/Dynatrace/OneAgent-SDK#messaging</a>
  */
-public interface IncomingMessageProcessTracer extends IncomingTaggable, Tracer {
+public interface IncomingMessageProcessTracer extends IncomingTaggable, Tracer, CustomRequestAttributable {
 
 	/**
 	 * Adds optional information about a traced message: message id provided by messaging system.
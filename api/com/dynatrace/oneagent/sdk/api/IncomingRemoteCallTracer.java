@@ -4,7 +4,7 @@ package com.dynatrace.oneagent.sdk.api;
  * Interface for incoming remote call tracer.
  * <a href="https://github.com/Dynatrace/OneAgent-SDK#remoting">https://github.com/Dynatrace/OneAgent-SDK#remoting</a>
  */
-public interface IncomingRemoteCallTracer extends Tracer, IncomingTaggable {
+public interface IncomingRemoteCallTracer extends Tracer, IncomingTaggable, CustomRequestAttributable {
 
 	/**
 	 * Sets the name of the used remoting protocol. This is completely optional and just for display purposes.
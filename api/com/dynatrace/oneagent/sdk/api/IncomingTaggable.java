@@ -1,5 +1,7 @@
 package com.dynatrace.oneagent.sdk.api;
 
+import java.nio.ByteBuffer;
+
 /**
  * Common interface to allow incoming requests to be linked to outgoing requests via tags.
  */
@@ -33,4 +35,41 @@ public interface IncomingTaggable {
 	 */
 	void setDynatraceByteTag(byte[] tag);
 
+	/**
+	 * Same as {@link #setDynatraceByteTag(byte[])}, but the tag is read from a region of the provided buffer, as written by
+	 * {@link OutgoingTaggable#getDynatraceByteTag(ByteBuffer)}. The bytes are read before this method returns, using absolute
+	 * indices, so position and limit of the buffer remain unchanged. Heap and direct buffers are supported.
+	 *
+	 * @param tag
+	 *            buffer containing the tag. if null or length is 0, the incoming tag will be reset (cleared).
+	 * @param offset
+	 *            absolute index of the first byte of the tag within the buffer
+	 * @param length
+	 *            length of the tag in bytes
+	 */
+	void setDynatraceByteTag(ByteBuffer tag, int offset, int length);
+
+	/**
+	 * <p> Reads the tag from the headers required for linking requests end-to-end. This is the counterpart of
+	 * {@link OutgoingTaggable#injectTracingHeaders(HeaderSetter, Object)}.
+	 * A tag can only be set *before* a tracer is started.
+	 *
+	 * <p> Based on your configuration, this method will read the 'X-dynaTrace' header and/or the W3C Trace Context headers
+	 * ('traceparent' and 'tracestate'). Header values are parsed directly from the returned {@link CharSequence}s
+	 * before this method returns, without copying them.
+	 *
+	 * <p> Like {@link #setDynatraceStringTag(String)} this overwrites any tag that was set before. Therefore
+	 * {@link #setDynatraceStringTag(String)} and {@link #setDynatraceByteTag(byte[])} must not be used together with
+	 * this method.
+	 *
+	 * <blockquote>Example usage:
+	 * <pre>{@code
+	 *incomingWebRequestTracer.extractTracingHeaders((name, request) -> request.getHeader(name), httpServletRequest);
+	 * }</pre></blockquote>
+	 *
+	 * @param headerGetter An implementation of {@link HeaderGetter} which reads the respective headers from the incoming request or message.
+	 * @param carrier The (nullable) header carrier object passed to {@code headerGetter} (i.e., the request object or its map of headers)
+	 */
+	<Carrier> void extractTracingHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier);
+
 }
\ No newline at end of file
@@ -1,10 +1,12 @@
 package com.dynatrace.oneagent.sdk.api;
 
+import java.util.function.Supplier;
+
 /**
  * Interface for incoming webrequest tracer.
  * <a href="https://github.com/Dynatrace/OneAgent-SDK#webrequests">https://github.com/Dynatrace/OneAgent-SDK#webrequests</a>
  */
-public interface IncomingWebRequestTracer extends Tracer, IncomingTaggable {
+public interface IncomingWebRequestTracer extends Tracer, IncomingTaggable, CustomRequestAttributable {
 
 	/**
 	 * Validates and sets the remote IP address of the incoming web request. This information is very useful to gain information about 
@@ -35,6 +37,24 @@ public interface IncomingWebRequestTracer extends Tracer, IncomingTaggable {
 	 */
 	void addRequestHeader(String name, String value);
 
+	/**
+	 * Same as {@link #addRequestHeader(String, String)}, but instead of pushing all HTTP request headers into the tracer,
+	 * the SDK pulls only those headers from the carrier, that are to be captured based on sensor configuration
+	 * (including the headers required for determining the client IP address).
+	 * Headers are read before this method returns.
+	 *
+	 * <p>This function can not be used after the tracer was started.
+	 *
+	 * <blockquote>Example usage:
+	 * <pre>{@code
+	 *incomingWebRequestTracer.addRequestHeaders((name, request) -> request.getHeader(name), httpServletRequest);
+	 * }</pre></blockquote>
+	 *
+	 * @param headerGetter	An implementation of {@link HeaderGetter} which reads the respective headers from the HTTP request.
+	 * @param carrier		The (nullable) header carrier object passed to {@code headerGetter} (i.e., the web request object or its map of headers)
+	 */
+	<Carrier> void addRequestHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier);
+
 	/**
 	 * All HTTP POST parameters should be provided to this method. Selective capturing will be done based on sensor configuration.
 	 *
@@ -43,6 +63,16 @@ public interface IncomingWebRequestTracer extends Tracer, IncomingTaggable {
 	 */
 	void addParameter(String name, String value);
 
+	/**
+	 * Same as {@link #addParameter(String, String)}, but the value is provided lazily. The supplier is only invoked,
+	 * if the parameter is captured based on sensor configuration and this tracer is actually recorded. It is invoked
+	 * at most once and before this method returns.
+	 *
+	 * @param name			HTTP parameter name
+	 * @param valueSupplier	supplies the HTTP parameter value
+	 */
+	void addParameterLazy(String name, Supplier<String> valueSupplier);
+
 	/**
 	 * All HTTP response headers should be provided to this method. Selective capturing will be done based on sensor configuration.
 	 * 
@@ -55,6 +85,16 @@ public interface IncomingWebRequestTracer extends Tracer, IncomingTaggable {
 	 */
 	void addResponseHeader(String name, String value);
 
+	/**
+	 * Same as {@link #addResponseHeader(String, String)}, but instead of pushing all HTTP response headers into the tracer,
+	 * the SDK pulls only those headers from the carrier, that are to be captured based on sensor configuration.
+	 * Headers are read before this method returns.
+	 *
+	 * @param headerGetter	An implementation of {@link HeaderGetter} which reads the respective headers from the HTTP response.
+	 * @param carrier		The (nullable) header carrier object passed to {@code headerGetter} (i.e., the web response object or its map of headers)
+	 */
+	<Carrier> void addResponseHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier);
+
 	/**
 	 * Sets the HTTP status code for an incoming web request.
 	 * 
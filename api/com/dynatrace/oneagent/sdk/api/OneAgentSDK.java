@@ -1,11 +1,18 @@
 package com.dynatrace.oneagent.sdk.api;
 
+import java.util.function.Supplier;
+
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
 import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy;
 import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
 import com.dynatrace.oneagent.sdk.api.enums.MessageSystemVendor;
 import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
 import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
 import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
 import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
 import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
@@ -74,6 +81,23 @@ public interface OneAgentSDK {
 	 */
 	IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, String url, String method);
 
+	/**
+	 * Same as {@link #traceIncomingWebRequest(WebApplicationInfo, String, String)}, but takes the URL already split into
+	 * its components, so no URL has to be built and parsed again. All components are read before this method returns.
+	 *
+	 * @param webApplicationInfo	information about web application
+	 * @param scheme				URL scheme (e.g. "https"). optional.
+	 * @param host					hostname or IP address, without port. optional.
+	 * @param port					port or -1, if not known or equal to the default port of the scheme
+	 * @param path					URL path, starting with '/'. required parameter.
+	 * @param query					query string without leading '?'. optional.
+	 * @param method				HTTP request method
+	 * @param resolveHostname		if false, the hostname is reported as provided and never resolved by the Agent
+	 * @return						{@link IncomingWebRequestTracer} to work with
+	 */
+	IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, CharSequence scheme, CharSequence host,
+			int port, CharSequence path, CharSequence query, String method, boolean resolveHostname);
+
 	// ***** Web Requests (outgoing) *****
 	
 	/**
@@ -85,6 +109,22 @@ public interface OneAgentSDK {
 	 * @return						{@link OutgoingWebRequestTracer} to work with
 	 */
 	OutgoingWebRequestTracer traceOutgoingWebRequest(String url, String method);
+
+	/**
+	 * Same as {@link #traceOutgoingWebRequest(String, String)}, but takes the URL already split into its components,
+	 * so no URL has to be built and parsed again. All components are read before this method returns.
+	 *
+	 * @param scheme				URL scheme (e.g. "https"). required parameter.
+	 * @param host					hostname or IP address of the server, without port. required parameter.
+	 * @param port					port or -1, if equal to the default port of the scheme
+	 * @param path					URL path, starting with '/'. required parameter.
+	 * @param query					query string without leading '?'. optional.
+	 * @param method				HTTP request method
+	 * @param resolveHostname		if false, the hostname is reported as provided and never resolved by the Agent
+	 * @return						{@link OutgoingWebRequestTracer} to work with
+	 */
+	OutgoingWebRequestTracer traceOutgoingWebRequest(CharSequence scheme, CharSequence host, int port, CharSequence path,
+			CharSequence query, String method, boolean resolveHostname);
 	
 	// ***** Database Calls (outgoing only) *****
 
@@ -97,6 +137,55 @@ public interface OneAgentSDK {
 	 */
 	DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseInfo databaseInfo, String statement);
 
+	/**
+	 * Registers a SQL statement, that is executed repeatedly (e.g. a prepared statement). The statement is processed
+	 * (truncated, hashed, ...) only once, here. Instances should be created once per statement and reused across tracing calls.
+	 *
+	 * @param databaseInfo			information about database
+	 * @param statement				database SQL statement
+	 * @return						{@link DatabaseStatementInfo} instance to work with
+	 */
+	DatabaseStatementInfo createDatabaseStatementInfo(DatabaseInfo databaseInfo, String statement);
+
+	/**
+	 * Same as {@link #traceSQLDatabaseRequest(DatabaseInfo, String)}, but uses a statement registered via
+	 * {@link #createDatabaseStatementInfo(DatabaseInfo, String)}, so the SQL text is not processed again per call.
+	 *
+	 * @param databaseStatementInfo	information about database and statement
+	 * @return						{@link DatabaseRequestTracer} to work with
+	 */
+	DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseStatementInfo databaseStatementInfo);
+
+	/**
+	 * Switches database requests to aggregation mode. Instead of creating a node per call, the agent then collapses the
+	 * requests of each database and statement fingerprint into one aggregate: count, error count, rows returned,
+	 * round trips and a latency histogram. The aggregates are sent every flushIntervalMillis. Statement fingerprints
+	 * replace literal values by '?', so that e.g. "WHERE id=5" and "WHERE id=6" share one aggregate. Requests of
+	 * statements beyond maxAggregates are traced individually.
+	 *
+	 * <p>Aggregated requests are not part of the PurePath of their caller, and {@link DatabaseRequestTracer}s
+	 * of aggregated requests do not support tracing of child calls.
+	 *
+	 * @param flushIntervalMillis	interval the aggregates are sent with. 0 switches back to tracing each request, which is the default.
+	 * @param maxAggregates			maximum number of distinct (database, fingerprint) pairs.
+	 */
+	void setDatabaseRequestAggregation(long flushIntervalMillis, int maxAggregates);
+
+	/**
+	 * Merges identical child calls of a traced service call (e.g. the queries of an N+1 loop) into a single node. Two
+	 * calls are identical, if they have the same parent Tracer and either the same {@link DatabaseInfo} and statement,
+	 * or the same remote service method, service name and service endpoint. A merged node records the number of calls,
+	 * their total and maximum duration and the number of failed calls. Tags of merged remote calls link to the merged
+	 * node.
+	 *
+	 * <p>To keep memory per traced request bounded, a parent holds at most maxNodesPerParent merged nodes. Further
+	 * calls that do not match an existing node are only counted on the parent. Requests in aggregation mode (see
+	 * {@link #setDatabaseRequestAggregation(long, int)}) are not affected.
+	 *
+	 * @param maxNodesPerParent		maximum number of merged nodes per parent Tracer. 0 disables compaction, which is the default.
+	 */
+	void setChildCallCompaction(int maxNodesPerParent);
+
 	// ***** Remote Calls (outgoing & incoming) *****
 
 	/**
@@ -128,6 +217,26 @@ public interface OneAgentSDK {
 
 	// ***** in-process-linking *****
 
+	/**
+	 * Returns whether a PurePath is currently active on the calling thread (started by an SDK Tracer or by the
+	 * OneAgent itself), i.e. whether a link created via {@link #createInProcessLink()} would link anything. Unlike
+	 * {@link #getTraceContextInfo()}, this check does not allocate and is cheap enough to be called for every task
+	 * handed to a thread pool.
+	 *
+	 * @return true if a PurePath is active on the calling thread.
+	 */
+	boolean hasActivePath();
+
+	/**
+	 * Returns an opaque token identifying the PurePath node currently active on the calling thread. As long as the
+	 * same node is active, the same token is returned, so comparing tokens by identity tells whether code still runs
+	 * in the node that was active at some earlier point, e.g. when a continuation was created. Tokens must not be used
+	 * in any other way. Like {@link #hasActivePath()}, this call does not allocate.
+	 *
+	 * @return token of the active PurePath node, null if no PurePath is active on the calling thread.
+	 */
+	Object getActivePathToken();
+
 	/**
 	 * Creates a link for in-process-linking.
 	 *  
@@ -164,6 +273,41 @@ public interface OneAgentSDK {
 	 */
 	void addCustomRequestAttribute(String key, double value);
 
+	/**
+	 * Does exactly the same as {@link #addCustomRequestAttribute(String, String)}, but the value is provided lazily.
+	 * The supplier is only invoked, if a service call is currently traced and the attribute is actually captured.
+	 * It is invoked at most once and before this method returns.
+	 *
+	 * @param key				key of the attribute. required parameter.
+	 * @param valueSupplier		supplies the value of the attribute. required parameter.
+	 */
+	void addCustomRequestAttributeLazy(String key, Supplier<String> valueSupplier);
+
+	/**
+	 * Registers the key of a custom request attribute, for use with {@link CustomRequestAttributeBatch}. Instances
+	 * should be created once per key and reused.
+	 *
+	 * @param key				key of the attribute. required parameter.
+	 * @return					{@link CustomRequestAttributeKey} instance to work with
+	 */
+	CustomRequestAttributeKey createCustomRequestAttributeKey(String key);
+
+	/**
+	 * Creates an empty, reusable {@link CustomRequestAttributeBatch}.
+	 *
+	 * @return					{@link CustomRequestAttributeBatch} instance to work with
+	 */
+	CustomRequestAttributeBatch createCustomRequestAttributeBatch();
+
+	/**
+	 * Adds all attributes of the batch to currently traced service call, looking up the traced service call only once.
+	 * Afterwards the batch is empty and can be reused. Same rules as for {@link #addCustomRequestAttribute(String, String)}
+	 * apply.
+	 *
+	 * @param batch				batch created via {@link #createCustomRequestAttributeBatch()}. required parameter.
+	 */
+	void addCustomRequestAttributes(CustomRequestAttributeBatch batch);
+
 	// ***** Messaging (outgoing & incoming) *****
 
 	/**
@@ -189,6 +333,17 @@ public interface OneAgentSDK {
 	 */
 	OutgoingMessageTracer traceOutgoingMessage(MessagingSystemInfo messagingSystem);
 
+	/**
+	 * Creates a tracer for sending a batch of outgoing asynchronous messages at once (e.g. a producer batch).
+	 * Use {@link OutgoingMessageTracer#getDynatraceStringTag(int)} or
+	 * {@link OutgoingMessageTracer#injectTracingHeaders(HeaderSetter, Object, int)} to get a distinct tag per message.
+	 * 
+	 * @param messagingSystem	information about the messaging system (see createMessagingSystemInfo methods).
+	 * @param messageCount		number of messages in the batch
+	 * @return {@link OutgoingMessageTracer} to work with 
+	 */
+	OutgoingMessageTracer traceOutgoingMessageBatch(MessagingSystemInfo messagingSystem, int messageCount);
+
 	/**
 	 * Creates a tracer for an incoming asynchronous message (blocking receive).
 	 * 
@@ -204,6 +359,15 @@ public interface OneAgentSDK {
 	 * @return {@link IncomingMessageProcessTracer} to work with
 	 */
 	IncomingMessageProcessTracer traceIncomingMessageProcess(MessagingSystemInfo messagingSystem);
+
+	/**
+	 * Creates a tracer for processing (consuming) a batch of received messages at once (e.g. all messages of a bulk receive).
+	 * Use it instead of one {@link IncomingMessageProcessTracer} per message, if the messages are processed together.
+	 * 
+	 * @param messagingSystem	information about the messaging system (see createMessagingSystemInfo methods).
+	 * @return {@link IncomingMessageBatchProcessTracer} to work with
+	 */
+	IncomingMessageBatchProcessTracer traceIncomingMessageBatchProcess(MessagingSystemInfo messagingSystem);
 	
 	/**
 	 * Creates a tracer for a customer transaction (Dynatrace call them Custom service). Used whenever a transaction 
@@ -220,10 +384,50 @@ public interface OneAgentSDK {
 
 	/**
      * Returns the current SDKState. See {@link SDKState} for details.
+     * The state is cached inside the SDK and updated on change, so this call is a single (volatile) field read and can
+     * be used on every request to decide whether to skip instrumentation.
      *
      * @return current state - never null.
      */
     SDKState getCurrentState();
+
+    /**
+     * Installs a listener that gets informed about every change of {@link SDKState}. This allows applications to keep
+     * the state in own fields instead of polling {@link #getCurrentState()}. The provided listener must be thread-safe,
+     * when using this {@link OneAgentSDK} instance in multithreaded environments.
+     *
+     * @param sdkStateListener            may be null, to remove current listener. provided listener replaces any previously set listener.
+     */
+    void setSDKStateListener(SDKStateListener sdkStateListener);
+
+    /**
+     * Installs a head-based {@link Sampler}, which decides for every new trace whether it is recorded. Tracers of a trace
+     * that is not sampled are returned as stateless, non-recording Tracers. See {@link Sampler} for details.
+     *
+     * @param sampler            may be null, to remove current sampler (all traces are recorded). provided sampler replaces any previously set sampler.
+     */
+    void setSampler(Sampler sampler);
+
+    /**
+     * Limits the number of Tracers of the given type that are recorded per second. Above this budget, trace* calls of
+     * that type return counting-only Tracers: they do not record any data, do not create tags or links (empty tags are
+     * returned) and only count the unrecorded operation. Tracers started while such a Tracer is active are attached to
+     * its nearest recorded parent. Tracers of traces that are not sampled (see {@link Sampler}) do not count against
+     * the budget.
+     *
+     * @param tracerType                 type of Tracers to limit.
+     * @param tracersPerSecond           maximum number of recorded Tracers per second. a negative value removes the budget, which is the default.
+     */
+    void setTracerBudget(TracerType tracerType, int tracersPerSecond);
+
+    /**
+     * Returns the number of operations of the given type that were not recorded, because the budget set via
+     * {@link #setTracerBudget(TracerType, int)} was exceeded, since this {@link OneAgentSDK} instance was created.
+     *
+     * @param tracerType                 type of Tracers.
+     * @return unrecorded count - 0 if no budget was ever set for this type.
+     */
+    long getUnrecordedTracerCount(TracerType tracerType);
     
     /**
      * Returns detailed information about the OneAgent used by the SDK.
@@ -240,6 +444,49 @@ public interface OneAgentSDK {
      */
     void setLoggingCallback(LoggingCallback loggingCallback);
 
+    /**
+     * Switches this {@link OneAgentSDK} instance to asynchronous completion of Tracers. In this mode {@link Tracer#end()}
+     * only records the end timestamp and hands the Tracer over to a bounded, lock-free multi-producer queue. All
+     * remaining work (e.g. attribute capturing and serialization) is done by a background thread of the SDK,
+     * and does not add to the latency of the traced operation.
+     *
+     * @param queueCapacity              maximum number of ended Tracers waiting for completion. 0 switches back
+     *                                   to synchronous completion, which is the default.
+     * @param overflowPolicy             what to do when the queue is full. See {@link CompletionOverflowPolicy}.
+     */
+    void setAsynchronousCompletion(int queueCapacity, CompletionOverflowPolicy overflowPolicy);
+
+    /**
+     * Returns how often the completion queue was full when a Tracer was ended, since this {@link OneAgentSDK} instance
+     * was created. Depending on {@link CompletionOverflowPolicy} this is the number of dropped Tracers or the number of
+     * times {@link Tracer#end()} had to wait.
+     *
+     * @return overflow count - 0 if asynchronous completion was never enabled.
+     */
+    long getAsynchronousCompletionOverflowCount();
+
+    /**
+     * Installs an exporter that receives all Tracers ended via this {@link OneAgentSDK} instance, in addition to the
+     * data sent to the agent. Ended Tracers are put into a bounded queue and handed to the exporter in batches, from a
+     * single background thread. A batch is exported as soon as it is full, or when its oldest Tracer waited for
+     * maxExportDelayMillis. If the queue is full, ended Tracers are dropped and counted.
+     *
+     * @param tracerExporter             may be null, to remove current exporter. The removed exporter receives all remaining Tracers
+     *                                   before it is shut down. provided exporter replaces any previously set exporter.
+     * @param maxBatchSize               maximum number of Tracers per export call.
+     * @param maxExportDelayMillis       maximum time an ended Tracer waits before it is exported.
+     * @param maxQueueSize               maximum number of ended Tracers waiting for export.
+     */
+    void setTracerExporter(TracerExporter tracerExporter, int maxBatchSize, long maxExportDelayMillis, int maxQueueSize);
+
+    /**
+     * Returns the number of ended Tracers that have not been exported, because the export queue was full or the
+     * exporter failed, since this {@link OneAgentSDK} instance was created.
+     *
+     * @return dropped count - 0 if no exporter was ever set.
+     */
+    long getDroppedTracerExportCount();
+
     /**
      * Provides TraceContext information about the PurePath node currently 
      * active at the time of retrieval.
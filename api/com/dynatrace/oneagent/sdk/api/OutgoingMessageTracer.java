@@ -1,5 +1,7 @@
 package com.dynatrace.oneagent.sdk.api;
 
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+
 /**
  * Interface for outgoing message tracer.
  * <a href="https://github.com/Dynatrace/OneAgent-SDK#messaging">https://github.com/Dynatrace/OneAgent-SDK#messaging</a>
@@ -20,4 +22,28 @@ public interface OutgoingMessageTracer extends Tracer, OutgoingTaggable {
 	 */
 	public void setCorrelationId(String correlationId);
 
+	/**
+	 * Same as {@link #getDynatraceStringTag()}, but returns the tag for a single message of a batch traced via
+	 * {@link OneAgentSDK#traceOutgoingMessageBatch(MessagingSystemInfo, int)}. Each message gets a distinct tag, which
+	 * links the processing of this message on the receiving side to this tracer.
+	 * Tags are derived from the tag of this tracer, so no additional tracer is created per message.
+	 * A tag can only be retrieved after the tracer was started (see {@link Tracer#start()}).
+	 *
+	 * @param messageIndex	index of the message within the batch, between 0 (inclusive) and the message count of the batch (exclusive).
+	 * 						For a tracer created via {@link OneAgentSDK#traceOutgoingMessage(MessagingSystemInfo)}, only 0 is valid.
+	 * @return the tag to be used with {@link IncomingTaggable#setDynatraceStringTag(String)}.
+	 */
+	public String getDynatraceStringTag(int messageIndex);
+
+	/**
+	 * Same as {@link #injectTracingHeaders(HeaderSetter, Object)}, but injects the headers for a single message of a batch
+	 * traced via {@link OneAgentSDK#traceOutgoingMessageBatch(MessagingSystemInfo, int)}.
+	 * See {@link #getDynatraceStringTag(int)} for details.
+	 *
+	 * @param headerSetter	An implementation of {@link HeaderSetter} which sets the respective properties on the message.
+	 * @param carrier		The (nullable) header carrier object passed to {@code headerSetter} (i.e., the message object or its map of properties)
+	 * @param messageIndex	index of the message within the batch
+	 */
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier, int messageIndex);
+
 }
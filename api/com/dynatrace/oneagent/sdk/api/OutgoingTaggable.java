@@ -1,5 +1,7 @@
 package com.dynatrace.oneagent.sdk.api;
 
+import java.nio.ByteBuffer;
+
 /**
  * Common interface to allow outgoing requests to be linked to incoming requests via tags.
  */
@@ -25,4 +27,43 @@ public interface OutgoingTaggable {
 	 */
 	byte[] getDynatraceByteTag();
 
+	/**
+	 * Same as {@link #getDynatraceByteTag()}, but writes the tag into the provided buffer instead of allocating an array.
+	 * The tag is written at the current position of the buffer, which is advanced by the number of bytes written.
+	 * Heap and direct buffers are supported.
+	 * A tag can only be retrieved after the tracer was started (see {@link Tracer#start()}).
+	 *
+	 * @param target	buffer to write the tag to.
+	 * @return the number of bytes written, 0 if no tag is available. If {@code target.remaining()} is too small, nothing is written
+	 *         and the required size is returned as negative number.
+	 *         The written bytes are to be used with {@link IncomingTaggable#setDynatraceByteTag(ByteBuffer, int, int)}.
+	 */
+	int getDynatraceByteTag(ByteBuffer target);
+
+	/**
+	 * <p> Sets headers (HTTP request headers or message properties) required for linking requests end-to-end.
+	 * <p> This method can only be called on an active tracer (i.e., between start and end).
+	 *
+	 * <p> Based on your configuration, this method will add the 'X-dynaTrace' header and/or the W3C Trace Context headers ('traceparent' and 'tracestate').<br>
+	 * Therefore it is no longer necessary to manually add the Dynatrace tag and thus {@see #getDynatraceStringTag()}
+	 * must not be used together with this method.
+	 *
+	 * <p> The header values are encoded once per tracer, on the first call of this method. They are reused if the
+	 * same tracer injects its headers into several carriers (e.g. retries or a message sent to several destinations).
+	 *
+	 * <blockquote>Example usage:
+	 * <pre>{@code
+	 *Map<String, String> requestHeaderFields = new HashMap<>();
+	 *outgoingWebRequestTracer.injectTracingHeaders((key, value, _carrier) -> requestHeaderFields.put(key, value), null);
+	 * // or as a stateless implementation:
+	 *outgoingWebRequestTracer.injectTracingHeaders((key, value, carrier) -> carrier.put(key, value), requestHeaderFields);
+	 * // for messages:
+	 *outgoingMessageTracer.injectTracingHeaders((key, value, message) -> message.setHeaderField(key, value), messageToSend);
+	 * }</pre></blockquote>
+	 *
+	 * @param headerSetter An implementation of {@see HeaderSetter} which sets the respective headers on the request or message.
+	 * @param carrier The (nullable) header carrier object passed to {@code headerSetter} (i.e., the request or message object or its map of headers)
+	 */
+	<Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier);
+
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.dynatrace.oneagent.sdk.api;
+
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+
+/**
+ * Listener that gets informed, when the {@link SDKState} of a {@link OneAgentSDK} instance changes.
+ * <p>
+ * Never call any SDK API, when inside the callback method.
+ */
+public interface SDKStateListener {
+
+	/**
+	 * Called once per state transition, after the new state has become visible via
+	 * {@link OneAgentSDK#getCurrentState()}. Might be called from any thread.
+	 *
+	 * @param oldState
+	 *            state before the transition. never null.
+	 * @param newState
+	 *            state after the transition. never null and never equal to oldState.
+	 */
+	void stateChanged(SDKState oldState, SDKState newState);
+
+}
@@ -0,0 +1,30 @@
+package com.dynatrace.oneagent.sdk.api;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Head-based sampling decision, made once per trace before its first Tracer is created. Installed via
+ * {@link OneAgentSDK#setSampler(Sampler)}.
+ * <p>
+ * The sampler is only consulted for Tracers that start a new trace, i.e. Tracers without an active parent and without
+ * an incoming tag. All other Tracers inherit the decision of their parent or caller: it propagates to child Tracers
+ * on the same thread, via {@link InProcessLink}s and via tags (e.g. the sampled flag of the W3C 'traceparent' header).
+ * Tracers of a trace that is not sampled do not record anything and cost next to nothing.
+ * <p>
+ * Never call any SDK API, when inside the callback method. Implementations must be thread-safe and fast, as they are
+ * called on every new trace.
+ */
+public interface Sampler {
+
+	/**
+	 * Decides whether a new trace is recorded.
+	 *
+	 * @param tracerType	type of the Tracer starting the trace
+	 * @param serviceName	application ID of the {@link com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo} for incoming web
+	 * 						requests, service name for remote calls and custom services, destination name for messages,
+	 * 						null for any other Tracer.
+	 * @return true if the trace is to be recorded.
+	 */
+	boolean shouldSample(TracerType tracerType, String serviceName);
+
+}
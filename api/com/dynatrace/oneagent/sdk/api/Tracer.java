@@ -34,8 +34,27 @@ public interface Tracer {
 
 	/**
 	 * Ends this Tracer and stops time measurement. {@link #end()} might only be called
-	 * once per Tracer.
+	 * once per Tracer. See
+	 * {@link OneAgentSDK#setAsynchronousCompletion(int, com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy)}
+	 * to move the work done at end off the calling thread.
 	 */
 	void end();
 
+	/**
+	 * Hands the internal buffers of this Tracer (e.g. those holding custom request attributes) back to the SDK for
+	 * reuse. Calling this method is optional: buffers of Tracers that are never released are simply garbage collected.
+	 *
+	 * <p>Only the buffers are reused, not the Tracer: Tracers are neither pooled nor recycled, every trace* call
+	 * returns a new Tracer or a shared, stateless one. Released buffers are put into a small pool, owned by the thread
+	 * calling {@link #release()}, and reused by Tracers created later via the same {@link OneAgentSDK} instance. As the
+	 * Tracer object is never handed out again, a stale reference can not corrupt a later Tracer: it stays released for
+	 * good, and calls of any of its methods, including {@link CustomRequestAttributable} methods called from other
+	 * threads, are ignored and reported via {@link OneAgentSDK#setLoggingCallback(LoggingCallback)}. In asynchronous
+	 * completion mode, the buffers are only reused after the completion of the Tracer has finished. Stateless Tracers
+	 * have no buffers, their {@link #release()} does nothing.
+	 *
+	 * <p>This function can only be used after {@link #end()} was called.
+	 */
+	void release();
+
 }
\ No newline at end of file
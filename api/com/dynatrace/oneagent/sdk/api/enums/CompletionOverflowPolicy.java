@@ -0,0 +1,22 @@
+package com.dynatrace.oneagent.sdk.api.enums;
+
+/**
+ * Defines what happens, when a Tracer is ended in asynchronous completion mode while the completion queue is full. See
+ * OneAgentSDK#setAsynchronousCompletion(int, CompletionOverflowPolicy).
+ */
+public enum CompletionOverflowPolicy {
+
+    /**
+     * The ended Tracer is dropped and not reported. The calling thread is
+     * never delayed.
+     */
+    DROP,
+
+    /**
+     * The calling thread waits in {@code end()} until the completion queue
+     * has room for the ended Tracer. No data is lost, but request latency
+     * may grow while the queue is full.
+     */
+    BLOCK;
+
+}
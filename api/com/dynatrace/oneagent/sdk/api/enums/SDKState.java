@@ -12,6 +12,8 @@ public enum SDKState {
      * SDK is connected to agent, but capturing is disabled. In this state, SDK
      * user can skip creating SDK transactions and save CPU time. SDK state
      * should be checked regularly as it may change at every point of time.
+     * See OneAgentSDK#setSDKStateListener(SDKStateListener) to get notified
+     * about changes instead.
      */
     TEMPORARILY_INACTIVE,
 
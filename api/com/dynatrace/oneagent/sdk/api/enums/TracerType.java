@@ -0,0 +1,20 @@
+package com.dynatrace.oneagent.sdk.api.enums;
+
+/**
+ * Enumerates all kinds of Tracers, one per trace* method of OneAgentSDK.
+ */
+public enum TracerType {
+
+	INCOMING_WEB_REQUEST,
+	OUTGOING_WEB_REQUEST,
+	DATABASE_REQUEST,
+	INCOMING_REMOTE_CALL,
+	OUTGOING_REMOTE_CALL,
+	IN_PROCESS_LINK,
+	OUTGOING_MESSAGE,
+	INCOMING_MESSAGE_RECEIVE,
+	INCOMING_MESSAGE_PROCESS,
+	INCOMING_MESSAGE_BATCH_PROCESS,
+	CUSTOM_SERVICE
+
+}
@@ -0,0 +1,107 @@
+package com.dynatrace.oneagent.sdk.api.export;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Immutable snapshot of an ended Tracer, as handed to a {@link TracerExporter}. Instances may be kept by the exporter.
+ */
+public interface FinishedTracer {
+
+	/**
+	 * @return kind of the Tracer. never null.
+	 */
+	TracerType getType();
+
+	/**
+	 * @return name of the traced operation, depending on {@link #getType()}: service method, SQL statement, URL,
+	 *         destination name or null for in-process links.
+	 */
+	String getName();
+
+	/**
+	 * @return service name, web application or database name, messaging vendor; null if not applicable.
+	 */
+	String getServiceName();
+
+	/**
+	 * @return start of the Tracer in milliseconds since the epoch.
+	 */
+	long getStartTimeMillis();
+
+	/**
+	 * @return time between start and end of the Tracer in nanoseconds.
+	 */
+	long getDurationNanos();
+
+	/**
+	 * @return message passed to {@link com.dynatrace.oneagent.sdk.api.Tracer#error(String)} or null, if no error was reported.
+	 */
+	String getErrorMessage();
+
+	/**
+	 * @return Trace-Id as lower-case, hex-encoded string. never null.
+	 */
+	String getTraceId();
+
+	/**
+	 * @return Span-Id of this Tracer as lower-case, hex-encoded string. never null.
+	 */
+	String getSpanId();
+
+	/**
+	 * @return Span-Id of the parent node or null, if this Tracer started the trace.
+	 */
+	String getParentSpanId();
+
+	/**
+	 * @return custom request attributes added while this Tracer was active. Values are of type String, Long or Double.
+	 *         never null.
+	 */
+	Map<String, Object> getCustomRequestAttributes();
+
+	/**
+	 * @return Span-Ids of nodes without a Tracer of their own, which belong to this Tracer: the messages of a batch
+	 *         traced via {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#traceOutgoingMessageBatch}, whose tags were
+	 *         requested. A Tracer continuing such a tag has the linked Span-Id as parent. never null.
+	 */
+	default List<String> getLinkedSpanIds() {
+		return Collections.emptyList();
+	}
+
+	/**
+	 * @return number of calls this node stands for: 1, unless identical child calls were merged into this node (see
+	 *         {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setChildCallCompaction(int)}) or it is an aggregate of
+	 *         database requests (see {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setDatabaseRequestAggregation(long, int)}).
+	 *         {@link #getDurationNanos()} is the total duration of all calls then.
+	 */
+	default int getCallCount() {
+		return 1;
+	}
+
+	/**
+	 * @return longest duration of a single call in nanoseconds, see {@link #getCallCount()}.
+	 */
+	default long getMaxDurationNanos() {
+		return getDurationNanos();
+	}
+
+	/**
+	 * @return number of failed calls, see {@link #getCallCount()}.
+	 */
+	default int getFailedCallCount() {
+		return getErrorMessage() == null ? 0 : 1;
+	}
+
+	/**
+	 * @return number of child calls of this Tracer that were neither recorded nor merged, because the maximum number of
+	 *         merged nodes per parent was reached (see {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setChildCallCompaction(int)}).
+	 */
+	default long getDroppedChildCallCount() {
+		return 0;
+	}
+
+}
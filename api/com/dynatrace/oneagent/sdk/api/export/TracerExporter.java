@@ -0,0 +1,31 @@
+package com.dynatrace.oneagent.sdk.api.export;
+
+import java.util.List;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Receives finished Tracers in batches. Installed via
+ * {@link OneAgentSDK#setTracerExporter(TracerExporter, int, long, int)}.
+ * <p>
+ * All methods are called from a single export thread of the SDK, never concurrently and never from a traced thread.
+ * Never call any SDK API, when inside one of this methods.
+ */
+public interface TracerExporter {
+
+	/**
+	 * Exports a batch of finished Tracers. Any exception thrown is reported via the logging callback, and the batch is
+	 * counted as dropped.
+	 *
+	 * @param tracers
+	 *            finished Tracers in the order they were ended. never null or empty. the list must not be kept after
+	 *            this method returned, its elements may be kept.
+	 */
+	void export(List<FinishedTracer> tracers);
+
+	/**
+	 * Called once, after the last batch has been exported. Release any resources here.
+	 */
+	void shutdown();
+
+}
@@ -0,0 +1,10 @@
+package com.dynatrace.oneagent.sdk.api.infos;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Type returned by {@link OneAgentSDK#createCustomRequestAttributeKey(String)}
+ */
+public interface CustomRequestAttributeKey {
+
+}
@@ -0,0 +1,10 @@
+package com.dynatrace.oneagent.sdk.api.infos;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Type returned by {@link OneAgentSDK#createDatabaseStatementInfo(DatabaseInfo, String)}
+ */
+public interface DatabaseStatementInfo {
+
+}
@@ -0,0 +1,264 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.impl.completion.AsynchronousTracerCompletion;
+import com.dynatrace.oneagent.sdk.impl.completion.Completable;
+import com.dynatrace.oneagent.sdk.impl.completion.MpscRingBuffer;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks asynchronous completion, see {@link OneAgentSDK#setAsynchronousCompletion(int, CompletionOverflowPolicy)}:
+ * <ul>
+ * <li>{@link MpscRingBuffer} holds at most its capacity, keeps the order of a producer across many laps and hands out
+ * every element of concurrent producers exactly once,</li>
+ * <li>when the ring is full, {@link CompletionOverflowPolicy#DROP} drops the Tracer and
+ * {@link CompletionOverflowPolicy#BLOCK} waits for room, both counting the overflow once,</li>
+ * <li>shutting down completes every Tracer submitted before, also those submitted concurrently,</li>
+ * <li>the local SDK exports every Tracer ended by concurrent threads, with its attributes, also if it was released
+ * right after end, and keeps the overflow count when asynchronous completion is switched off.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class AsynchronousCompletionCheck {
+
+	private static final int PRODUCERS = 4;
+
+	public static void main(String[] args) throws Exception {
+		checkRingBuffer();
+		checkConcurrentProducers();
+		checkOverflowPolicies();
+		checkShutdownUnderLoad();
+		checkLocalSDK();
+		System.out.println("OK");
+	}
+
+	private static void checkRingBuffer() {
+		MpscRingBuffer<Integer> ring = new MpscRingBuffer<Integer>(3);
+		check(ring.isEmpty() && ring.poll() == null, "new ring is empty");
+		boolean ordered = true;
+		for (int lap = 0; lap < 10; lap++) {
+			check(ring.offer(lap * 3) && ring.offer(lap * 3 + 1) && ring.offer(lap * 3 + 2) && !ring.offer(-1),
+					"ring holds at most its capacity (lap " + lap + ")");
+			for (int i = 0; i < 3; i++) {
+				ordered &= ring.poll() == lap * 3 + i;
+			}
+		}
+		check(ordered && ring.isEmpty(), "elements polled in the order they were offered, across laps");
+	}
+
+	private static void checkConcurrentProducers() throws InterruptedException {
+		final int perProducer = 200_000;
+		final MpscRingBuffer<long[]> ring = new MpscRingBuffer<long[]>(64);
+		List<Thread> producers = new ArrayList<Thread>();
+		for (int p = 0; p < PRODUCERS; p++) {
+			final int producer = p;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < perProducer; i++) {
+						long[] element = { producer, i };
+						while (!ring.offer(element)) {
+							Thread.yield();
+						}
+					}
+				}
+			});
+			thread.start();
+			producers.add(thread);
+		}
+		int[] next = new int[PRODUCERS];
+		boolean ordered = true;
+		int polled = 0;
+		while (polled < PRODUCERS * perProducer) {
+			long[] element = ring.poll();
+			if (element == null) {
+				Thread.yield();
+				continue;
+			}
+			ordered &= element[1] == next[(int) element[0]]++;
+			polled++;
+		}
+		for (Thread thread : producers) {
+			thread.join();
+		}
+		check(ordered && ring.poll() == null, "every element of " + PRODUCERS
+				+ " concurrent producers polled exactly once, in the order of its producer");
+	}
+
+	private static void checkOverflowPolicies() throws InterruptedException {
+		for (CompletionOverflowPolicy overflowPolicy : CompletionOverflowPolicy.values()) {
+			final AsynchronousTracerCompletion completion = new AsynchronousTracerCompletion(2, overflowPolicy);
+			final AtomicInteger completed = new AtomicInteger();
+			BlockingTracer blocker = new BlockingTracer(completed);
+			completion.submit(blocker);
+			// the completion thread is busy with the blocker, the ring is empty
+			blocker.started.await();
+			final CountingTracer counting = new CountingTracer(completed);
+			boolean accepted = completion.submit(counting) & completion.submit(counting);
+			final AtomicBoolean overflowAccepted = new AtomicBoolean();
+			Thread submitter = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					overflowAccepted.set(completion.submit(counting));
+				}
+			});
+			submitter.start();
+			if (overflowPolicy == CompletionOverflowPolicy.DROP) {
+				submitter.join();
+				check(accepted && !overflowAccepted.get() && completion.getOverflowCount() == 1,
+						"DROP drops a Tracer ended while the ring is full, and counts it");
+			} else {
+				submitter.join(200);
+				check(accepted && submitter.isAlive() && completion.getOverflowCount() == 1,
+						"BLOCK waits while the ring is full, and counts it once");
+			}
+			blocker.proceed.countDown();
+			submitter.join();
+			completion.shutdown();
+			int expected = overflowPolicy == CompletionOverflowPolicy.DROP ? 3 : 4;
+			check(completed.get() == expected && completion.getOverflowCount() == 1, overflowPolicy
+					+ ": all accepted Tracers completed by shutdown (completed: " + completed.get() + ")");
+		}
+	}
+
+	private static void checkShutdownUnderLoad() throws InterruptedException {
+		for (int round = 0; round < 20; round++) {
+			final AsynchronousTracerCompletion completion = new AsynchronousTracerCompletion(16,
+					CompletionOverflowPolicy.BLOCK);
+			final AtomicInteger completed = new AtomicInteger();
+			final CountingTracer counting = new CountingTracer(completed);
+			final int perProducer = 10_000;
+			List<Thread> producers = new ArrayList<Thread>();
+			for (int p = 0; p < PRODUCERS; p++) {
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						for (int i = 0; i < perProducer; i++) {
+							completion.submit(counting);
+						}
+					}
+				});
+				thread.start();
+				producers.add(thread);
+			}
+			Thread.sleep(1);
+			completion.shutdown();
+			for (Thread thread : producers) {
+				thread.join();
+			}
+			if (completed.get() != PRODUCERS * perProducer) {
+				check(false, "every Tracer submitted concurrently with shutdown completed (completed: " + completed.get()
+						+ ")");
+			}
+		}
+		check(true, "every Tracer submitted concurrently with shutdown completed");
+	}
+
+	private static void checkLocalSDK() throws InterruptedException {
+		final OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 10, 100_000);
+		check(oneAgentSDK.getAsynchronousCompletionOverflowCount() == 0, "no overflow before asynchronous completion");
+		oneAgentSDK.setAsynchronousCompletion(8, CompletionOverflowPolicy.BLOCK);
+		final int perThread = 5_000;
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < PRODUCERS; t++) {
+			final String serviceName = "Service" + t;
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 0; i < perThread; i++) {
+						CustomServiceTracer tracer = oneAgentSDK.traceCustomService("call" + i, serviceName);
+						tracer.start();
+						tracer.addCustomRequestAttribute("index", i);
+						tracer.end();
+						// the completion thread may not have read the attributes yet
+						tracer.release();
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long overflowCount = oneAgentSDK.getAsynchronousCompletionOverflowCount();
+		oneAgentSDK.setAsynchronousCompletion(0, null);
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		Set<String> exported = new HashSet<String>();
+		boolean attributesKept = true;
+		for (FinishedTracer tracer : exporter.getFinishedTracers()) {
+			exported.add(tracer.getServiceName() + "." + tracer.getName());
+			attributesKept &= ("call" + tracer.getCustomRequestAttributes().get("index")).equals(tracer.getName());
+		}
+		check(exported.size() == PRODUCERS * perThread, "every Tracer ended by " + PRODUCERS
+				+ " threads exported once (exported: " + exported.size() + ")");
+		check(attributesKept, "attributes exported, also of Tracers released before their completion");
+		check(oneAgentSDK.getAsynchronousCompletionOverflowCount() == overflowCount,
+				"overflow count kept when asynchronous completion is switched off (overflows: " + overflowCount + ")");
+	}
+
+	/**
+	 * Keeps the completion thread busy, until told to proceed.
+	 */
+	private static final class BlockingTracer implements Completable {
+
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		private final AtomicInteger completed;
+
+		BlockingTracer(AtomicInteger completed) {
+			this.completed = completed;
+		}
+
+		@Override
+		public void complete() {
+			started.countDown();
+			try {
+				proceed.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			completed.incrementAndGet();
+		}
+
+	}
+
+	private static final class CountingTracer implements Completable {
+
+		private final AtomicInteger completed;
+
+		CountingTracer(AtomicInteger completed) {
+			this.completed = completed;
+		}
+
+		@Override
+		public void complete() {
+			completed.incrementAndGet();
+		}
+
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
@@ -0,0 +1,235 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+import com.dynatrace.oneagent.sdk.impl.export.BatchingTracerExportPipeline;
+
+/**
+ * Checks {@link BatchingTracerExportPipeline}:
+ * <ul>
+ * <li>batches are limited to the maximum batch size, and a partial batch is exported after the maximum delay,</li>
+ * <li>an exporter throwing an {@link Error} drops its batch, but neither stops the export thread nor blocks
+ * {@link BatchingTracerExportPipeline#flush()} and {@link BatchingTracerExportPipeline#shutdown()},</li>
+ * <li>every Tracer offered concurrently with {@link BatchingTracerExportPipeline#shutdown()} is counted exactly once,
+ * as exported or as dropped.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class BatchingTracerExportPipelineCheck {
+
+	private static final long TIMEOUT_MILLIS = 10_000;
+
+	public static void main(String[] args) throws Exception {
+		checkBatching();
+		checkFailingExporter();
+		checkOfferRacingWithShutdown();
+		System.out.println("OK");
+	}
+
+	private static void checkBatching() throws Exception {
+		CountingExporter exporter = new CountingExporter(null);
+		BatchingTracerExportPipeline pipeline = new BatchingTracerExportPipeline(exporter, 10, 50, 1000);
+		for (int i = 0; i < 25; i++) {
+			pipeline.offer(CheckTracer.INSTANCE);
+		}
+		long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+		while (pipeline.getExportedCount() < 25 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		check(pipeline.getExportedCount() == 25, "partial batch exported after the delay, without flush");
+		check(exporter.maxBatchSize == 10, "batches limited to the maximum batch size (largest: " + exporter.maxBatchSize + ")");
+		pipeline.shutdown();
+		check(exporter.shutdownCount.get() == 1, "exporter shut down once");
+	}
+
+	private static void checkFailingExporter() throws Exception {
+		final CountingExporter exporter = new CountingExporter(new LinkageError("exporter failed"));
+		final BatchingTracerExportPipeline pipeline = new BatchingTracerExportPipeline(exporter, 10, 1000, 1000);
+		pipeline.offer(CheckTracer.INSTANCE);
+		runWithTimeout(new Interruptible() {
+			@Override
+			public void run() throws InterruptedException {
+				pipeline.flush();
+			}
+		}, "flush returns after the exporter threw an Error");
+		check(pipeline.getDroppedCount() == 1, "batch of the failing export dropped");
+		pipeline.offer(CheckTracer.INSTANCE);
+		runWithTimeout(new Interruptible() {
+			@Override
+			public void run() throws InterruptedException {
+				pipeline.flush();
+				pipeline.shutdown();
+			}
+		}, "export thread survives the Error, flush and shutdown return");
+		check(pipeline.getExportedCount() == 1, "later Tracers exported after the Error");
+	}
+
+	private static void checkOfferRacingWithShutdown() throws Exception {
+		for (int round = 0; round < 20; round++) {
+			CountingExporter exporter = new CountingExporter(null);
+			final BatchingTracerExportPipeline pipeline = new BatchingTracerExportPipeline(exporter, 64, 1, 256);
+			final AtomicLong offered = new AtomicLong();
+			final CountDownLatch started = new CountDownLatch(4);
+			List<Thread> threads = new ArrayList<Thread>();
+			for (int t = 0; t < 4; t++) {
+				Thread thread = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						started.countDown();
+						// keep offering for a while after shutdown, to race with the final drain
+						for (int i = 0; i < 20_000; i++) {
+							pipeline.offer(CheckTracer.INSTANCE);
+							offered.incrementAndGet();
+						}
+					}
+				});
+				thread.start();
+				threads.add(thread);
+			}
+			started.await();
+			pipeline.shutdown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			long counted = pipeline.getExportedCount() + pipeline.getDroppedCount();
+			if (counted != offered.get() || exporter.exported.get() != pipeline.getExportedCount()) {
+				check(false, "every offered Tracer counted once (offered: " + offered.get() + ", exported: "
+						+ pipeline.getExportedCount() + ", dropped: " + pipeline.getDroppedCount() + ")");
+			}
+		}
+		check(true, "every Tracer offered while shutting down counted once as exported or dropped");
+	}
+
+	private static void runWithTimeout(final Interruptible action, String expectation) throws InterruptedException {
+		final CountDownLatch done = new CountDownLatch(1);
+		Thread thread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				try {
+					action.run();
+					done.countDown();
+				} catch (InterruptedException e) {
+					// timed out
+				}
+			}
+		});
+		thread.setDaemon(true);
+		thread.start();
+		thread.join(TIMEOUT_MILLIS);
+		check(done.getCount() == 0, expectation);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+	private interface Interruptible {
+
+		void run() throws InterruptedException;
+
+	}
+
+	/**
+	 * Counts exported Tracers. Throws the given error from its first export call.
+	 */
+	private static final class CountingExporter implements TracerExporter {
+
+		final AtomicLong exported = new AtomicLong();
+		final AtomicLong shutdownCount = new AtomicLong();
+		volatile int maxBatchSize;
+		private Error error;
+
+		CountingExporter(Error error) {
+			this.error = error;
+		}
+
+		@Override
+		public void export(List<FinishedTracer> tracers) {
+			if (error != null) {
+				Error thrown = error;
+				error = null;
+				throw thrown;
+			}
+			exported.addAndGet(tracers.size());
+			maxBatchSize = Math.max(maxBatchSize, tracers.size());
+		}
+
+		@Override
+		public void shutdown() {
+			shutdownCount.incrementAndGet();
+		}
+
+	}
+
+	/**
+	 * Minimal finished Tracer. The pipeline does not look at its content.
+	 */
+	private static final class CheckTracer implements FinishedTracer {
+
+		static final CheckTracer INSTANCE = new CheckTracer();
+
+		@Override
+		public TracerType getType() {
+			return TracerType.CUSTOM_SERVICE;
+		}
+
+		@Override
+		public String getName() {
+			return "check";
+		}
+
+		@Override
+		public String getServiceName() {
+			return "BatchingTracerExportPipelineCheck";
+		}
+
+		@Override
+		public long getStartTimeMillis() {
+			return 0;
+		}
+
+		@Override
+		public long getDurationNanos() {
+			return 1000;
+		}
+
+		@Override
+		public String getErrorMessage() {
+			return null;
+		}
+
+		@Override
+		public String getTraceId() {
+			return "0123456789abcdef0123456789abcdef";
+		}
+
+		@Override
+		public String getSpanId() {
+			return "0123456789abcdef";
+		}
+
+		@Override
+		public String getParentSpanId() {
+			return null;
+		}
+
+		@Override
+		public Map<String, Object> getCustomRequestAttributes() {
+			return Collections.emptyMap();
+		}
+
+	}
+
+}
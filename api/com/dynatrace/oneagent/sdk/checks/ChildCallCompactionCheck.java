@@ -0,0 +1,132 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks child call compaction of the local {@link OneAgentSDK}, see {@link OneAgentSDK#setChildCallCompaction(int)}:
+ * <ul>
+ * <li>identical database requests and remote calls of one parent are exported as one node, with call count, total
+ * and maximum duration and failed calls,</li>
+ * <li>tags of merged remote calls link to the merged node,</li>
+ * <li>a parent holds at most the maximum number of nodes, further distinct calls are counted as dropped on the
+ * parent,</li>
+ * <li>compaction is per parent: identical calls of another parent get a node of their own.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class ChildCallCompactionCheck {
+
+	private static final int MAX_NODES = 3;
+
+	public static void main(String[] args) {
+		OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		oneAgentSDK.setChildCallCompaction(MAX_NODES);
+		DatabaseInfo databaseInfo = oneAgentSDK.createDatabaseInfo("CheckDB", "H2", ChannelType.IN_PROCESS, null);
+
+		CustomServiceTracer parent = oneAgentSDK.traceCustomService("loadOrders", "OrderService");
+		parent.start();
+		// N+1 loop
+		for (int i = 0; i < 10; i++) {
+			DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, "SELECT * FROM items WHERE order_id = ?");
+			query.start();
+			if (i % 4 == 0) {
+				query.error("timeout");
+			}
+			query.end();
+		}
+		String[] tags = new String[2];
+		for (int i = 0; i < tags.length; i++) {
+			OutgoingRemoteCallTracer call = oneAgentSDK.traceOutgoingRemoteCall("price", "PriceService", "price-endpoint",
+					ChannelType.TCP_IP, "localhost:8080");
+			call.start();
+			tags[i] = call.getDynatraceStringTag();
+			call.end();
+		}
+		// a third distinct node fills the parent, the following distinct calls are dropped
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM orders");
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM customers");
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM addresses");
+		// calls of an existing node are still merged
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM orders");
+		parent.end();
+
+		CustomServiceTracer otherParent = oneAgentSDK.traceCustomService("loadCustomer", "CustomerService");
+		otherParent.start();
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM orders");
+		otherParent.end();
+
+		IncomingRemoteCallTracer incoming = oneAgentSDK.traceIncomingRemoteCall("price", "PriceService", "price-endpoint");
+		incoming.setDynatraceStringTag(tags[1]);
+		incoming.start();
+		incoming.end();
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		List<FinishedTracer> tracers = exporter.getFinishedTracers();
+		FinishedTracer exportedParent = find(tracers, TracerType.CUSTOM_SERVICE, "loadOrders");
+		FinishedTracer items = find(tracers, TracerType.DATABASE_REQUEST, "SELECT * FROM items WHERE order_id = ?");
+		FinishedTracer price = find(tracers, TracerType.OUTGOING_REMOTE_CALL, "price");
+		FinishedTracer exportedIncoming = find(tracers, TracerType.INCOMING_REMOTE_CALL, "price");
+
+		check(tracers.size() == 7, "one node per distinct call and parent exported (exported: " + tracers.size() + ")");
+		check(items.getCallCount() == 10 && items.getFailedCallCount() == 3, "identical queries merged with call and failure count");
+		check(items.getMaxDurationNanos() > 0 && items.getMaxDurationNanos() <= items.getDurationNanos(),
+				"merged node holds total and maximum duration");
+		check(items.getErrorMessage() != null, "merged node with failed calls reports an error");
+		check(exportedParent.getSpanId().equals(items.getParentSpanId())
+				&& exportedParent.getSpanId().equals(price.getParentSpanId()), "merged nodes are children of their parent");
+		check(price.getCallCount() == 2 && tags[0].equals(tags[1]), "identical remote calls merged, with the same tag");
+		check(price.getSpanId().equals(exportedIncoming.getParentSpanId()), "tag of a merged remote call links to the merged node");
+		check(exportedParent.getDroppedChildCallCount() == 2, "distinct calls beyond the maximum number of nodes counted on the parent");
+		Map<String, Integer> ordersCallCounts = new HashMap<String, Integer>();
+		for (FinishedTracer tracer : tracers) {
+			if ("SELECT * FROM orders".equals(tracer.getName())) {
+				ordersCallCounts.put(tracer.getParentSpanId(), tracer.getCallCount());
+			}
+		}
+		check(ordersCallCounts.size() == 2 && ordersCallCounts.get(exportedParent.getSpanId()) == 2,
+				"compaction is per parent");
+		check(find(tracers, TracerType.CUSTOM_SERVICE, "loadCustomer").getDroppedChildCallCount() == 0,
+				"nothing dropped below the maximum number of nodes");
+		System.out.println("OK");
+	}
+
+	private static void traceQuery(OneAgentSDK oneAgentSDK, DatabaseInfo databaseInfo, String statement) {
+		DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, statement);
+		query.start();
+		query.end();
+	}
+
+	private static FinishedTracer find(List<FinishedTracer> tracers, TracerType type, String name) {
+		for (FinishedTracer tracer : tracers) {
+			if (tracer.getType() == type && name.equals(tracer.getName())) {
+				return tracer;
+			}
+		}
+		throw new AssertionError("expected: exported " + type + " " + name);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
@@ -0,0 +1,232 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseRequestAggregate;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseRequestAggregator;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseStatementKey;
+import com.dynatrace.oneagent.sdk.impl.aggregation.StatementFingerprint;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks {@link StatementFingerprint} and {@link DatabaseRequestAggregator}:
+ * <ul>
+ * <li>statements only differing in literals, whitespace, comments or keyword case share one fingerprint,</li>
+ * <li>statements differing in names, operators or quoted identifiers do not,</li>
+ * <li>recording a request does not allocate,</li>
+ * <li>the maximum number of aggregates holds when new statements are recorded concurrently,</li>
+ * <li>in aggregation mode, the local SDK counts requests per statement fingerprint, exports the aggregates every
+ * flush interval and when aggregation is switched off, and traces requests of statements beyond the maximum
+ * individually.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class DatabaseRequestAggregationCheck {
+
+	private static final DatabaseInfo DATABASE_INFO = OneAgentSDKFactory.createLocalInstance().createDatabaseInfo(
+			"CustomerDB", "MySQL", ChannelType.TCP_IP, "db-host:3306");
+
+	public static void main(String[] args) throws Exception {
+		checkFingerprints();
+		checkRecordDoesNotAllocate();
+		checkMaxAggregatesUnderContention();
+		checkLocalSDKAggregation();
+		System.out.println("OK");
+	}
+
+	private static void checkFingerprints() {
+		checkSameFingerprint("SELECT * FROM t WHERE id = ?", "SELECT * FROM t WHERE id=5", "select *  from t where id = 6",
+				"SELECT *\n\tFROM t -- by id\nWHERE /* primary key */ id =-7");
+		checkSameFingerprint("SELECT COUNT(*) FROM t WHERE a IN (?) AND b <> ?",
+				"select count(*) from t where a in (1, 2,3) and b<>'x'", "SELECT COUNT( * ) FROM t WHERE a IN(?) AND b <> ?");
+		checkSameFingerprint("INSERT INTO t(a, b) VALUES (?)", "insert into t (a,b) values (1, 'it''s')",
+				"INSERT INTO t(a , b) VALUES(?, ?)");
+		checkSameFingerprint("SELECT t.a, `b`.c FROM t WHERE x >= ?;", "SELECT t . a,`b` . c FROM t WHERE x>=.5e-3;");
+		checkSameFingerprint("UPDATE t SET a = a - ? WHERE b = ?", "update t set a=a-1 where b=:id");
+		checkDifferentFingerprints("SELECT a FROM t", "SELECT b FROM t");
+		checkDifferentFingerprints("SELECT a FROM t WHERE b < ?", "SELECT a FROM t WHERE b <= ?");
+		checkDifferentFingerprints("SELECT a FROM \"T\"", "SELECT a FROM \"t\"");
+	}
+
+	private static void checkSameFingerprint(String expected, String... statements) {
+		for (String statement : statements) {
+			String fingerprint = StatementFingerprint.of(statement);
+			check(fingerprint.equals(expected), "fingerprint \"" + expected + "\" (got: \"" + fingerprint + "\")");
+		}
+	}
+
+	private static void checkDifferentFingerprints(String statement, String otherStatement) {
+		check(!StatementFingerprint.of(statement).equals(StatementFingerprint.of(otherStatement)),
+				"different fingerprints for \"" + statement + "\" and \"" + otherStatement + "\"");
+	}
+
+	private static void checkRecordDoesNotAllocate() {
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("skipped: measuring allocated memory is not supported by this JVM");
+			return;
+		}
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		DatabaseRequestAggregator aggregator = new DatabaseRequestAggregator(10);
+		DatabaseStatementKey statementKey = new DatabaseStatementKey(DATABASE_INFO, "SELECT * FROM customers WHERE id = ?");
+		recordRequests(aggregator, statementKey, 200_000);
+		long threadId = Thread.currentThread().getId();
+		// allocations of the measurement itself
+		long overhead = Long.MAX_VALUE;
+		for (int i = 0; i < 10; i++) {
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - before);
+		}
+		// the fewest bytes of several rounds, so that one-time allocations of the JIT are ignored
+		long allocatedBytes = Long.MAX_VALUE;
+		for (int round = 0; round < 5; round++) {
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			recordRequests(aggregator, statementKey, 100_000);
+			allocatedBytes = Math.min(allocatedBytes, threadMXBean.getThreadAllocatedBytes(threadId) - before - overhead);
+		}
+		check(allocatedBytes == 0, "recording does not allocate (allocated: " + allocatedBytes + " bytes)");
+	}
+
+	private static void recordRequests(DatabaseRequestAggregator aggregator, DatabaseStatementKey statementKey, int count) {
+		for (int i = 0; i < count; i++) {
+			aggregator.record(statementKey, i, false, 1, 1);
+		}
+	}
+
+	private static void checkMaxAggregatesUnderContention() throws InterruptedException {
+		final int maxAggregates = 10;
+		for (int round = 0; round < 100; round++) {
+			final DatabaseRequestAggregator aggregator = new DatabaseRequestAggregator(maxAggregates);
+			final CountDownLatch startSignal = new CountDownLatch(1);
+			final AtomicInteger recorded = new AtomicInteger();
+			List<Thread> threads = new ArrayList<Thread>();
+			for (int t = 0; t < 8; t++) {
+				final int thread = t;
+				Thread recorder = new Thread(new Runnable() {
+					@Override
+					public void run() {
+						List<DatabaseStatementKey> statementKeys = new ArrayList<DatabaseStatementKey>();
+						for (int i = 0; i < maxAggregates; i++) {
+							statementKeys.add(new DatabaseStatementKey(DATABASE_INFO, "SELECT c" + thread + " FROM t" + i));
+						}
+						try {
+							startSignal.await();
+						} catch (InterruptedException e) {
+							Thread.currentThread().interrupt();
+							return;
+						}
+						for (DatabaseStatementKey statementKey : statementKeys) {
+							if (aggregator.record(statementKey, 1000, false, 0, 0)) {
+								recorded.incrementAndGet();
+							}
+						}
+					}
+				});
+				recorder.start();
+				threads.add(recorder);
+			}
+			startSignal.countDown();
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			List<DatabaseRequestAggregate> aggregates = aggregator.flush();
+			if (aggregates.size() != maxAggregates || recorded.get() != maxAggregates) {
+				check(false, maxAggregates + " aggregates (got: " + aggregates.size() + ", recorded: " + recorded.get() + ")");
+			}
+		}
+		check(true, "at most " + maxAggregates + " aggregates under contention");
+	}
+
+	private static void checkLocalSDKAggregation() throws InterruptedException {
+		OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 10, 1000);
+		oneAgentSDK.setDatabaseRequestAggregation(100, 2);
+		DatabaseInfo databaseInfo = oneAgentSDK.createDatabaseInfo("CheckDB", "H2", ChannelType.IN_PROCESS, null);
+		DatabaseStatementInfo ordersById = oneAgentSDK.createDatabaseStatementInfo(databaseInfo,
+				"SELECT * FROM orders WHERE id = 1");
+		for (int i = 0; i < 5; i++) {
+			DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(ordersById);
+			query.start();
+			if (i == 0) {
+				query.error("timeout");
+			}
+			query.end();
+		}
+		for (int i = 0; i < 3; i++) {
+			traceQuery(oneAgentSDK, databaseInfo, "select * from orders where id=" + i);
+		}
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM customers");
+		// beyond the maximum number of aggregates
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM addresses");
+
+		List<FinishedTracer> orders = awaitExported(exporter, "SELECT * FROM orders WHERE id = ?");
+		check(orders.size() == 1 && orders.get(0).getCallCount() == 8 && orders.get(0).getFailedCallCount() == 1,
+				"requests of one fingerprint exported as one aggregate with call and failure count, on the flush timer");
+		check(orders.get(0).getMaxDurationNanos() <= orders.get(0).getDurationNanos()
+				&& "CheckDB".equals(orders.get(0).getServiceName()), "aggregate holds total and maximum duration and database");
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM customers");
+		oneAgentSDK.setDatabaseRequestAggregation(0, 0);
+		traceQuery(oneAgentSDK, databaseInfo, "SELECT * FROM customers");
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		// two requests aggregated, the last one traced individually
+		int customersCallCount = 0;
+		for (FinishedTracer customers : exported(exporter, "SELECT * FROM customers")) {
+			customersCallCount += customers.getCallCount();
+		}
+		check(customersCallCount == 3, "remaining aggregates exported when aggregation is switched off (calls exported: "
+				+ customersCallCount + ")");
+		List<FinishedTracer> addresses = exported(exporter, "SELECT * FROM addresses");
+		check(addresses.size() == 1 && addresses.get(0).getCallCount() == 1,
+				"request beyond the maximum number of aggregates traced individually");
+	}
+
+	private static void traceQuery(OneAgentSDK oneAgentSDK, DatabaseInfo databaseInfo, String statement) {
+		DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, statement);
+		query.start();
+		query.end();
+	}
+
+	private static List<FinishedTracer> awaitExported(InMemoryTracerExporter exporter, String name)
+			throws InterruptedException {
+		long deadlineMillis = System.currentTimeMillis() + 10_000;
+		List<FinishedTracer> tracers = exported(exporter, name);
+		while (tracers.isEmpty() && System.currentTimeMillis() < deadlineMillis) {
+			Thread.sleep(10);
+			tracers = exported(exporter, name);
+		}
+		return tracers;
+	}
+
+	private static List<FinishedTracer> exported(InMemoryTracerExporter exporter, String name) {
+		List<FinishedTracer> tracers = new ArrayList<FinishedTracer>();
+		for (FinishedTracer tracer : exporter.getFinishedTracers()) {
+			if (tracer.getType() == TracerType.DATABASE_REQUEST && name.equals(tracer.getName())) {
+				tracers.add(tracer);
+			}
+		}
+		return tracers;
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
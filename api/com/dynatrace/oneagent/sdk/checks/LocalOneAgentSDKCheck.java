@@ -0,0 +1,326 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.Sampler;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+import com.dynatrace.oneagent.sdk.impl.sampling.Samplers;
+
+/**
+ * Checks the local {@link OneAgentSDK} end to end, from trace* calls through the export pipeline to an
+ * {@link InMemoryTracerExporter}:
+ * <ul>
+ * <li>an incoming 'traceparent' header continues the remote trace,</li>
+ * <li>child Tracers on the same thread, Tracers linked via {@link InProcessLink} on another thread and Tracers
+ * continuing a tag all join the trace with the right parent,</li>
+ * <li>custom request attributes, single and batched, are added to the service call, a batch with a key of another SDK
+ * is ignored as a whole,</li>
+ * <li>every ended Tracer is exported exactly once, nothing is dropped,</li>
+ * <li>messages of a batch get distinct tags, which resolve to the batch Tracer via its linked Span-Ids,</li>
+ * <li>the sampler is consulted once per new trace, at the trace* call. Traces not sampled get the shared stateless
+ * Tracer, and the decision propagates to children, via links and via tags.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class LocalOneAgentSDKCheck {
+
+	private static final String TRACE_ID = "0af7651916cd43dd8448eb211c80319c";
+	private static final String REMOTE_SPAN_ID = "b7ad6b7169203331";
+
+	public static void main(String[] args) throws Exception {
+		checkTracePropagation();
+		checkMessageBatchTags();
+		checkNotSampledTraces();
+		System.out.println("OK");
+	}
+
+	private static void checkTracePropagation() throws Exception {
+		final OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		WebApplicationInfo webApplicationInfo = oneAgentSDK.createWebApplicationInfo("CheckServer", "CheckApp", "/");
+		DatabaseInfo databaseInfo = oneAgentSDK.createDatabaseInfo("CheckDB", "H2", ChannelType.IN_PROCESS, null);
+
+		Map<String, String> requestHeaders = new HashMap<String, String>();
+		requestHeaders.put("traceparent", "00-" + TRACE_ID + "-" + REMOTE_SPAN_ID + "-01");
+		IncomingWebRequestTracer webRequest = oneAgentSDK.traceIncomingWebRequest(webApplicationInfo, "/orders", "GET");
+		webRequest.extractTracingHeaders(MAP_GETTER, requestHeaders);
+		webRequest.start();
+		oneAgentSDK.addCustomRequestAttribute("customer", "check");
+		oneAgentSDK.addCustomRequestAttribute("items", 3L);
+		CustomRequestAttributeBatch batch = oneAgentSDK.createCustomRequestAttributeBatch();
+		batch.add(oneAgentSDK.createCustomRequestAttributeKey("total"), 42.5);
+		batch.add(oneAgentSDK.createCustomRequestAttributeKey("retries"), 2L);
+		oneAgentSDK.addCustomRequestAttributes(batch);
+		batch.add(FOREIGN_KEY, 1L);
+		oneAgentSDK.addCustomRequestAttributes(batch);
+
+		CustomServiceTracer service = oneAgentSDK.traceCustomService("loadOrders", "OrderService");
+		service.start();
+		DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, "SELECT * FROM orders");
+		query.start();
+		query.end();
+		final InProcessLink link = oneAgentSDK.createInProcessLink();
+		service.end();
+
+		Thread worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				InProcessLinkTracer linked = oneAgentSDK.traceInProcessLink(link);
+				linked.start();
+				linked.end();
+			}
+		});
+		worker.start();
+		worker.join();
+
+		OutgoingRemoteCallTracer outgoing = oneAgentSDK.traceOutgoingRemoteCall("ship", "ShippingService", "shipping",
+				ChannelType.TCP_IP, "localhost:8080");
+		outgoing.start();
+		Map<String, String> callHeaders = new HashMap<String, String>();
+		outgoing.injectTracingHeaders(MAP_SETTER, callHeaders);
+		outgoing.end();
+		webRequest.end();
+
+		// the called service, as if in another process
+		IncomingRemoteCallTracer incoming = oneAgentSDK.traceIncomingRemoteCall("ship", "ShippingService", "shipping");
+		incoming.extractTracingHeaders(MAP_GETTER, callHeaders);
+		incoming.start();
+		check(!oneAgentSDK.getTraceContextInfo().getSpanId().equals(REMOTE_SPAN_ID), "incoming call got a span of its own");
+		incoming.end();
+		check(!oneAgentSDK.hasActivePath(), "no path active after all Tracers ended");
+
+		// shuts the pipeline down, after exporting all remaining Tracers
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+		Map<String, FinishedTracer> byName = byName(exporter.getFinishedTracers());
+		FinishedTracer exportedRequest = byName.get("/orders");
+		FinishedTracer exportedService = byName.get("loadOrders");
+		FinishedTracer exportedQuery = byName.get("SELECT * FROM orders");
+		FinishedTracer exportedLink = byName.get(null);
+		FinishedTracer exportedOutgoing = byNameAndType(exporter.getFinishedTracers(), "ship", false);
+		FinishedTracer exportedIncoming = byNameAndType(exporter.getFinishedTracers(), "ship", true);
+
+		check(exporter.getFinishedTracers().size() == 6, "every ended Tracer exported once (exported: "
+				+ exporter.getFinishedTracers().size() + ")");
+		check(oneAgentSDK.getDroppedTracerExportCount() == 0, "no Tracer dropped");
+		for (FinishedTracer tracer : exporter.getFinishedTracers()) {
+			check(TRACE_ID.equals(tracer.getTraceId()), tracer.getType() + " continues the incoming trace");
+		}
+		check(REMOTE_SPAN_ID.equals(exportedRequest.getParentSpanId()), "web request is a child of the remote caller");
+		check(exportedRequest.getSpanId().equals(exportedService.getParentSpanId()), "custom service is a child of the web request");
+		check(exportedService.getSpanId().equals(exportedQuery.getParentSpanId()), "database request is a child of the custom service");
+		check(exportedService.getSpanId().equals(exportedLink.getParentSpanId()), "linked Tracer is a child of the linking Tracer");
+		check(exportedRequest.getSpanId().equals(exportedOutgoing.getParentSpanId()), "outgoing call is a child of the web request");
+		check(exportedOutgoing.getSpanId().equals(exportedIncoming.getParentSpanId()),
+				"incoming call continues the tag of the outgoing call");
+		check("check".equals(exportedRequest.getCustomRequestAttributes().get("customer"))
+				&& Long.valueOf(3).equals(exportedRequest.getCustomRequestAttributes().get("items")),
+				"custom request attributes added to the service call");
+		check(Double.valueOf(42.5).equals(exportedRequest.getCustomRequestAttributes().get("total"))
+				&& Long.valueOf(2).equals(exportedRequest.getCustomRequestAttributes().get("retries")),
+				"batch of custom request attributes added to the service call");
+		check(exportedRequest.getCustomRequestAttributes().size() == 4, "batch with a key of another SDK ignored");
+	}
+
+	private static void checkMessageBatchTags() {
+		OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		MessagingSystemInfo messagingSystemInfo = oneAgentSDK.createMessagingSystemInfo("CheckMQ", "orders",
+				MessageDestinationType.QUEUE, ChannelType.IN_PROCESS, null);
+
+		OutgoingMessageTracer batch = oneAgentSDK.traceOutgoingMessageBatch(messagingSystemInfo, 3);
+		batch.start();
+		String firstTag = batch.getDynatraceStringTag(0);
+		Map<String, String> secondHeaders = new HashMap<String, String>();
+		batch.injectTracingHeaders(MAP_SETTER, secondHeaders, 1);
+		String secondTag = secondHeaders.get("traceparent");
+		check(!firstTag.isEmpty() && !firstTag.equals(secondTag), "messages of a batch get different tags");
+		check(firstTag.equals(batch.getDynatraceStringTag(0)), "tag of a message is stable");
+		check(!firstTag.equals(batch.getDynatraceStringTag()), "tag of a message differs from the tag of the batch");
+		batch.end();
+
+		for (String tag : new String[] { firstTag, secondTag }) {
+			IncomingMessageProcessTracer process = oneAgentSDK.traceIncomingMessageProcess(messagingSystemInfo);
+			process.setDynatraceStringTag(tag);
+			process.start();
+			process.end();
+		}
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		FinishedTracer exportedBatch = byNameAndType(exporter.getFinishedTracers(), "orders", false);
+		check(exportedBatch.getLinkedSpanIds().size() == 2, "span ids of the tagged messages exported with the batch");
+		int processed = 0;
+		for (FinishedTracer tracer : exporter.getFinishedTracers()) {
+			if (tracer.getType() == TracerType.INCOMING_MESSAGE_PROCESS) {
+				processed++;
+				check(exportedBatch.getTraceId().equals(tracer.getTraceId())
+						&& exportedBatch.getLinkedSpanIds().contains(tracer.getParentSpanId()),
+						"processed message " + processed + " resolves to the batch Tracer");
+			}
+		}
+		check(processed == 2, "both processed messages exported");
+	}
+
+	private static void checkNotSampledTraces() throws InterruptedException {
+		final OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		final AtomicInteger decisions = new AtomicInteger();
+		final AtomicBoolean sample = new AtomicBoolean();
+		oneAgentSDK.setSampler(new Sampler() {
+			@Override
+			public boolean shouldSample(TracerType tracerType, String serviceName) {
+				decisions.incrementAndGet();
+				return sample.get();
+			}
+		});
+		DatabaseInfo databaseInfo = oneAgentSDK.createDatabaseInfo("CheckDB", "H2", ChannelType.IN_PROCESS, null);
+
+		CustomServiceTracer root = oneAgentSDK.traceCustomService("poll", "PollService");
+		check(root == oneAgentSDK.traceCustomService("poll", "PollService"), "Tracers of new traces not sampled are shared");
+		root.start();
+		check(oneAgentSDK.hasActivePath(), "path of a trace not sampled is active");
+		DatabaseRequestTracer query = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, "SELECT 1");
+		check(query == root, "child of a trace not sampled is the shared Tracer");
+		query.start();
+		OutgoingRemoteCallTracer outgoing = oneAgentSDK.traceOutgoingRemoteCall("ship", "ShippingService", "shipping",
+				ChannelType.TCP_IP, "localhost:8080");
+		outgoing.start();
+		String tag = outgoing.getDynatraceStringTag();
+		outgoing.end();
+		query.end();
+		final InProcessLink link = oneAgentSDK.createInProcessLink();
+		root.end();
+		check(!oneAgentSDK.hasActivePath(), "no path active after the trace not sampled ended");
+		check(tag.startsWith("00-") && tag.endsWith("-00"), "tag of a trace not sampled has the sampled flag cleared");
+		check(decisions.get() == 2, "sampler only consulted for new traces (decisions: " + decisions.get() + ")");
+
+		// the decision propagates via the link and the tag, even though the sampler would record new traces now
+		sample.set(true);
+		final boolean[] linkedChildSampled = new boolean[1];
+		Thread worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				InProcessLinkTracer linked = oneAgentSDK.traceInProcessLink(link);
+				linked.start();
+				CustomServiceTracer child = oneAgentSDK.traceCustomService("ship", "ShippingService");
+				linkedChildSampled[0] = child != linked;
+				child.start();
+				child.end();
+				linked.end();
+			}
+		});
+		worker.start();
+		worker.join();
+		check(!linkedChildSampled[0], "Tracers linked to a trace not sampled are not sampled");
+		IncomingRemoteCallTracer incoming = oneAgentSDK.traceIncomingRemoteCall("ship", "ShippingService", "shipping");
+		incoming.setDynatraceStringTag(tag);
+		incoming.start();
+		CustomServiceTracer child = oneAgentSDK.traceCustomService("store", "StorageService");
+		check(child == query, "child of an incoming call with a tag not sampled is the shared Tracer");
+		child.start();
+		check(tag.substring(0, 36).equals(outgoingTagPrefix(oneAgentSDK)),
+				"trace context of the tag propagated to children");
+		child.end();
+		incoming.end();
+		check(decisions.get() == 2, "sampler not consulted for linked Tracers and incoming tags");
+
+		CustomServiceTracer sampled = oneAgentSDK.traceCustomService("poll", "PollService");
+		sampled.start();
+		sampled.end();
+		check(decisions.get() == 3, "sampler consulted once for a new trace that is sampled");
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+		check(exporter.getFinishedTracers().size() == 1, "only the sampled trace exported (exported: "
+				+ exporter.getFinishedTracers().size() + ")");
+
+		try {
+			Samplers.perService(Collections.<String, Sampler>emptyMap(), null);
+			check(false, "per-service sampler rejects a missing default sampler");
+		} catch (NullPointerException e) {
+			check(true, "per-service sampler rejects a missing default sampler");
+		}
+	}
+
+	/**
+	 * @return version and Trace-Id of a tag injected by a new outgoing call on the calling thread.
+	 */
+	private static String outgoingTagPrefix(OneAgentSDK oneAgentSDK) {
+		OutgoingWebRequestTracer outgoing = oneAgentSDK.traceOutgoingWebRequest("http://localhost/", "GET");
+		outgoing.start();
+		String tag = outgoing.getDynatraceStringTag();
+		outgoing.end();
+		return tag.substring(0, 36);
+	}
+
+	private static Map<String, FinishedTracer> byName(List<FinishedTracer> tracers) {
+		Map<String, FinishedTracer> byName = new HashMap<String, FinishedTracer>();
+		for (FinishedTracer tracer : tracers) {
+			byName.put(tracer.getName(), tracer);
+		}
+		return byName;
+	}
+
+	private static FinishedTracer byNameAndType(List<FinishedTracer> tracers, String name, boolean incoming) {
+		for (FinishedTracer tracer : tracers) {
+			if (name.equals(tracer.getName()) && tracer.getType().name().startsWith("INCOMING") == incoming) {
+				return tracer;
+			}
+		}
+		throw new AssertionError("expected: exported Tracer " + name);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+	private static final CustomRequestAttributeKey FOREIGN_KEY = new CustomRequestAttributeKey() {
+	};
+
+	private static final HeaderGetter<Map<String, String>> MAP_GETTER = new HeaderGetter<Map<String, String>>() {
+		@Override
+		public CharSequence getHeader(String name, Map<String, String> carrier) {
+			return carrier.get(name);
+		}
+	};
+
+	private static final HeaderSetter<Map<String, String>> MAP_SETTER = new HeaderSetter<Map<String, String>>() {
+		@Override
+		public void setHeader(String name, String value, Map<String, String> carrier) {
+			carrier.put(name, value);
+		}
+	};
+
+}
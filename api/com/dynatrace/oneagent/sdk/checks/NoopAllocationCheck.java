@@ -0,0 +1,188 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+
+/**
+ * Checks that tracing with the no-op {@link OneAgentSDK}, returned when no agent is present, does not allocate.
+ * For every {@link TracerType}, a typical instrumented call sequence (trace*, tags, start, end, release) is run
+ * after a warm-up, and the bytes allocated by the calling thread are measured via
+ * {@link com.sun.management.ThreadMXBean#getThreadAllocatedBytes(long)}.
+ *
+ * <p>Exits with status 1, if any Tracer type allocates.
+ */
+public class NoopAllocationCheck {
+
+	private static final int WARMUP_ITERATIONS = 200_000;
+	private static final int MEASURED_ITERATIONS = 100_000;
+
+	private static final String TAG = "FW4;129;12;-2023406815;4539717;0;17;66;c511;2h01;3h45";
+	private static final ByteBuffer TAG_BUFFER = ByteBuffer.allocate(64);
+
+	private static OneAgentSDK oneAgentSDK;
+	private static WebApplicationInfo webApplicationInfo;
+	private static DatabaseInfo databaseInfo;
+	private static MessagingSystemInfo messagingSystemInfo;
+
+	public static void main(String[] args) {
+		oneAgentSDK = OneAgentSDKFactory.createInstance();
+		if (oneAgentSDK.getCurrentState() != SDKState.PERMANENTLY_INACTIVE) {
+			System.out.println("An agent is present, the no-op SDK can not be checked.");
+			return;
+		}
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+		if (!threadMXBean.isThreadAllocatedMemorySupported()) {
+			System.out.println("Measuring allocated memory is not supported by this JVM.");
+			return;
+		}
+		threadMXBean.setThreadAllocatedMemoryEnabled(true);
+		webApplicationInfo = oneAgentSDK.createWebApplicationInfo("WebShopProduction", "CheckoutService", "/api/checkout");
+		databaseInfo = oneAgentSDK.createDatabaseInfo("CustomerDB", "MySQL", ChannelType.TCP_IP, "db-host:3306");
+		messagingSystemInfo = oneAgentSDK.createMessagingSystemInfo("RabbitMQ", "orders", MessageDestinationType.QUEUE,
+				ChannelType.TCP_IP, "mq-host:5672");
+
+		long threadId = Thread.currentThread().getId();
+		// allocations of the measurement itself, e.g. for boxing the thread id
+		long overhead = Long.MAX_VALUE;
+		for (int i = 0; i < 10; i++) {
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			overhead = Math.min(overhead, threadMXBean.getThreadAllocatedBytes(threadId) - before);
+		}
+
+		boolean failed = false;
+		for (TracerType tracerType : TracerType.values()) {
+			for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+				trace(tracerType);
+			}
+			long before = threadMXBean.getThreadAllocatedBytes(threadId);
+			for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+				trace(tracerType);
+			}
+			long allocatedBytes = threadMXBean.getThreadAllocatedBytes(threadId) - before - overhead;
+			System.out.println(tracerType + ": " + allocatedBytes + " bytes allocated in " + MEASURED_ITERATIONS + " calls");
+			if (allocatedBytes > 0) {
+				failed = true;
+			}
+		}
+		if (failed) {
+			System.out.println("FAILED: the no-op SDK allocated memory");
+			System.exit(1);
+		}
+		System.out.println("OK");
+	}
+
+	private static void trace(TracerType tracerType) {
+		switch (tracerType) {
+		case INCOMING_WEB_REQUEST:
+			IncomingWebRequestTracer incomingWebRequestTracer = oneAgentSDK.traceIncomingWebRequest(webApplicationInfo,
+					"https", "shop.example.com", -1, "/api/checkout", "cart=42", "POST", false);
+			incomingWebRequestTracer.setDynatraceStringTag(TAG);
+			incomingWebRequestTracer.addRequestHeader("Accept", "application/json");
+			incomingWebRequestTracer.start();
+			incomingWebRequestTracer.addCustomRequestAttribute("cartItems", 3L);
+			incomingWebRequestTracer.setStatusCode(200);
+			incomingWebRequestTracer.end();
+			incomingWebRequestTracer.release();
+			break;
+		case OUTGOING_WEB_REQUEST:
+			OutgoingWebRequestTracer outgoingWebRequestTracer = oneAgentSDK.traceOutgoingWebRequest(
+					"https", "payment.example.com", -1, "/charge", null, "POST", false);
+			outgoingWebRequestTracer.start();
+			TAG_BUFFER.clear();
+			outgoingWebRequestTracer.getDynatraceByteTag(TAG_BUFFER);
+			outgoingWebRequestTracer.setStatusCode(200);
+			outgoingWebRequestTracer.end();
+			outgoingWebRequestTracer.release();
+			break;
+		case DATABASE_REQUEST:
+			DatabaseRequestTracer databaseRequestTracer = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo,
+					"SELECT * FROM customers WHERE id = ?");
+			databaseRequestTracer.start();
+			databaseRequestTracer.setRowsReturned(1);
+			databaseRequestTracer.end();
+			databaseRequestTracer.release();
+			break;
+		case INCOMING_REMOTE_CALL:
+			IncomingRemoteCallTracer incomingRemoteCallTracer = oneAgentSDK.traceIncomingRemoteCall("placeOrder",
+					"OrderService", "rmi://order-host/OrderService");
+			incomingRemoteCallTracer.setDynatraceStringTag(TAG);
+			incomingRemoteCallTracer.start();
+			incomingRemoteCallTracer.end();
+			incomingRemoteCallTracer.release();
+			break;
+		case OUTGOING_REMOTE_CALL:
+			OutgoingRemoteCallTracer outgoingRemoteCallTracer = oneAgentSDK.traceOutgoingRemoteCall("placeOrder",
+					"OrderService", "rmi://order-host/OrderService", ChannelType.TCP_IP, "order-host:1099");
+			outgoingRemoteCallTracer.start();
+			outgoingRemoteCallTracer.getDynatraceStringTag();
+			outgoingRemoteCallTracer.end();
+			outgoingRemoteCallTracer.release();
+			break;
+		case IN_PROCESS_LINK:
+			InProcessLinkTracer inProcessLinkTracer = oneAgentSDK.traceInProcessLink(oneAgentSDK.createInProcessLink());
+			inProcessLinkTracer.start();
+			inProcessLinkTracer.end();
+			inProcessLinkTracer.release();
+			break;
+		case OUTGOING_MESSAGE:
+			OutgoingMessageTracer outgoingMessageTracer = oneAgentSDK.traceOutgoingMessage(messagingSystemInfo);
+			outgoingMessageTracer.start();
+			outgoingMessageTracer.getDynatraceStringTag();
+			outgoingMessageTracer.setVendorMessageId("msg-1");
+			outgoingMessageTracer.end();
+			outgoingMessageTracer.release();
+			break;
+		case INCOMING_MESSAGE_RECEIVE:
+			IncomingMessageReceiveTracer incomingMessageReceiveTracer = oneAgentSDK.traceIncomingMessageReceive(messagingSystemInfo);
+			incomingMessageReceiveTracer.start();
+			incomingMessageReceiveTracer.end();
+			incomingMessageReceiveTracer.release();
+			break;
+		case INCOMING_MESSAGE_PROCESS:
+			IncomingMessageProcessTracer incomingMessageProcessTracer = oneAgentSDK.traceIncomingMessageProcess(messagingSystemInfo);
+			incomingMessageProcessTracer.setDynatraceStringTag(TAG);
+			incomingMessageProcessTracer.setVendorMessageId("msg-1");
+			incomingMessageProcessTracer.start();
+			incomingMessageProcessTracer.end();
+			incomingMessageProcessTracer.release();
+			break;
+		case INCOMING_MESSAGE_BATCH_PROCESS:
+			IncomingMessageBatchProcessTracer incomingMessageBatchProcessTracer = oneAgentSDK.traceIncomingMessageBatchProcess(messagingSystemInfo);
+			incomingMessageBatchProcessTracer.setMessages(0, null, null, null);
+			incomingMessageBatchProcessTracer.start();
+			incomingMessageBatchProcessTracer.end();
+			incomingMessageBatchProcessTracer.release();
+			break;
+		case CUSTOM_SERVICE:
+			CustomServiceTracer customServiceTracer = oneAgentSDK.traceCustomService("onTimer", "PeriodicCleanupTask");
+			customServiceTracer.start();
+			oneAgentSDK.addCustomRequestAttribute("cleanedUp", 7L);
+			customServiceTracer.error("cleanup failed");
+			customServiceTracer.end();
+			customServiceTracer.release();
+			break;
+		}
+	}
+
+}
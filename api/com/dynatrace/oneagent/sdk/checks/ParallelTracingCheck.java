@@ -0,0 +1,237 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracedRecursiveTask;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracingParallelStreams;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks {@link TracedRecursiveTask} and {@link TracingParallelStreams} with the local {@link OneAgentSDK}:
+ * <ul>
+ * <li>a fork/join computation creates far fewer link Tracers than tasks, all of them below the node that started it,
+ * and every Tracer of a task is below one of them,</li>
+ * <li>a parallel stream creates no more link Tracers than splits, independent of the number of elements, also for
+ * short-circuiting operations,</li>
+ * <li>no scope is left behind on pool threads: tasks and streams created there later, while no PurePath is active,
+ * are not traced.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class ParallelTracingCheck {
+
+	private static final int WORKERS = 4;
+	private static final int THRESHOLD = 1_000;
+
+	public static void main(String[] args) throws Exception {
+		OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		ForkJoinPool pool = new ForkJoinPool(WORKERS);
+		checkRecursiveTask(oneAgentSDK, pool);
+		checkParallelStreams(oneAgentSDK);
+		checkNoScopeLeftBehind(oneAgentSDK, pool);
+		pool.shutdown();
+		pool.awaitTermination(10, TimeUnit.SECONDS);
+		System.out.println("OK");
+	}
+
+	private static void checkRecursiveTask(OneAgentSDK oneAgentSDK, ForkJoinPool pool) {
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 1000, 1000, 100_000);
+		int size = 1_000_000;
+		CustomServiceTracer service = oneAgentSDK.traceCustomService("sum", "ComputeService");
+		service.start();
+		long sum = pool.invoke(new Sum(oneAgentSDK, 0, size, true));
+		service.end();
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		List<FinishedTracer> tracers = exporter.getFinishedTracers();
+		String serviceSpanId = find(tracers, "sum").getSpanId();
+		Set<String> linkSpanIds = linkSpanIds(tracers, serviceSpanId);
+		int leaves = 0;
+		boolean leavesLinked = true;
+		for (FinishedTracer tracer : tracers) {
+			if ("leaf".equals(tracer.getName())) {
+				leaves++;
+				leavesLinked &= linkSpanIds.contains(tracer.getParentSpanId());
+			}
+		}
+		int tasks = 2 * leaves - 1;
+		check(sum == (long) size * (size - 1) / 2 && leaves >= size / THRESHOLD, "fork/join computation completed");
+		check(linkSpanIds.size() >= 1 && linkSpanIds.size() <= tasks / 8, "fork/join link Tracers bounded by steals, not tasks (links: "
+				+ linkSpanIds.size() + ", tasks: " + tasks + ")");
+		check(leavesLinked, "Tracers of all fork/join tasks below a link of the computation");
+	}
+
+	private static void checkParallelStreams(OneAgentSDK oneAgentSDK) {
+		int maxLinks = 0;
+		for (int size : new int[] { 10_000, 1_000_000 }) {
+			List<Integer> source = new ArrayList<Integer>(size);
+			for (int i = 0; i < size; i++) {
+				source.add(i);
+			}
+			InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+			oneAgentSDK.setTracerExporter(exporter, 1000, 1000, 10_000);
+			CustomServiceTracer service = oneAgentSDK.traceCustomService("stream", "ComputeService");
+			service.start();
+			long sum = TracingParallelStreams.parallelStream(oneAgentSDK, source).mapToLong(Integer::longValue).sum();
+			boolean found = TracingParallelStreams.parallelStream(oneAgentSDK, source).anyMatch(i -> i == size / 2);
+			service.end();
+			oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+			List<FinishedTracer> tracers = exporter.getFinishedTracers();
+			int links = linkSpanIds(tracers, find(tracers, "stream").getSpanId()).size();
+			check(sum == (long) size * (size - 1) / 2 && found, "parallel streams over " + size + " elements completed");
+			check(links == tracers.size() - 1, "only link Tracers below the node that created the streams");
+			maxLinks = Math.max(maxLinks, links);
+		}
+		// a parallel stream splits its source into at most a few splits per thread of the common pool
+		int maxSplits = 2 * 8 * (ForkJoinPool.getCommonPoolParallelism() + 1);
+		check(maxLinks <= maxSplits, "parallel stream link Tracers bounded by the splits, not the elements (links: "
+				+ maxLinks + ", at most " + maxSplits + ")");
+	}
+
+	private static void checkNoScopeLeftBehind(final OneAgentSDK oneAgentSDK, ForkJoinPool pool) throws Exception {
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 1000, 1000, 10_000);
+		final List<Integer> source = new ArrayList<Integer>();
+		for (int i = 0; i < 10_000; i++) {
+			source.add(i);
+		}
+		// created on every thread of both pools, while no PurePath is active. run on this thread, which is in no scope:
+		// a task or stream that took over a scope left on its pool thread would create a link Tracer in the old trace
+		List<Sum> tasks = runOnEveryThread(pool, WORKERS, new Callable<Sum>() {
+			@Override
+			public Sum call() {
+				return new Sum(oneAgentSDK, 0, 10_000, false);
+			}
+		});
+		List<Stream<Integer>> streams = runOnEveryThread(ForkJoinPool.commonPool(),
+				ForkJoinPool.getCommonPoolParallelism(), new Callable<Stream<Integer>>() {
+					@Override
+					public Stream<Integer> call() {
+						return TracingParallelStreams.parallelStream(oneAgentSDK, source);
+					}
+				});
+		streams.add(TracingParallelStreams.parallelStream(oneAgentSDK, source));
+		long expectedSum = 10_000L * 9_999 / 2;
+		boolean completed = true;
+		for (Sum task : tasks) {
+			completed &= task.invoke() == expectedSum;
+		}
+		for (Stream<Integer> stream : streams) {
+			completed &= stream.mapToLong(Integer::longValue).sum() == expectedSum;
+		}
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+		check(completed && exporter.getFinishedTracers().isEmpty(),
+				"no scope left on pool threads and the starting thread (exported: " + exporter.getFinishedTracers().size() + ")");
+	}
+
+	/**
+	 * Runs the task once on each thread of the pool, by making the threads wait for each other.
+	 *
+	 * @return results of the task
+	 */
+	private static <V> List<V> runOnEveryThread(ForkJoinPool pool, final int threads, final Callable<V> task)
+			throws Exception {
+		final CyclicBarrier barrier = new CyclicBarrier(threads);
+		List<Future<V>> futures = new ArrayList<Future<V>>();
+		for (int i = 0; i < threads; i++) {
+			futures.add(pool.submit(new Callable<V>() {
+				@Override
+				public V call() throws Exception {
+					barrier.await(10, TimeUnit.SECONDS);
+					return task.call();
+				}
+			}));
+		}
+		List<V> results = new ArrayList<V>();
+		for (Future<V> future : futures) {
+			results.add(future.get());
+		}
+		return results;
+	}
+
+	private static Set<String> linkSpanIds(List<FinishedTracer> tracers, String parentSpanId) {
+		Set<String> spanIds = new HashSet<String>();
+		for (FinishedTracer tracer : tracers) {
+			if (tracer.getType() == TracerType.IN_PROCESS_LINK) {
+				if (!parentSpanId.equals(tracer.getParentSpanId())) {
+					throw new AssertionError("expected: link Tracers below the node that started the work");
+				}
+				spanIds.add(tracer.getSpanId());
+			}
+		}
+		return spanIds;
+	}
+
+	private static final class Sum extends TracedRecursiveTask<Long> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final OneAgentSDK oneAgentSDK;
+		private final int from;
+		private final int to;
+		private final boolean traceLeaves;
+
+		Sum(OneAgentSDK oneAgentSDK, int from, int to, boolean traceLeaves) {
+			super(oneAgentSDK);
+			this.oneAgentSDK = oneAgentSDK;
+			this.from = from;
+			this.to = to;
+			this.traceLeaves = traceLeaves;
+		}
+
+		@Override
+		protected Long computeTraced() {
+			if (to - from <= THRESHOLD) {
+				if (traceLeaves) {
+					CustomServiceTracer leaf = oneAgentSDK.traceCustomService("leaf", "ComputeService");
+					leaf.start();
+					leaf.end();
+				}
+				long sum = 0;
+				for (int i = from; i < to; i++) {
+					sum += i;
+				}
+				return sum;
+			}
+			int middle = (from + to) >>> 1;
+			Sum left = new Sum(oneAgentSDK, from, middle, traceLeaves);
+			left.fork();
+			return new Sum(oneAgentSDK, middle, to, traceLeaves).compute() + left.join();
+		}
+
+	}
+
+	private static FinishedTracer find(List<FinishedTracer> tracers, String name) {
+		for (FinishedTracer tracer : tracers) {
+			if (name.equals(tracer.getName())) {
+				return tracer;
+			}
+		}
+		throw new AssertionError("expected: exported " + name);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
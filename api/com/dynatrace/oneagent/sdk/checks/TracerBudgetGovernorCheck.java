@@ -0,0 +1,219 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.impl.governor.TracerBudgetGovernor;
+
+/**
+ * Checks {@link TracerBudgetGovernor}:
+ * <ul>
+ * <li>a single thread can record the whole budget of a second,</li>
+ * <li>many threads together never record more than the budget, and not much less,</li>
+ * <li>a thread that read the clock before another thread moved on to the next second does not hand out the budget of
+ * the next second again,</li>
+ * <li>many threads hammering across many second boundaries never record more than the budget in any second,</li>
+ * <li>operations above the budget are counted as unrecorded.</li>
+ * </ul>
+ *
+ * <p>The governor reads the clock through a {@link RecordingClock}, so every recorded operation is counted for exactly
+ * the second the governor counted it for. Throws an {@link AssertionError}, if a check fails.
+ */
+public class TracerBudgetGovernorCheck {
+
+	private static final int BUDGET = 100_000;
+
+	public static void main(String[] args) throws Exception {
+		checkSingleHotThread();
+		checkManyThreads();
+		checkStaleSecond();
+		checkManyThreadsAcrossSeconds();
+		System.out.println("OK");
+	}
+
+	private static void checkSingleHotThread() {
+		RecordingClock clock = new RecordingClock(new AtomicLong());
+		TracerBudgetGovernor governor = new TracerBudgetGovernor(clock);
+		governor.setBudget(TracerType.DATABASE_REQUEST, BUDGET);
+		long second = awaitNextSecond(clock);
+		long recorded = 0;
+		long recordedAny = 0;
+		long attempts = 0;
+		while (clock.currentSecond() == second) {
+			attempts++;
+			if (governor.tryRecord(TracerType.DATABASE_REQUEST)) {
+				recordedAny++;
+				if (clock.lastSecond() == second) {
+					recorded++;
+				}
+			}
+		}
+		check(recorded == BUDGET, "single thread records the whole budget (recorded: " + recorded + ")");
+		check(governor.getUnrecordedCount(TracerType.DATABASE_REQUEST) == attempts - recordedAny,
+				"operations above the budget counted (unrecorded: " + governor.getUnrecordedCount(TracerType.DATABASE_REQUEST) + ")");
+		check(governor.tryRecord(TracerType.CUSTOM_SERVICE), "types without budget always recorded");
+	}
+
+	private static void checkManyThreads() throws InterruptedException {
+		final RecordingClock clock = new RecordingClock(new AtomicLong());
+		final TracerBudgetGovernor governor = new TracerBudgetGovernor(clock);
+		governor.setBudget(TracerType.DATABASE_REQUEST, BUDGET);
+		final AtomicLong recorded = new AtomicLong();
+		final long second = clock.currentSecond() + 1;
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 16; t++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (clock.currentSecond() < second) {
+						Thread.yield();
+					}
+					long count = 0;
+					while (clock.currentSecond() == second) {
+						if (governor.tryRecord(TracerType.DATABASE_REQUEST) && clock.lastSecond() == second) {
+							count++;
+						}
+					}
+					recorded.addAndGet(count);
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		check(recorded.get() <= BUDGET, "many threads record at most the budget (recorded: " + recorded.get() + ")");
+		check(recorded.get() >= BUDGET * 9L / 10, "many threads record about the budget (recorded: " + recorded.get() + ")");
+	}
+
+	private static void checkStaleSecond() {
+		final long second = TimeUnit.SECONDS.toNanos(1000);
+		final ArrayDeque<Long> readings = new ArrayDeque<Long>();
+		TracerBudgetGovernor governor = new TracerBudgetGovernor(new LongSupplier() {
+			@Override
+			public long getAsLong() {
+				// the last reading is repeated, like a clock that does not advance any more
+				return readings.size() > 1 ? readings.poll() : readings.peek();
+			}
+		});
+		readings.add(second);
+		governor.setBudget(TracerType.DATABASE_REQUEST, 1);
+		readings.clear();
+		readings.add(second + TimeUnit.SECONDS.toNanos(1));
+		check(governor.tryRecord(TracerType.DATABASE_REQUEST), "budget of the next second recorded");
+		// a thread that read the clock before the budget moved on, and reads it again when it notices
+		readings.clear();
+		readings.add(second);
+		readings.add(second + TimeUnit.SECONDS.toNanos(1));
+		check(!governor.tryRecord(TracerType.DATABASE_REQUEST), "stale reading does not record beyond the budget");
+		readings.clear();
+		readings.add(second + TimeUnit.SECONDS.toNanos(1));
+		check(!governor.tryRecord(TracerType.DATABASE_REQUEST), "budget of the next second not handed out again");
+	}
+
+	private static void checkManyThreadsAcrossSeconds() throws InterruptedException {
+		final int budget = 1_000;
+		final int seconds = 50;
+		final AtomicLong nanos = new AtomicLong(TimeUnit.SECONDS.toNanos(1000));
+		final RecordingClock clock = new RecordingClock(nanos);
+		final TracerBudgetGovernor governor = new TracerBudgetGovernor(clock);
+		governor.setBudget(TracerType.DATABASE_REQUEST, budget);
+		final long lastSecond = clock.currentSecond() + seconds;
+		final Map<Long, LongAdder> recordedPerSecond = new ConcurrentHashMap<Long, LongAdder>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 16; t++) {
+			Thread thread = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					while (clock.currentSecond() < lastSecond) {
+						if (governor.tryRecord(TracerType.DATABASE_REQUEST)) {
+							recordedPerSecond.computeIfAbsent(clock.lastSecond(), s -> new LongAdder()).increment();
+						}
+					}
+				}
+			});
+			thread.start();
+			threads.add(thread);
+		}
+		// every second of the check clock lasts 20 ms
+		for (int i = 0; i < seconds; i++) {
+			Thread.sleep(20);
+			nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		long maximum = 0;
+		int exhausted = 0;
+		for (LongAdder recorded : recordedPerSecond.values()) {
+			maximum = Math.max(maximum, recorded.sum());
+			if (recorded.sum() == budget) {
+				exhausted++;
+			}
+		}
+		check(maximum <= budget, "no second records more than the budget across second boundaries (maximum: " + maximum + ")");
+		check(exhausted >= seconds / 2, "budget used up in most seconds (seconds: " + exhausted + ")");
+	}
+
+	private static long awaitNextSecond(RecordingClock clock) {
+		long second = clock.currentSecond();
+		while (clock.currentSecond() == second) {
+			Thread.yield();
+		}
+		return second + 1;
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+	/**
+	 * {@link System#nanoTime()} plus an offset, which can be advanced to move on to the next second. Remembers the
+	 * last reading per thread, so that a recorded operation can be counted for the second the governor read.
+	 */
+	private static final class RecordingClock implements LongSupplier {
+
+		private final AtomicLong offsetNanos;
+		private final ThreadLocal<long[]> lastNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+		RecordingClock(AtomicLong offsetNanos) {
+			this.offsetNanos = offsetNanos;
+		}
+
+		@Override
+		public long getAsLong() {
+			long nanos = read();
+			lastNanos.get()[0] = nanos;
+			return nanos;
+		}
+
+		long currentSecond() {
+			return TimeUnit.NANOSECONDS.toSeconds(read());
+		}
+
+		/**
+		 * @return second of the last reading of the governor on the calling thread.
+		 */
+		long lastSecond() {
+			return TimeUnit.NANOSECONDS.toSeconds(lastNanos.get()[0]);
+		}
+
+		private long read() {
+			return System.nanoTime() + offsetNanos.get();
+		}
+
+	}
+
+}
@@ -0,0 +1,261 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.impl.journal.TracerJournal;
+import com.dynatrace.oneagent.sdk.impl.journal.TracerJournalReader;
+import com.dynatrace.oneagent.sdk.impl.journal.TracerJournalRecord;
+
+/**
+ * Checks {@link TracerJournal} and {@link TracerJournalReader}:
+ * <ul>
+ * <li>records appended concurrently across many segment roll-overs are all read back exactly once,</li>
+ * <li>the reader skips a slot without valid record and still finds the records behind it,</li>
+ * <li>{@link TracerJournal#close()} waits for threads still appending, so every appended record is readable.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class TracerJournalCheck {
+
+	/** size of the segment header, see TracerJournalFormat */
+	private static final int SEGMENT_HEADER_SIZE = 16;
+
+	public static void main(String[] args) throws Exception {
+		Path directory = Files.createTempDirectory("tracer-journal-check");
+		try {
+			checkConcurrentAppendAcrossSegments(directory.resolve("concurrent"));
+			checkUnfinishedSlotIsSkipped(directory.resolve("unfinished"));
+			checkCloseWaitsForWriters(directory.resolve("close"));
+		} finally {
+			deleteRecursively(directory);
+		}
+		System.out.println("OK");
+	}
+
+	private static void checkConcurrentAppendAcrossSegments(Path directory) throws Exception {
+		final int threads = 8;
+		final int tracersPerThread = 20_000;
+		final TracerJournal journal = new TracerJournal(directory, 64 * 1024, 0);
+		final CountDownLatch startSignal = new CountDownLatch(1);
+		List<Thread> writers = new ArrayList<Thread>();
+		for (int t = 0; t < threads; t++) {
+			final int thread = t;
+			Thread writer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					awaitQuietly(startSignal);
+					for (int i = 0; i < tracersPerThread; i++) {
+						journal.append(new CheckTracer((long) thread << 32 | i + 1));
+					}
+				}
+			});
+			writer.start();
+			writers.add(writer);
+		}
+		startSignal.countDown();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+		journal.close();
+
+		final Set<String> spanIds = new HashSet<String>();
+		long visited = new TracerJournalReader(directory).scan(new TracerJournalReader.RecordVisitor() {
+			@Override
+			public boolean visit(TracerJournalRecord record) {
+				spanIds.add(record.getSpanId());
+				return true;
+			}
+		});
+		check(journal.getDroppedCount() == 0, "no Tracer dropped (dropped: " + journal.getDroppedCount() + ")");
+		check(journal.getAppendedCount() == threads * tracersPerThread, "all Tracers appended (appended: " + journal.getAppendedCount() + ")");
+		check(visited == threads * tracersPerThread, "all records read (read: " + visited + ")");
+		check(spanIds.size() == threads * tracersPerThread, "every record read once (distinct: " + spanIds.size() + ")");
+		check(segmentFiles(directory).size() > 10, "several segments used");
+	}
+
+	private static void checkUnfinishedSlotIsSkipped(Path directory) throws Exception {
+		TracerJournal journal = new TracerJournal(directory, 64 * 1024, 0);
+		for (int i = 1; i <= 3; i++) {
+			journal.append(new CheckTracer(i));
+		}
+		journal.close();
+		// a writer that reserved the first slot, but did not write anything yet: length and commit marker are zero
+		RandomAccessFile segment = new RandomAccessFile(segmentFiles(directory).get(0).toFile(), "rw");
+		try {
+			segment.seek(SEGMENT_HEADER_SIZE);
+			segment.writeLong(0);
+		} finally {
+			segment.close();
+		}
+
+		final List<String> spanIds = new ArrayList<String>();
+		new TracerJournalReader(directory).scan(new TracerJournalReader.RecordVisitor() {
+			@Override
+			public boolean visit(TracerJournalRecord record) {
+				spanIds.add(record.getSpanId());
+				return true;
+			}
+		});
+		check(spanIds.equals(Arrays.asList(CheckTracer.hex(2), CheckTracer.hex(3))),
+				"records behind the unfinished slot read (read: " + spanIds + ")");
+	}
+
+	private static void checkCloseWaitsForWriters(Path directory) throws Exception {
+		final TracerJournal journal = new TracerJournal(directory, 64 * 1024, 0);
+		List<Thread> writers = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final int thread = t;
+			Thread writer = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					for (int i = 1; journal.append(new CheckTracer((long) thread << 32 | i)); i++) {
+					}
+				}
+			});
+			writer.start();
+			writers.add(writer);
+		}
+		Thread.sleep(50);
+		journal.close();
+		for (Thread writer : writers) {
+			writer.join();
+		}
+
+		long visited = new TracerJournalReader(directory).scan(new TracerJournalReader.RecordVisitor() {
+			@Override
+			public boolean visit(TracerJournalRecord record) {
+				return true;
+			}
+		});
+		check(journal.getAppendedCount() > 0, "Tracers appended before close");
+		check(visited == journal.getAppendedCount(),
+				"every appended record readable after close (appended: " + journal.getAppendedCount() + ", read: " + visited + ")");
+		check(!journal.append(new CheckTracer(1)), "append after close dropped");
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static List<Path> segmentFiles(Path directory) throws IOException {
+		List<Path> files = new ArrayList<Path>();
+		DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.journal");
+		try {
+			for (Path file : stream) {
+				files.add(file);
+			}
+		} finally {
+			stream.close();
+		}
+		Collections.sort(files);
+		return files;
+	}
+
+	private static void deleteRecursively(Path path) throws IOException {
+		if (Files.isDirectory(path)) {
+			DirectoryStream<Path> stream = Files.newDirectoryStream(path);
+			try {
+				for (Path child : stream) {
+					deleteRecursively(child);
+				}
+			} finally {
+				stream.close();
+			}
+		}
+		Files.deleteIfExists(path);
+	}
+
+	/**
+	 * Minimal finished Tracer, identified by its Span-Id.
+	 */
+	private static final class CheckTracer implements FinishedTracer {
+
+		private final long spanId;
+
+		CheckTracer(long spanId) {
+			this.spanId = spanId;
+		}
+
+		static String hex(long id) {
+			return String.format("%016x", id);
+		}
+
+		@Override
+		public TracerType getType() {
+			return TracerType.CUSTOM_SERVICE;
+		}
+
+		@Override
+		public String getName() {
+			return "check";
+		}
+
+		@Override
+		public String getServiceName() {
+			return "TracerJournalCheck";
+		}
+
+		@Override
+		public long getStartTimeMillis() {
+			return 0;
+		}
+
+		@Override
+		public long getDurationNanos() {
+			return 1000;
+		}
+
+		@Override
+		public String getErrorMessage() {
+			return null;
+		}
+
+		@Override
+		public String getTraceId() {
+			return "0123456789abcdef0123456789abcdef";
+		}
+
+		@Override
+		public String getSpanId() {
+			return hex(spanId);
+		}
+
+		@Override
+		public String getParentSpanId() {
+			return null;
+		}
+
+		@Override
+		public Map<String, Object> getCustomRequestAttributes() {
+			return Collections.emptyMap();
+		}
+
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracingContinuations;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks {@link TracingContinuations} with the local {@link OneAgentSDK}:
+ * <ul>
+ * <li>a function wrapped while no PurePath is active is returned unchanged,</li>
+ * <li>a continuation completing synchronously in the node that wrapped it runs without a link Tracer,</li>
+ * <li>a continuation running on another thread produces exactly one link Tracer, child of the wrapping node and
+ * parent of the Tracers of the continuation,</li>
+ * <li>a continuation running later on the wrapping thread, in another node, is linked.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class TracingContinuationsCheck {
+
+	public static void main(String[] args) throws Exception {
+		final OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+
+		Function<String, String> untraced = String::trim;
+		check(TracingContinuations.function(oneAgentSDK, untraced) == untraced, "untraced function passed through unwrapped");
+
+		CustomServiceTracer service = oneAgentSDK.traceCustomService("order", "OrderService");
+		service.start();
+		String synchronous = CompletableFuture.completedFuture(" id ")
+				.thenApply(TracingContinuations.function(oneAgentSDK, untraced)).join();
+		Supplier<String> asynchronous = TracingContinuations.supplier(oneAgentSDK, () -> {
+			traceChild(oneAgentSDK, "loadOrder");
+			return "order";
+		});
+		CompletableFuture.supplyAsync(asynchronous, executor).join();
+		Runnable later = TracingContinuations.runnable(oneAgentSDK, () -> traceChild(oneAgentSDK, "audit"));
+		service.end();
+
+		CustomServiceTracer otherService = oneAgentSDK.traceCustomService("report", "ReportService");
+		otherService.start();
+		later.run();
+		otherService.end();
+		executor.shutdown();
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		List<FinishedTracer> tracers = exporter.getFinishedTracers();
+		List<FinishedTracer> links = ofType(tracers, TracerType.IN_PROCESS_LINK);
+		FinishedTracer exportedService = find(tracers, "order");
+		FinishedTracer loadOrder = find(tracers, "loadOrder");
+		FinishedTracer audit = find(tracers, "audit");
+		check("id".equals(synchronous) && links.size() == 2,
+				"synchronous continuation not linked, the other two linked once each (links: " + links.size() + ")");
+		check(links.get(0).getParentSpanId().equals(exportedService.getSpanId())
+				&& loadOrder.getParentSpanId().equals(links.get(0).getSpanId()),
+				"cross-thread continuation linked below the wrapping node, its Tracers below the link");
+		check(links.get(1).getParentSpanId().equals(exportedService.getSpanId())
+				&& audit.getParentSpanId().equals(links.get(1).getSpanId())
+				&& audit.getTraceId().equals(exportedService.getTraceId()),
+				"continuation running later in another node on the wrapping thread linked to the wrapping node");
+		System.out.println("OK");
+	}
+
+	private static void traceChild(OneAgentSDK oneAgentSDK, String name) {
+		CustomServiceTracer child = oneAgentSDK.traceCustomService(name, "ChildService");
+		child.start();
+		child.end();
+	}
+
+	private static List<FinishedTracer> ofType(List<FinishedTracer> tracers, TracerType type) {
+		List<FinishedTracer> result = new ArrayList<FinishedTracer>();
+		for (FinishedTracer tracer : tracers) {
+			if (tracer.getType() == type) {
+				result.add(tracer);
+			}
+		}
+		return result;
+	}
+
+	private static FinishedTracer find(List<FinishedTracer> tracers, String name) {
+		for (FinishedTracer tracer : tracers) {
+			if (name.equals(tracer.getName())) {
+				return tracer;
+			}
+		}
+		throw new AssertionError("expected: exported " + name);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
@@ -0,0 +1,163 @@
+package com.dynatrace.oneagent.sdk.checks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracingExecutors;
+import com.dynatrace.oneagent.sdk.impl.export.InMemoryTracerExporter;
+
+/**
+ * Checks {@link TracingExecutors} with the local {@link OneAgentSDK}:
+ * <ul>
+ * <li>a task handed over while no PurePath is active is passed to the wrapped executor unwrapped,</li>
+ * <li>a task running on a pool thread produces exactly one link Tracer, child of the node that handed it over,</li>
+ * <li>a task rejected to the calling thread runs in the node that handed it over, without a link Tracer,</li>
+ * <li>tasks of invokeAll each produce one link Tracer.</li>
+ * </ul>
+ *
+ * <p>Throws an {@link AssertionError}, if a check fails.
+ */
+public class TracingExecutorsCheck {
+
+	public static void main(String[] args) throws Exception {
+		final OneAgentSDK oneAgentSDK = OneAgentSDKFactory.createLocalInstance();
+		checkUntracedTaskUnwrapped(oneAgentSDK);
+
+		InMemoryTracerExporter exporter = new InMemoryTracerExporter();
+		oneAgentSDK.setTracerExporter(exporter, 100, 1000, 1000);
+		// a single pool thread without queue: a task handed over while it is busy runs on the calling thread
+		ExecutorService executor = TracingExecutors.wrap(oneAgentSDK, new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS,
+				new SynchronousQueue<Runnable>(), new ThreadPoolExecutor.CallerRunsPolicy()));
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+
+		CustomServiceTracer service = oneAgentSDK.traceCustomService("order", "OrderService");
+		service.start();
+		Future<?> pooled = executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				traceChild(oneAgentSDK, "pooled");
+				started.countDown();
+				await(proceed);
+			}
+		});
+		await(started);
+		executor.execute(new Runnable() {
+			@Override
+			public void run() {
+				traceChild(oneAgentSDK, "rejected");
+			}
+		});
+		proceed.countDown();
+		pooled.get();
+		List<Callable<String>> tasks = new ArrayList<Callable<String>>();
+		for (final String name : Arrays.asList("first", "second")) {
+			tasks.add(new Callable<String>() {
+				@Override
+				public String call() {
+					traceChild(oneAgentSDK, name);
+					return name;
+				}
+			});
+		}
+		ExecutorService pool = TracingExecutors.wrap(oneAgentSDK, Executors.newFixedThreadPool(2));
+		for (Future<String> future : pool.invokeAll(tasks)) {
+			future.get();
+		}
+		service.end();
+		executor.shutdown();
+		pool.shutdown();
+		oneAgentSDK.setTracerExporter(null, 0, 0, 0);
+
+		List<FinishedTracer> tracers = exporter.getFinishedTracers();
+		String serviceSpanId = find(tracers, "order").getSpanId();
+		int links = 0;
+		boolean linksBelowService = true;
+		for (FinishedTracer tracer : tracers) {
+			if (tracer.getType() == TracerType.IN_PROCESS_LINK) {
+				links++;
+				linksBelowService &= serviceSpanId.equals(tracer.getParentSpanId());
+			}
+		}
+		check(links == 3 && linksBelowService, "one link Tracer per task run by the pool, below the handing node (links: "
+				+ links + ")");
+		check(isLinked(tracers, "pooled") && isLinked(tracers, "first") && isLinked(tracers, "second"),
+				"Tracers of pooled tasks below their link");
+		check(serviceSpanId.equals(find(tracers, "rejected").getParentSpanId()),
+				"task rejected to the calling thread runs in the handing node, without a link");
+		System.out.println("OK");
+	}
+
+	private static void checkUntracedTaskUnwrapped(OneAgentSDK oneAgentSDK) {
+		final List<Runnable> received = new ArrayList<Runnable>();
+		Executor executor = TracingExecutors.wrap(oneAgentSDK, new Executor() {
+			@Override
+			public void execute(Runnable command) {
+				received.add(command);
+			}
+		});
+		Runnable task = new Runnable() {
+			@Override
+			public void run() {
+			}
+		};
+		executor.execute(task);
+		check(received.size() == 1 && received.get(0) == task, "untraced task passed to the executor unwrapped");
+	}
+
+	private static boolean isLinked(List<FinishedTracer> tracers, String name) {
+		String parentSpanId = find(tracers, name).getParentSpanId();
+		for (FinishedTracer tracer : tracers) {
+			if (tracer.getType() == TracerType.IN_PROCESS_LINK && tracer.getSpanId().equals(parentSpanId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static void traceChild(OneAgentSDK oneAgentSDK, String name) {
+		CustomServiceTracer child = oneAgentSDK.traceCustomService(name, "ChildService");
+		child.start();
+		child.end();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static FinishedTracer find(List<FinishedTracer> tracers, String name) {
+		for (FinishedTracer tracer : tracers) {
+			if (name.equals(tracer.getName())) {
+				return tracer;
+			}
+		}
+		throw new AssertionError("expected: exported " + name);
+	}
+
+	private static void check(boolean condition, String expectation) {
+		if (!condition) {
+			throw new AssertionError("expected: " + expectation);
+		}
+		System.out.println("passed: " + expectation);
+	}
+
+}
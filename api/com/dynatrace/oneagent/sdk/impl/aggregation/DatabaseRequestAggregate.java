@@ -0,0 +1,73 @@
+package com.dynatrace.oneagent.sdk.impl.aggregation;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+
+/**
+ * Aggregated database requests of one statement fingerprint on one database, during one flush interval. Immutable.
+ */
+public final class DatabaseRequestAggregate {
+
+	private final DatabaseInfo databaseInfo;
+	private final String statementFingerprint;
+	private final long errorCount;
+	private final long rowsReturned;
+	private final long roundTripCount;
+	private final long totalDurationNanos;
+	private final LatencyHistogram latencies;
+
+	DatabaseRequestAggregate(DatabaseInfo databaseInfo, String statementFingerprint, long errorCount, long rowsReturned,
+			long roundTripCount, long totalDurationNanos, LatencyHistogram latencies) {
+		this.databaseInfo = databaseInfo;
+		this.statementFingerprint = statementFingerprint;
+		this.errorCount = errorCount;
+		this.rowsReturned = rowsReturned;
+		this.roundTripCount = roundTripCount;
+		this.totalDurationNanos = totalDurationNanos;
+		this.latencies = latencies;
+	}
+
+	public DatabaseInfo getDatabaseInfo() {
+		return databaseInfo;
+	}
+
+	/**
+	 * @return normalized statement, see {@link StatementFingerprint}.
+	 */
+	public String getStatementFingerprint() {
+		return statementFingerprint;
+	}
+
+	public long getCount() {
+		return latencies.getCount();
+	}
+
+	public long getErrorCount() {
+		return errorCount;
+	}
+
+	/**
+	 * @return sum of all rows returned, as far as they were reported.
+	 */
+	public long getRowsReturned() {
+		return rowsReturned;
+	}
+
+	/**
+	 * @return sum of all round trips, as far as they were reported.
+	 */
+	public long getRoundTripCount() {
+		return roundTripCount;
+	}
+
+	public long getTotalDurationNanos() {
+		return totalDurationNanos;
+	}
+
+	/**
+	 * @return latency distribution. must not be modified.
+	 */
+	public LatencyHistogram getLatencies() {
+		return latencies;
+	}
+
+}
@@ -0,0 +1,135 @@
+package com.dynatrace.oneagent.sdk.impl.aggregation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+
+/**
+ * Collapses database requests into one aggregate per ({@link DatabaseInfo}, statement fingerprint), as configured via
+ * {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setDatabaseRequestAggregation(long, int)}. Recording takes no lock,
+ * {@link #flush()} is meant to be called periodically by a single thread.
+ *
+ * <p>Requests are recorded by a {@link DatabaseStatementKey}, created once per statement, so recording does not
+ * allocate and does not normalize the statement again.
+ *
+ * <p>The number of aggregates is bounded: when it is reached, requests of new statements are not aggregated and must
+ * be traced individually. The bound holds also when new statements are recorded concurrently. The aggregates are kept
+ * across flushes, so a statement keeps its slot.
+ */
+public final class DatabaseRequestAggregator {
+
+	private final ConcurrentMap<DatabaseStatementKey, Aggregation> aggregations =
+			new ConcurrentHashMap<DatabaseStatementKey, Aggregation>();
+	/** number of aggregates, including slots reserved for aggregates about to be added */
+	private final AtomicInteger aggregateCount = new AtomicInteger();
+	private final int maxAggregates;
+
+	/**
+	 * @param maxAggregates	maximum number of distinct (database, fingerprint) pairs. must be positive.
+	 */
+	public DatabaseRequestAggregator(int maxAggregates) {
+		if (maxAggregates <= 0) {
+			throw new IllegalArgumentException("maxAggregates must be positive: " + maxAggregates);
+		}
+		this.maxAggregates = maxAggregates;
+	}
+
+	/**
+	 * Records one database request.
+	 *
+	 * @param statementKey			statement and database the request was sent to
+	 * @param durationNanos			duration of the request
+	 * @param error					true if the request failed
+	 * @param rowsReturned			rows returned, 0 if unknown
+	 * @param roundTripCount		round trips, 0 if unknown
+	 * @return false if the request was not recorded, because the maximum number of aggregates was reached.
+	 */
+	public boolean record(DatabaseStatementKey statementKey, long durationNanos, boolean error, int rowsReturned,
+			int roundTripCount) {
+		Aggregation aggregation = aggregations.get(statementKey);
+		if (aggregation == null) {
+			aggregation = add(statementKey);
+			if (aggregation == null) {
+				return false;
+			}
+		}
+		if (error) {
+			aggregation.errorCount.increment();
+		}
+		if (rowsReturned > 0) {
+			aggregation.rowsReturned.add(rowsReturned);
+		}
+		if (roundTripCount > 0) {
+			aggregation.roundTripCount.add(roundTripCount);
+		}
+		aggregation.totalDurationNanos.add(durationNanos);
+		aggregation.latencies.record(durationNanos);
+		return true;
+	}
+
+	/**
+	 * Makes sure the statement has an aggregate, so that its requests can be recorded. Lets an SDK decide before a
+	 * request starts, whether it is aggregated or traced individually.
+	 *
+	 * @param statementKey	statement and database
+	 * @return false if the statement has no aggregate and the maximum number of aggregates was reached.
+	 */
+	public boolean reserve(DatabaseStatementKey statementKey) {
+		return aggregations.containsKey(statementKey) || add(statementKey) != null;
+	}
+
+	/**
+	 * @return aggregation of the statement, or null if the maximum number of aggregates was reached.
+	 */
+	private Aggregation add(DatabaseStatementKey statementKey) {
+		// reserve a slot before adding, so that concurrent adds can not exceed the maximum
+		if (aggregateCount.incrementAndGet() > maxAggregates) {
+			aggregateCount.decrementAndGet();
+			return aggregations.get(statementKey);
+		}
+		Aggregation created = new Aggregation();
+		Aggregation existing = aggregations.putIfAbsent(statementKey, created);
+		if (existing != null) {
+			aggregateCount.decrementAndGet();
+			return existing;
+		}
+		return created;
+	}
+
+	/**
+	 * Returns the aggregates recorded since the last flush and starts new ones. Requests recorded concurrently are
+	 * either contained in the returned aggregates or in those of the next flush; their counters may be split across
+	 * two flushes.
+	 *
+	 * @return one aggregate per (database, fingerprint) pair with at least one request since the last flush.
+	 */
+	public List<DatabaseRequestAggregate> flush() {
+		List<DatabaseRequestAggregate> result = new ArrayList<DatabaseRequestAggregate>();
+		for (Map.Entry<DatabaseStatementKey, Aggregation> entry : aggregations.entrySet()) {
+			Aggregation aggregation = entry.getValue();
+			LatencyHistogram latencies = aggregation.latencies.copyAndReset();
+			if (latencies.getCount() == 0) {
+				continue;
+			}
+			result.add(new DatabaseRequestAggregate(entry.getKey().getDatabaseInfo(), entry.getKey().getStatementFingerprint(),
+					aggregation.errorCount.sumThenReset(), aggregation.rowsReturned.sumThenReset(),
+					aggregation.roundTripCount.sumThenReset(), aggregation.totalDurationNanos.sumThenReset(), latencies));
+		}
+		return result;
+	}
+
+	private static final class Aggregation {
+		final LongAdder errorCount = new LongAdder();
+		final LongAdder rowsReturned = new LongAdder();
+		final LongAdder roundTripCount = new LongAdder();
+		final LongAdder totalDurationNanos = new LongAdder();
+		final LatencyHistogram latencies = new LatencyHistogram();
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.dynatrace.oneagent.sdk.impl.aggregation;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+
+/**
+ * Identifies the aggregate of a statement on a database in {@link DatabaseRequestAggregator}. The fingerprint and hash
+ * code are computed once on creation, so a key should be created once per
+ * {@link com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo} and be reused for every request. Immutable.
+ */
+public final class DatabaseStatementKey {
+
+	private final DatabaseInfo databaseInfo;
+	private final String statementFingerprint;
+	private final int hashCode;
+
+	/**
+	 * @param databaseInfo	database the statement is sent to
+	 * @param statement		SQL statement, normalized via {@link StatementFingerprint#of(String)}
+	 */
+	public DatabaseStatementKey(DatabaseInfo databaseInfo, String statement) {
+		this.databaseInfo = databaseInfo;
+		this.statementFingerprint = StatementFingerprint.of(statement);
+		this.hashCode = System.identityHashCode(databaseInfo) * 31 + statementFingerprint.hashCode();
+	}
+
+	public DatabaseInfo getDatabaseInfo() {
+		return databaseInfo;
+	}
+
+	/**
+	 * @return normalized statement, see {@link StatementFingerprint}.
+	 */
+	public String getStatementFingerprint() {
+		return statementFingerprint;
+	}
+
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (obj == this) {
+			return true;
+		}
+		if (!(obj instanceof DatabaseStatementKey)) {
+			return false;
+		}
+		DatabaseStatementKey other = (DatabaseStatementKey) obj;
+		return hashCode == other.hashCode && databaseInfo == other.databaseInfo
+				&& statementFingerprint.equals(other.statementFingerprint);
+	}
+
+}
@@ -0,0 +1,114 @@
+package com.dynatrace.oneagent.sdk.impl.aggregation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets, each split into 32 linear sub-buckets (like HdrHistogram).
+ * Recorded values are kept with a relative precision of about 3%, with a fixed memory footprint. Values are in
+ * nanoseconds, values above about 18 minutes are recorded as 18 minutes.
+ */
+public final class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 5;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int MAX_VALUE_BITS = 40;
+	private static final long MAX_VALUE = (1L << MAX_VALUE_BITS) - 1;
+	private static final int BUCKET_COUNT = (MAX_VALUE_BITS - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT;
+
+	private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+	private final AtomicLong totalCount = new AtomicLong();
+	private final AtomicLong maxValue = new AtomicLong();
+
+	/**
+	 * @param nanos	duration to record. negative values are recorded as 0.
+	 */
+	public void record(long nanos) {
+		long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+		counts.incrementAndGet(indexOf(value));
+		totalCount.incrementAndGet();
+		long max = maxValue.get();
+		while (value > max && !maxValue.compareAndSet(max, value)) {
+			max = maxValue.get();
+		}
+	}
+
+	/**
+	 * @return number of recorded values.
+	 */
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	/**
+	 * @return largest recorded value, exact.
+	 */
+	public long getMaxNanos() {
+		return maxValue.get();
+	}
+
+	/**
+	 * @param percentile	between 0.0 and 100.0
+	 * @return the highest value, that is equivalent (within the precision of this histogram) to the value at the given
+	 *         percentile. 0 if no values were recorded.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		long count = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			count += counts.get(i);
+		}
+		if (count == 0) {
+			return 0;
+		}
+		long rank = Math.max(1, (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += counts.get(i);
+			if (seen >= rank) {
+				return Math.min(highestValueOf(i), maxValue.get());
+			}
+		}
+		return maxValue.get();
+	}
+
+	/**
+	 * Moves all recorded values into a new histogram, while values may still be recorded concurrently. Every value is
+	 * contained in exactly one of both histograms afterwards. The maximum of the returned histogram may belong to a
+	 * value that was recorded concurrently and ended up in this histogram.
+	 *
+	 * @return new histogram containing the values recorded so far.
+	 */
+	public LatencyHistogram copyAndReset() {
+		LatencyHistogram copy = new LatencyHistogram();
+		copy.maxValue.set(maxValue.getAndSet(0));
+		long total = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			long count = counts.getAndSet(i, 0);
+			if (count != 0) {
+				copy.counts.set(i, count);
+				total += count;
+			}
+		}
+		copy.totalCount.set(total);
+		totalCount.addAndGet(-total);
+		return copy;
+	}
+
+	private static int indexOf(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKET_COUNT + (int) (value >>> shift) - SUB_BUCKET_COUNT;
+	}
+
+	private static long highestValueOf(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = index % SUB_BUCKET_COUNT + SUB_BUCKET_COUNT;
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
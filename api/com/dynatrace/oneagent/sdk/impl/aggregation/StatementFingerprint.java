@@ -0,0 +1,215 @@
+package com.dynatrace.oneagent.sdk.impl.aggregation;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizes SQL statements, so that statements only differing in literal values or formatting share one fingerprint:
+ * <ul>
+ * <li>string literals ('...'), numeric literals, including negative ones, and named parameters (:name) are replaced by
+ * '?'</li>
+ * <li>lists of literals and placeholders (e.g. "IN (1, 2, 3)") collapse to a single '?'</li>
+ * <li>comments are removed; tokens are separated by a single blank, independent of the original whitespace, except
+ * after '(', before ')', ',' and ';', around '.' and '::', and between a name and its '('</li>
+ * <li>keywords and common function names are written in upper case</li>
+ * </ul>
+ * Quoted identifiers ("...", `...`, [...]) and other names are kept as they are. As normalization scans the whole
+ * statement, it should be done once per {@link com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo}, not per
+ * call.
+ */
+public final class StatementFingerprint {
+
+	private static final Set<String> KEYWORDS = new HashSet<String>(Arrays.asList(
+			"ALL", "ALTER", "AND", "ANY", "AS", "ASC", "BEGIN", "BETWEEN", "BY", "CALL", "CASE", "COMMIT", "CREATE",
+			"CROSS", "DEFAULT", "DELETE", "DESC", "DISTINCT", "DROP", "DUPLICATE", "ELSE", "END", "ESCAPE", "EXCEPT",
+			"EXEC", "EXISTS", "FALSE", "FETCH", "FIRST", "FOR", "FROM", "FULL", "GROUP", "HAVING", "IGNORE", "IN",
+			"INNER", "INSERT", "INTERSECT", "INTO", "IS", "JOIN", "KEY", "LEFT", "LIKE", "LIMIT", "LOCK", "MERGE",
+			"MINUS", "NEXT", "NOT", "NOWAIT", "NULL", "OFFSET", "ON", "ONLY", "OR", "ORDER", "OUTER", "REPLACE",
+			"RETURNING", "RIGHT", "ROLLBACK", "ROWS", "SELECT", "SET", "SHARE", "SOME", "TABLE", "THEN", "TOP", "TRUE",
+			"UNION", "UPDATE", "USING", "VALUES", "WHEN", "WHERE", "WITH"));
+	private static final Set<String> FUNCTIONS = new HashSet<String>(Arrays.asList(
+			"ABS", "AVG", "CAST", "COALESCE", "CONCAT", "COUNT", "IFNULL", "LENGTH", "LOWER", "MAX", "MIN", "NOW",
+			"NULLIF", "NVL", "ROUND", "SUBSTRING", "SUM", "TRIM", "UPPER"));
+
+	// kinds of the last token written, deciding about the blank before the next one
+	private static final int NONE = 0;
+	private static final int NAME = 1;
+	private static final int KEYWORD = 2;
+	private static final int PLACEHOLDER = 3;
+	private static final int OPERATOR = 4;
+	private static final int OPEN = 5;
+	private static final int CLOSE = 6;
+	private static final int COMMA = 7;
+	private static final int DOT = 8;
+	private static final int SEMICOLON = 9;
+
+	private StatementFingerprint() {
+	}
+
+	/**
+	 * @param statement	SQL statement
+	 * @return fingerprint of the statement, e.g. "SELECT * FROM t WHERE id = ?" for "select * from t where id=5".
+	 */
+	public static String of(String statement) {
+		int length = statement.length();
+		StringBuilder out = new StringBuilder(length);
+		int last = NONE;
+		int i = 0;
+		while (i < length) {
+			char c = statement.charAt(i);
+			char next = i + 1 < length ? statement.charAt(i + 1) : 0;
+			if (c == '\'') {
+				i = skipQuoted(statement, i, '\'');
+				last = appendPlaceholder(out, last);
+			} else if (c == '"' || c == '`' || c == '[') {
+				int end = skipQuoted(statement, i, c == '[' ? ']' : c);
+				last = append(out, last, NAME, statement.substring(i, end));
+				i = end;
+			} else if (c == '-' && next == '-') {
+				while (i < length && statement.charAt(i) != '\n') {
+					i++;
+				}
+			} else if (c == '/' && next == '*') {
+				int end = statement.indexOf("*/", i + 2);
+				i = end < 0 ? length : end + 2;
+			} else if (Character.isWhitespace(c)) {
+				i++;
+			} else if (isNumberStart(statement, i)) {
+				i = skipNumber(statement, i);
+				last = appendPlaceholder(out, last);
+			} else if (c == '-' && i + 1 < length && isNumberStart(statement, i + 1)
+					&& (last == NONE || last == KEYWORD || last == OPERATOR || last == OPEN || last == COMMA)) {
+				// negative number
+				i = skipNumber(statement, i + 1);
+				last = appendPlaceholder(out, last);
+			} else if (c == '?') {
+				i++;
+				last = appendPlaceholder(out, last);
+			} else if (c == ':' && next != ':' && isNamePart(next)) {
+				// named parameter
+				i += 2;
+				while (i < length && isNamePart(statement.charAt(i))) {
+					i++;
+				}
+				last = appendPlaceholder(out, last);
+			} else if (c == ':' && next == ':') {
+				// cast, written like a qualified name
+				i += 2;
+				last = append(out, last, DOT, "::");
+			} else if (isNamePart(c)) {
+				int end = i + 1;
+				while (end < length && isNamePart(statement.charAt(end))) {
+					end++;
+				}
+				String name = statement.substring(i, end);
+				String upperCase = name.toUpperCase(Locale.ROOT);
+				if (KEYWORDS.contains(upperCase)) {
+					last = append(out, last, KEYWORD, upperCase);
+				} else {
+					last = append(out, last, NAME, FUNCTIONS.contains(upperCase) ? upperCase : name);
+				}
+				i = end;
+			} else if (c == '(') {
+				i++;
+				last = append(out, last, OPEN, "(");
+			} else if (c == ')') {
+				i++;
+				last = append(out, last, CLOSE, ")");
+			} else if (c == ',') {
+				i++;
+				last = append(out, last, COMMA, ",");
+			} else if (c == '.') {
+				i++;
+				last = append(out, last, DOT, ".");
+			} else if (c == ';') {
+				i++;
+				last = append(out, last, SEMICOLON, ";");
+			} else {
+				int end = isTwoCharOperator(c, next) ? i + 2 : i + 1;
+				last = append(out, last, OPERATOR, statement.substring(i, end));
+				i = end;
+			}
+		}
+		return out.toString();
+	}
+
+	private static int skipQuoted(String statement, int start, char quote) {
+		int i = start + 1;
+		while (i < statement.length()) {
+			if (statement.charAt(i) == quote) {
+				// doubled quote is an escaped quote
+				if (i + 1 < statement.length() && statement.charAt(i + 1) == quote) {
+					i += 2;
+					continue;
+				}
+				return i + 1;
+			}
+			i++;
+		}
+		return i;
+	}
+
+	private static boolean isNumberStart(String statement, int i) {
+		char c = statement.charAt(i);
+		return (c >= '0' && c <= '9')
+				|| (c == '.' && i + 1 < statement.length() && statement.charAt(i + 1) >= '0' && statement.charAt(i + 1) <= '9');
+	}
+
+	private static int skipNumber(String statement, int i) {
+		// covers integers, decimals, exponents and hex literals
+		while (i < statement.length()) {
+			char c = statement.charAt(i);
+			if (Character.isLetterOrDigit(c) || c == '.') {
+				i++;
+			} else if ((c == '+' || c == '-') && (statement.charAt(i - 1) == 'e' || statement.charAt(i - 1) == 'E')) {
+				i++;
+			} else {
+				break;
+			}
+		}
+		return i;
+	}
+
+	private static boolean isNamePart(char c) {
+		return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '@' || c == '#';
+	}
+
+	private static boolean isTwoCharOperator(char c, char next) {
+		return (next == '=' && "<>!:".indexOf(c) >= 0) || (c == '<' && next == '>') || (c == '|' && next == '|');
+	}
+
+	/**
+	 * @return kind of the appended token.
+	 */
+	private static int append(StringBuilder out, int last, int kind, String token) {
+		if (needsBlank(last, kind)) {
+			out.append(' ');
+		}
+		out.append(token);
+		return kind;
+	}
+
+	private static boolean needsBlank(int last, int kind) {
+		if (last == NONE || last == OPEN || last == DOT) {
+			return false;
+		}
+		if (kind == CLOSE || kind == COMMA || kind == DOT || kind == SEMICOLON) {
+			return false;
+		}
+		// "COUNT(*)", but "IN (?)"
+		return kind != OPEN || last != NAME;
+	}
+
+	private static int appendPlaceholder(StringBuilder out, int last) {
+		// "?, ?" collapses to "?"
+		int end = out.length();
+		if (last == COMMA && end >= 2 && out.charAt(end - 2) == '?') {
+			out.setLength(end - 1);
+			return PLACEHOLDER;
+		}
+		return append(out, last, PLACEHOLDER, "?");
+	}
+
+}
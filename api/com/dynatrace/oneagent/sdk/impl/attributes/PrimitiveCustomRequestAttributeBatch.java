@@ -0,0 +1,82 @@
+package com.dynatrace.oneagent.sdk.impl.attributes;
+
+import java.util.Arrays;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+
+/**
+ * {@link CustomRequestAttributeBatch} storing keys and values in parallel arrays, one pair per value type. Adding
+ * attributes neither boxes values nor allocates, once the arrays have grown to the number of attributes used per
+ * request.
+ */
+public final class PrimitiveCustomRequestAttributeBatch implements CustomRequestAttributeBatch {
+
+	private static final int INITIAL_CAPACITY = 16;
+
+	private CustomRequestAttributeKey[] longKeys = new CustomRequestAttributeKey[INITIAL_CAPACITY];
+	private long[] longValues = new long[INITIAL_CAPACITY];
+	private int longCount;
+
+	private CustomRequestAttributeKey[] doubleKeys = new CustomRequestAttributeKey[INITIAL_CAPACITY];
+	private double[] doubleValues = new double[INITIAL_CAPACITY];
+	private int doubleCount;
+
+	@Override
+	public void add(CustomRequestAttributeKey key, long value) {
+		if (key == null) {
+			throw new NullPointerException("key");
+		}
+		if (longCount == longKeys.length) {
+			longKeys = Arrays.copyOf(longKeys, longCount * 2);
+			longValues = Arrays.copyOf(longValues, longCount * 2);
+		}
+		longKeys[longCount] = key;
+		longValues[longCount++] = value;
+	}
+
+	@Override
+	public void add(CustomRequestAttributeKey key, double value) {
+		if (key == null) {
+			throw new NullPointerException("key");
+		}
+		if (doubleCount == doubleKeys.length) {
+			doubleKeys = Arrays.copyOf(doubleKeys, doubleCount * 2);
+			doubleValues = Arrays.copyOf(doubleValues, doubleCount * 2);
+		}
+		doubleKeys[doubleCount] = key;
+		doubleValues[doubleCount++] = value;
+	}
+
+	@Override
+	public void clear() {
+		// keys are kept referenced, they are long-lived handles anyway
+		longCount = 0;
+		doubleCount = 0;
+	}
+
+	public int getLongCount() {
+		return longCount;
+	}
+
+	public CustomRequestAttributeKey getLongKey(int index) {
+		return longKeys[index];
+	}
+
+	public long getLongValue(int index) {
+		return longValues[index];
+	}
+
+	public int getDoubleCount() {
+		return doubleCount;
+	}
+
+	public CustomRequestAttributeKey getDoubleKey(int index) {
+		return doubleKeys[index];
+	}
+
+	public double getDoubleValue(int index) {
+		return doubleValues[index];
+	}
+
+}
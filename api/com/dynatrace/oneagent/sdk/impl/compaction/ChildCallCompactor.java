@@ -0,0 +1,174 @@
+package com.dynatrace.oneagent.sdk.impl.compaction;
+
+import java.util.Arrays;
+
+/**
+ * Merges identical child calls of one parent Tracer into a single node, as configured via
+ * {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setChildCallCompaction(int)}. Two calls are identical, if they
+ * have an equal target (e.g. the {@link com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo}, or service name and
+ * endpoint of a remote call) and an equal operation (e.g. the statement, or the remote method). It does not matter
+ * whether the calls are consecutive. A call looks up its node when it starts ({@link #node(Object, String, long)}), so
+ * that it can refer to the node while it runs, and is merged into the node when it ends
+ * ({@link #record(int, long, boolean)}).
+ *
+ * <p>Memory is bounded by the maximum number of nodes given at construction: once it is reached, calls that do not
+ * match an existing node are only counted ({@link #getDroppedCount()}). Storage grows on demand, so parents with few
+ * children stay small.
+ *
+ * <p>A compactor belongs to one parent Tracer and is not thread-safe.
+ */
+public final class ChildCallCompactor {
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private final int maxNodes;
+
+	private int size;
+	private Object[] targets = new Object[INITIAL_CAPACITY];
+	private String[] operations = new String[INITIAL_CAPACITY];
+	private long[] startTimesMillis = new long[INITIAL_CAPACITY];
+	private int[] counts = new int[INITIAL_CAPACITY];
+	private int[] errorCounts = new int[INITIAL_CAPACITY];
+	private long[] totalDurationsNanos = new long[INITIAL_CAPACITY];
+	private long[] maxDurationsNanos = new long[INITIAL_CAPACITY];
+	/** open addressing hash index: node index + 1, 0 for empty slots */
+	private int[] index = new int[INITIAL_CAPACITY * 2];
+	private long droppedCount;
+
+	/**
+	 * @param maxNodes	maximum number of distinct nodes of the parent. must be positive.
+	 */
+	public ChildCallCompactor(int maxNodes) {
+		if (maxNodes <= 0) {
+			throw new IllegalArgumentException("maxNodes must be positive: " + maxNodes);
+		}
+		this.maxNodes = maxNodes;
+	}
+
+	/**
+	 * Looks up the node of a child call that is about to start, so that the call can refer to its node (e.g. in tags)
+	 * while it runs. A new node is created for the first of identical calls.
+	 *
+	 * @param target			target of the call, compared with equals. required parameter.
+	 * @param operation			operation of the call. required parameter.
+	 * @param startTimeMillis	start time of the call, used for new nodes
+	 * @return index of the node of the call, -1 if the call is dropped.
+	 */
+	public int node(Object target, String operation, long startTimeMillis) {
+		int mask = index.length - 1;
+		int slot = hash(target, operation) & mask;
+		while (index[slot] != 0) {
+			int node = index[slot] - 1;
+			if (operations[node].equals(operation) && targets[node].equals(target)) {
+				return node;
+			}
+			slot = (slot + 1) & mask;
+		}
+		if (size == maxNodes) {
+			droppedCount++;
+			return -1;
+		}
+		if (size == targets.length) {
+			grow();
+			return node(target, operation, startTimeMillis);
+		}
+		int node = size++;
+		targets[node] = target;
+		operations[node] = operation;
+		startTimesMillis[node] = startTimeMillis;
+		index[slot] = node + 1;
+		return node;
+	}
+
+	/**
+	 * Merges a finished child call into its node.
+	 *
+	 * @param node				index returned by {@link #node(Object, String, long)} when the call started
+	 * @param durationNanos		duration of the call
+	 * @param error				true if the call failed
+	 */
+	public void record(int node, long durationNanos, boolean error) {
+		counts[node]++;
+		if (error) {
+			errorCounts[node]++;
+		}
+		totalDurationsNanos[node] += durationNanos;
+		if (durationNanos > maxDurationsNanos[node]) {
+			maxDurationsNanos[node] = durationNanos;
+		}
+	}
+
+	/**
+	 * @return number of nodes, in the order of their first call.
+	 */
+	public int size() {
+		return size;
+	}
+
+	public Object getTarget(int node) {
+		return targets[node];
+	}
+
+	public String getOperation(int node) {
+		return operations[node];
+	}
+
+	/**
+	 * @return start time of the first merged call.
+	 */
+	public long getStartTimeMillis(int node) {
+		return startTimesMillis[node];
+	}
+
+	/**
+	 * @return number of merged calls, 0 while the first call of the node has not finished.
+	 */
+	public int getCount(int node) {
+		return counts[node];
+	}
+
+	public int getErrorCount(int node) {
+		return errorCounts[node];
+	}
+
+	public long getTotalDurationNanos(int node) {
+		return totalDurationsNanos[node];
+	}
+
+	public long getMaxDurationNanos(int node) {
+		return maxDurationsNanos[node];
+	}
+
+	/**
+	 * @return number of calls not recorded, because the maximum number of nodes was reached.
+	 */
+	public long getDroppedCount() {
+		return droppedCount;
+	}
+
+	private void grow() {
+		int capacity = Math.min(targets.length * 2, maxNodes);
+		targets = Arrays.copyOf(targets, capacity);
+		operations = Arrays.copyOf(operations, capacity);
+		startTimesMillis = Arrays.copyOf(startTimesMillis, capacity);
+		counts = Arrays.copyOf(counts, capacity);
+		errorCounts = Arrays.copyOf(errorCounts, capacity);
+		totalDurationsNanos = Arrays.copyOf(totalDurationsNanos, capacity);
+		maxDurationsNanos = Arrays.copyOf(maxDurationsNanos, capacity);
+		index = new int[Integer.highestOneBit(capacity - 1) << 2];
+		int mask = index.length - 1;
+		for (int node = 0; node < size; node++) {
+			int slot = hash(targets[node], operations[node]) & mask;
+			while (index[slot] != 0) {
+				slot = (slot + 1) & mask;
+			}
+			index[slot] = node + 1;
+		}
+	}
+
+	private static int hash(Object target, String operation) {
+		int h = target.hashCode() * 31 + operation.hashCode();
+		return h ^ (h >>> 16);
+	}
+
+}
@@ -0,0 +1,179 @@
+package com.dynatrace.oneagent.sdk.impl.completion;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.dynatrace.oneagent.sdk.api.LoggingCallback;
+import com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy;
+
+/**
+ * Completes ended Tracers on a daemon thread, as configured via
+ * {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setAsynchronousCompletion(int, CompletionOverflowPolicy)}.
+ * {@link #submit(Completable)} puts the Tracer into an {@link MpscRingBuffer} and only wakes up the completion thread,
+ * if it is waiting for work. When the ring is full, the {@link CompletionOverflowPolicy} applies and the overflow is
+ * counted once per submitted Tracer.
+ *
+ * <p>No submitted Tracer is lost by {@link #shutdown()}: Tracers submitted before are completed by the completion
+ * thread, those racing with it are completed by the submitting thread.
+ */
+public final class AsynchronousTracerCompletion {
+
+	/** upper bound of a wait, in case a wake up is missed */
+	private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+	/** wait of {@link CompletionOverflowPolicy#BLOCK} between retries */
+	private static final long BLOCK_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	private final MpscRingBuffer<Completable> queue;
+	private final CompletionOverflowPolicy overflowPolicy;
+	private final Thread worker;
+	/** serializes the consumers: the completion thread and, after shutdown, submitting threads */
+	private final Object consumerLock = new Object();
+	private final AtomicLong overflowCount = new AtomicLong();
+
+	private volatile LoggingCallback loggingCallback;
+	private volatile boolean waiting;
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates the ring and starts the completion thread.
+	 *
+	 * @param queueCapacity		maximum number of Tracers waiting for completion. must be positive.
+	 * @param overflowPolicy	what to do when the ring is full. required parameter.
+	 */
+	public AsynchronousTracerCompletion(int queueCapacity, CompletionOverflowPolicy overflowPolicy) {
+		if (overflowPolicy == null) {
+			throw new NullPointerException("overflowPolicy");
+		}
+		this.queue = new MpscRingBuffer<Completable>(queueCapacity);
+		this.overflowPolicy = overflowPolicy;
+		this.worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				completionLoop();
+			}
+		}, "OneAgentSDK tracer completion");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Installs a callback that gets informed, if completing a Tracer fails.
+	 *
+	 * @param loggingCallback	may be null, to remove current callback.
+	 */
+	public void setLoggingCallback(LoggingCallback loggingCallback) {
+		this.loggingCallback = loggingCallback;
+	}
+
+	/**
+	 * Hands an ended Tracer to the completion thread. Does not block with {@link CompletionOverflowPolicy#DROP}, waits
+	 * for room in the ring with {@link CompletionOverflowPolicy#BLOCK}. After {@link #shutdown()}, the Tracer is
+	 * completed by the calling thread.
+	 *
+	 * @return false if the Tracer was dropped, because the ring is full.
+	 */
+	public boolean submit(Completable tracer) {
+		if (shutdown) {
+			complete(tracer);
+			return true;
+		}
+		if (!queue.offer(tracer)) {
+			overflowCount.incrementAndGet();
+			if (overflowPolicy == CompletionOverflowPolicy.DROP) {
+				return false;
+			}
+			do {
+				if (shutdown) {
+					complete(tracer);
+					return true;
+				}
+				LockSupport.parkNanos(BLOCK_PARK_NANOS);
+			} while (!queue.offer(tracer));
+		}
+		if (shutdown) {
+			// the completion thread may have finished before the Tracer was queued
+			completeQueued();
+		} else if (waiting) {
+			LockSupport.unpark(worker);
+		}
+		return true;
+	}
+
+	/**
+	 * Completes all Tracers submitted before this call and stops the completion thread. Tracers submitted afterwards
+	 * are completed by the submitting thread.
+	 *
+	 * @throws InterruptedException	if interrupted while waiting.
+	 */
+	public void shutdown() throws InterruptedException {
+		shutdown = true;
+		LockSupport.unpark(worker);
+		worker.join();
+	}
+
+	/**
+	 * @return how often the ring was full when a Tracer was submitted: the number of dropped Tracers with
+	 *         {@link CompletionOverflowPolicy#DROP}, the number of waiting submissions with
+	 *         {@link CompletionOverflowPolicy#BLOCK}.
+	 */
+	public long getOverflowCount() {
+		return overflowCount.get();
+	}
+
+	private void completionLoop() {
+		while (true) {
+			boolean stopping = shutdown;
+			if (completeQueued() == 0) {
+				if (stopping) {
+					// the ring was drained after shutdown was seen: Tracers queued later are completed by their submitter
+					return;
+				}
+				waiting = true;
+				// checked again after announcing the wait, so that a Tracer queued meanwhile is not left waiting
+				if (queueIsEmpty() && !shutdown) {
+					LockSupport.parkNanos(this, MAX_PARK_NANOS);
+				}
+				waiting = false;
+			}
+		}
+	}
+
+	private boolean queueIsEmpty() {
+		synchronized (consumerLock) {
+			return queue.isEmpty();
+		}
+	}
+
+	/**
+	 * @return number of completed Tracers
+	 */
+	private int completeQueued() {
+		int count = 0;
+		synchronized (consumerLock) {
+			Completable tracer;
+			while ((tracer = queue.poll()) != null) {
+				complete(tracer);
+				count++;
+			}
+		}
+		return count;
+	}
+
+	private void complete(Completable tracer) {
+		try {
+			tracer.complete();
+		} catch (Throwable e) {
+			// also Errors: the completion thread must survive any Tracer, or shutdown() would wait forever
+			LoggingCallback callback = loggingCallback;
+			if (callback != null) {
+				try {
+					callback.error("completion of a tracer failed: " + e);
+				} catch (RuntimeException callbackException) {
+					// a failing callback must not stop the completion thread
+				}
+			}
+		}
+	}
+
+}
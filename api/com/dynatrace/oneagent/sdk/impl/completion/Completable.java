@@ -0,0 +1,14 @@
+package com.dynatrace.oneagent.sdk.impl.completion;
+
+/**
+ * Ended Tracer, whose remaining work is done by {@link AsynchronousTracerCompletion}.
+ */
+public interface Completable {
+
+	/**
+	 * Does the work left after the end timestamp was taken, e.g. capturing attributes and handing the Tracer to an
+	 * exporter. Called once, by the completion thread or, after shutdown, by the thread ending the Tracer.
+	 */
+	void complete();
+
+}
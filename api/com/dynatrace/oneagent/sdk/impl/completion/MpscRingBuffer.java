@@ -0,0 +1,99 @@
+package com.dynatrace.oneagent.sdk.impl.completion;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded, lock-free queue for many producers and a single consumer, on a ring of slots. Every slot carries a sequence
+ * number, telling whether it may be written or read in the current lap of the ring (after D. Vyukov's bounded queue).
+ * Producers only contend on the compare-and-set of the tail; the consumer reads without atomic read-modify-write
+ * operations. Neither {@link #offer(Object)} nor {@link #poll()} allocate.
+ *
+ * <p>{@link #poll()} and {@link #isEmpty()} must not be called concurrently, e.g. only by one thread or under a lock.
+ *
+ * @param <E> element type
+ */
+public final class MpscRingBuffer<E> {
+
+	private final int capacity;
+	private final AtomicReferenceArray<E> elements;
+	/** position + 1 if the slot holds the element of position, position + capacity once it was read */
+	private final AtomicLongArray sequences;
+	/** next position to write */
+	private final AtomicLong tail = new AtomicLong();
+	/** next position to read, used by the consumer only */
+	private long head;
+
+	/**
+	 * @param capacity	maximum number of elements. must be positive.
+	 */
+	public MpscRingBuffer(int capacity) {
+		if (capacity <= 0) {
+			throw new IllegalArgumentException("capacity must be positive");
+		}
+		this.capacity = capacity;
+		this.elements = new AtomicReferenceArray<E>(capacity);
+		this.sequences = new AtomicLongArray(capacity);
+		for (int i = 0; i < capacity; i++) {
+			sequences.set(i, i);
+		}
+	}
+
+	/**
+	 * Adds an element, if there is room. Never blocks. May be called by any thread.
+	 *
+	 * @param element	not null
+	 * @return false if the queue is full.
+	 */
+	public boolean offer(E element) {
+		long position = tail.get();
+		while (true) {
+			int index = (int) (position % capacity);
+			long difference = sequences.get(index) - position;
+			if (difference == 0) {
+				if (tail.compareAndSet(position, position + 1)) {
+					elements.lazySet(index, element);
+					// publishes the element to the consumer
+					sequences.set(index, position + 1);
+					return true;
+				}
+				position = tail.get();
+			} else if (difference < 0) {
+				// the slot still holds the element of the previous lap
+				return false;
+			} else {
+				// another producer took the position
+				position = tail.get();
+			}
+		}
+	}
+
+	/**
+	 * @return the oldest element, or null if the queue is empty. Consumer only.
+	 */
+	public E poll() {
+		int index = (int) (head % capacity);
+		if (sequences.get(index) != head + 1) {
+			return null;
+		}
+		E element = elements.get(index);
+		elements.lazySet(index, null);
+		// hands the slot back to the producers of the next lap
+		sequences.set(index, head + capacity);
+		head++;
+		return element;
+	}
+
+	/**
+	 * @return whether there is no element to poll. Consumer only.
+	 */
+	public boolean isEmpty() {
+		return sequences.get((int) (head % capacity)) != head + 1;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+}
@@ -0,0 +1,121 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * PurePath context of an asynchronous continuation, captured when the continuation was created: a link to the
+ * PurePath and the token of the node that was active (see {@link OneAgentSDK#getActivePathToken()}). Immutable, so
+ * one context can be shared by several continuations.
+ *
+ * <p>The link is created eagerly by {@link #capture(OneAgentSDK)}: only the wrapping thread knows the active node, and
+ * whether the continuation completes synchronously is only known when it runs. So every wrap pays one
+ * {@link OneAgentSDK#createInProcessLink()}, also if the continuation then runs in the same node. Such a continuation
+ * does not trace the link, which is the expensive part: it creates no {@link InProcessLinkTracer} and no node.
+ * Callers wrapping several continuations in the same node may share one context.
+ */
+final class ContinuationContext {
+
+	private final OneAgentSDK oneAgentSDK;
+	private final InProcessLink inProcessLink;
+	private final Object pathToken;
+
+	private ContinuationContext(OneAgentSDK oneAgentSDK, InProcessLink inProcessLink, Object pathToken) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.inProcessLink = inProcessLink;
+		this.pathToken = pathToken;
+	}
+
+	/**
+	 * @return context of the PurePath active on the calling thread, null if there is none.
+	 */
+	static ContinuationContext capture(OneAgentSDK oneAgentSDK) {
+		Object pathToken = oneAgentSDK.getActivePathToken();
+		return pathToken != null ? new ContinuationContext(oneAgentSDK, oneAgentSDK.createInProcessLink(), pathToken) : null;
+	}
+
+	/**
+	 * Enters the captured PurePath before running the continuation.
+	 *
+	 * @return started tracer, which must be ended after the continuation. null if the node that was active at capture
+	 *         time is still active, i.e. the continuation completed synchronously and needs no link.
+	 */
+	InProcessLinkTracer enter() {
+		if (oneAgentSDK.getActivePathToken() == pathToken) {
+			return null;
+		}
+		InProcessLinkTracer tracer = oneAgentSDK.traceInProcessLink(inProcessLink);
+		tracer.start();
+		return tracer;
+	}
+
+	/**
+	 * Calls a continuation in the captured PurePath, see {@link #enter()}. A thrown exception is reported as error of
+	 * the link.
+	 */
+	<V> V call(Callable<V> continuation) throws Exception {
+		return call(continuation, null);
+	}
+
+	/**
+	 * Same as {@link #call(Callable)}, for continuations that throw no checked exception.
+	 */
+	<V> V get(final Supplier<V> continuation) {
+		try {
+			return call(continuation::get, null);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			// not thrown by a Supplier
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	/**
+	 * Same as {@link #call(Callable)}, for continuations without result.
+	 */
+	void run(Runnable continuation) {
+		run(continuation, null);
+	}
+
+	/**
+	 * Runs a continuation handling a failure in the captured PurePath. The failure is reported as error of the link.
+	 */
+	void run(final Runnable continuation, Throwable failure) {
+		try {
+			call(() -> {
+				continuation.run();
+				return null;
+			}, failure);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			// not thrown by a Runnable
+			throw new UndeclaredThrowableException(e);
+		}
+	}
+
+	private <V> V call(Callable<V> continuation, Throwable failure) throws Exception {
+		InProcessLinkTracer tracer = enter();
+		if (tracer == null) {
+			return continuation.call();
+		}
+		try {
+			if (failure != null) {
+				tracer.error(failure.getMessage());
+			}
+			return continuation.call();
+		} catch (Exception | Error e) {
+			tracer.error(e.getMessage());
+			throw e;
+		} finally {
+			tracer.end();
+		}
+	}
+
+}
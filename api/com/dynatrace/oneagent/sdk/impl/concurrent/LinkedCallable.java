@@ -0,0 +1,53 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Calls a task under an {@link InProcessLinkTracer} of a link captured when the task was handed over. A task that runs
+ * in the PurePath node it was handed over from, e.g. rejected to the calling thread, is called directly.
+ */
+final class LinkedCallable<V> implements Callable<V> {
+
+	private final ContinuationContext context;
+	private final Callable<V> task;
+
+	LinkedCallable(ContinuationContext context, Callable<V> task) {
+		this.context = context;
+		this.task = task;
+	}
+
+	/**
+	 * @return the task, linked to the active PurePath if there is one, otherwise the task itself.
+	 */
+	static <V> Callable<V> link(OneAgentSDK oneAgentSDK, Callable<V> task) {
+		ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		return context != null ? new LinkedCallable<V>(context, task) : task;
+	}
+
+	/**
+	 * Links all tasks to the active PurePath, if there is one. One link is shared by all tasks.
+	 */
+	static <V> Collection<? extends Callable<V>> linkAll(OneAgentSDK oneAgentSDK, Collection<? extends Callable<V>> tasks) {
+		ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return tasks;
+		}
+		List<Callable<V>> linked = new ArrayList<Callable<V>>(tasks.size());
+		for (Callable<V> task : tasks) {
+			linked.add(new LinkedCallable<V>(context, task));
+		}
+		return linked;
+	}
+
+	@Override
+	public V call() throws Exception {
+		return context.call(task);
+	}
+
+}
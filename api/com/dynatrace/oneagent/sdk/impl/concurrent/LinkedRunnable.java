@@ -0,0 +1,33 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Runs a task under an {@link InProcessLinkTracer} of a link captured when the task was handed over. A task that runs
+ * in the PurePath node it was handed over from, e.g. rejected to the calling thread, runs directly.
+ */
+final class LinkedRunnable implements Runnable {
+
+	private final ContinuationContext context;
+	private final Runnable task;
+
+	LinkedRunnable(ContinuationContext context, Runnable task) {
+		this.context = context;
+		this.task = task;
+	}
+
+	/**
+	 * @return the task, linked to the active PurePath if there is one, otherwise the task itself.
+	 */
+	static Runnable link(OneAgentSDK oneAgentSDK, Runnable task) {
+		ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		return context != null ? new LinkedRunnable(context, task) : task;
+	}
+
+	@Override
+	public void run() {
+		context.run(task);
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * PurePath context of one parallel computation. A single link is created for the whole computation. A worker thread
+ * enters the scope with one {@link InProcessLinkTracer} per portion of work it picks up; portions it runs while
+ * already in the scope (e.g. subtasks computed inline, or joined while waiting) run directly.
+ */
+final class ParallelTraceScope {
+
+	/** scope the current thread is in, null if none */
+	private static final ThreadLocal<ParallelTraceScope> CURRENT = new ThreadLocal<ParallelTraceScope>();
+
+	private final OneAgentSDK oneAgentSDK;
+	private final InProcessLink inProcessLink;
+	/** token of the PurePath node the computation was started in, see {@link OneAgentSDK#getActivePathToken()} */
+	private final Object pathToken;
+
+	private ParallelTraceScope(OneAgentSDK oneAgentSDK, InProcessLink inProcessLink, Object pathToken) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.inProcessLink = inProcessLink;
+		this.pathToken = pathToken;
+	}
+
+	/**
+	 * @return scope of the parallel computation the calling thread is part of, or a new scope for the PurePath active
+	 *         on the calling thread. null if there is neither.
+	 */
+	static ParallelTraceScope currentOrCapture(OneAgentSDK oneAgentSDK) {
+		ParallelTraceScope current = CURRENT.get();
+		if (current != null) {
+			return current;
+		}
+		Object pathToken = oneAgentSDK.getActivePathToken();
+		return pathToken != null ? new ParallelTraceScope(oneAgentSDK, oneAgentSDK.createInProcessLink(), pathToken) : null;
+	}
+
+	/**
+	 * Enters this scope on the calling thread. Must be followed by {@link #exit(Entry, Throwable)}, on the same thread.
+	 *
+	 * @return state to be passed to {@link #exit(Entry, Throwable)}. null if the thread already is in this scope.
+	 */
+	Entry enter() {
+		ParallelTraceScope previous = CURRENT.get();
+		if (previous == this) {
+			return null;
+		}
+		InProcessLinkTracer tracer = null;
+		// work done while the node that started the computation is active, e.g. by the starting thread, needs no link
+		if (oneAgentSDK.getActivePathToken() != pathToken) {
+			tracer = oneAgentSDK.traceInProcessLink(inProcessLink);
+			tracer.start();
+		}
+		CURRENT.set(this);
+		return new Entry(previous, tracer);
+	}
+
+	/**
+	 * Leaves this scope, restoring the scope the thread was in before.
+	 *
+	 * @param entry	returned by {@link #enter()}. ignored if null.
+	 * @param error	thrown by the portion of work, null if none.
+	 */
+	static void exit(Entry entry, Throwable error) {
+		if (entry == null) {
+			return;
+		}
+		if (entry.previous == null) {
+			CURRENT.remove();
+		} else {
+			CURRENT.set(entry.previous);
+		}
+		if (entry.tracer != null) {
+			if (error != null) {
+				entry.tracer.error(error.getMessage());
+			}
+			entry.tracer.end();
+		}
+	}
+
+	static final class Entry {
+
+		final ParallelTraceScope previous;
+		final InProcessLinkTracer tracer;
+
+		Entry(ParallelTraceScope previous, InProcessLinkTracer tracer) {
+			this.previous = previous;
+			this.tracer = tracer;
+		}
+
+	}
+
+}
@@ -0,0 +1,52 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * {@link Spliterator} over the splits of a source: splits like the source, but yields the remaining source spliterator
+ * of each split as a single element, so that each split can be traversed as a whole, see {@link TracedSplit}.
+ */
+final class SourceSplits<T> implements Spliterator<Spliterator<T>> {
+
+	private final int characteristics;
+	/** null once it was handed out */
+	private Spliterator<T> source;
+
+	SourceSplits(Spliterator<T> source) {
+		this.source = source;
+		this.characteristics = (source.characteristics() & (ORDERED | IMMUTABLE | CONCURRENT)) | NONNULL;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super Spliterator<T>> action) {
+		if (source == null) {
+			return false;
+		}
+		Spliterator<T> split = source;
+		source = null;
+		action.accept(split);
+		return true;
+	}
+
+	@Override
+	public Spliterator<Spliterator<T>> trySplit() {
+		Spliterator<T> prefix = source == null ? null : source.trySplit();
+		return prefix == null ? null : new SourceSplits<T>(prefix);
+	}
+
+	/**
+	 * @return remaining elements of the source, not splits, so that the stream splits the source as it would without
+	 *         tracing.
+	 */
+	@Override
+	public long estimateSize() {
+		return source == null ? 0 : source.estimateSize();
+	}
+
+	@Override
+	public int characteristics() {
+		return characteristics;
+	}
+
+}
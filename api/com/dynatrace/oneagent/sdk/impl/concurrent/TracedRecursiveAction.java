@@ -0,0 +1,47 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.concurrent.RecursiveAction;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * {@link RecursiveAction} running in the PurePath that was active when the root action was created. Same rules as
+ * for {@link TracedRecursiveTask} apply.
+ */
+public abstract class TracedRecursiveAction extends RecursiveAction {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient ParallelTraceScope scope;
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 */
+	protected TracedRecursiveAction(OneAgentSDK oneAgentSDK) {
+		this.scope = ParallelTraceScope.currentOrCapture(oneAgentSDK);
+	}
+
+	/**
+	 * The main computation performed by this action, see {@link RecursiveAction#compute()}.
+	 */
+	protected abstract void computeTraced();
+
+	@Override
+	protected final void compute() {
+		if (scope == null) {
+			computeTraced();
+			return;
+		}
+		ParallelTraceScope.Entry entry = scope.enter();
+		Throwable error = null;
+		try {
+			computeTraced();
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		} finally {
+			ParallelTraceScope.exit(entry, error);
+		}
+	}
+
+}
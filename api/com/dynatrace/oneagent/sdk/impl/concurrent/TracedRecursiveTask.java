@@ -0,0 +1,53 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.concurrent.RecursiveTask;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * {@link RecursiveTask} running in the PurePath that was active when the root task was created. Subtasks created
+ * within {@link #computeTraced()} belong to the same computation. Extend this class instead of {@link RecursiveTask}
+ * and implement {@link #computeTraced()} instead of compute().
+ *
+ * <p>All tasks of a computation share one link. A worker thread only creates a Tracer when it starts a task of the
+ * computation while not already running one, i.e. roughly once per stolen task; subtasks computed inline or joined
+ * run directly.
+ */
+public abstract class TracedRecursiveTask<V> extends RecursiveTask<V> {
+
+	private static final long serialVersionUID = 1L;
+
+	private final transient ParallelTraceScope scope;
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 */
+	protected TracedRecursiveTask(OneAgentSDK oneAgentSDK) {
+		this.scope = ParallelTraceScope.currentOrCapture(oneAgentSDK);
+	}
+
+	/**
+	 * The main computation performed by this task, see {@link RecursiveTask#compute()}.
+	 *
+	 * @return the result of the computation
+	 */
+	protected abstract V computeTraced();
+
+	@Override
+	protected final V compute() {
+		if (scope == null) {
+			return computeTraced();
+		}
+		ParallelTraceScope.Entry entry = scope.enter();
+		Throwable error = null;
+		try {
+			return computeTraced();
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		} finally {
+			ParallelTraceScope.exit(entry, error);
+		}
+	}
+
+}
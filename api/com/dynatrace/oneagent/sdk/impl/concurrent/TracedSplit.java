@@ -0,0 +1,89 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.Comparator;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Sequential traversal of one split of a parallel computation, in its {@link ParallelTraceScope}. The scope is entered
+ * when the stream of the split is created and left when the stream is closed. {@link Stream#flatMap} closes the
+ * streams it maps to on the traversing thread, also if the traversal is cut short or fails, so the scope is entered
+ * once per split, not once per element.
+ */
+final class TracedSplit<T> implements Spliterator<T>, Runnable {
+
+	private final Spliterator<T> split;
+	private final ParallelTraceScope.Entry entry;
+	private Throwable error;
+
+	private TracedSplit(Spliterator<T> split, ParallelTraceScope.Entry entry) {
+		this.split = split;
+		this.entry = entry;
+	}
+
+	/**
+	 * Enters the scope on the calling thread.
+	 *
+	 * @return sequential stream over the split, leaving the scope when closed.
+	 */
+	static <T> Stream<T> stream(ParallelTraceScope scope, Spliterator<T> split) {
+		TracedSplit<T> tracedSplit = new TracedSplit<T>(split, scope.enter());
+		return StreamSupport.stream(tracedSplit, false).onClose(tracedSplit);
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super T> action) {
+		try {
+			return split.tryAdvance(action);
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		}
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super T> action) {
+		try {
+			split.forEachRemaining(action);
+		} catch (RuntimeException | Error e) {
+			error = e;
+			throw e;
+		}
+	}
+
+	@Override
+	public Spliterator<T> trySplit() {
+		return null;
+	}
+
+	@Override
+	public long estimateSize() {
+		return split.estimateSize();
+	}
+
+	@Override
+	public long getExactSizeIfKnown() {
+		return split.getExactSizeIfKnown();
+	}
+
+	@Override
+	public int characteristics() {
+		return split.characteristics();
+	}
+
+	@Override
+	public Comparator<? super T> getComparator() {
+		return split.getComparator();
+	}
+
+	/**
+	 * Leaves the scope, run when the stream of the split is closed.
+	 */
+	@Override
+	public void run() {
+		ParallelTraceScope.exit(entry, error);
+	}
+
+}
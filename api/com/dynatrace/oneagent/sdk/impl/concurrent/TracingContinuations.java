@@ -0,0 +1,142 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Wraps the functions passed to {@link java.util.concurrent.CompletableFuture} stages (or any other asynchronous
+ * continuation), so that they run in the PurePath that was active when they were wrapped:
+ *
+ * <pre>
+ * future.thenApplyAsync(TracingContinuations.function(oneAgentSDK, this::enrich), executor)
+ *     .thenAccept(TracingContinuations.consumer(oneAgentSDK, this::store));
+ * </pre>
+ *
+ * A continuation runs under an {@link InProcessLinkTracer}, unless the PurePath node that was active when it was
+ * wrapped is still active (e.g. because its predecessor had already completed and it runs synchronously); then it runs
+ * directly without creating a Tracer. The {@link com.dynatrace.oneagent.sdk.api.InProcessLink} is created when wrapping
+ * though, as only then the active node is known: wrapping costs one {@link OneAgentSDK#createInProcessLink()}, also for
+ * continuations that then complete synchronously. If no PurePath is active when wrapping, the function is returned
+ * unchanged, without creating a link.
+ */
+public final class TracingContinuations {
+
+	private TracingContinuations() {
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param runnable		continuation to wrap. required parameter.
+	 * @return runnable running in the PurePath active now, the runnable itself if there is none.
+	 */
+	public static Runnable runnable(OneAgentSDK oneAgentSDK, final Runnable runnable) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return runnable;
+		}
+		return new Runnable() {
+			@Override
+			public void run() {
+				context.run(runnable);
+			}
+		};
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param supplier		continuation to wrap, e.g. for {@link java.util.concurrent.CompletableFuture#supplyAsync(Supplier)}.
+	 *						required parameter.
+	 * @return supplier running in the PurePath active now, the supplier itself if there is none.
+	 */
+	public static <T> Supplier<T> supplier(OneAgentSDK oneAgentSDK, final Supplier<T> supplier) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return supplier;
+		}
+		return new Supplier<T>() {
+			@Override
+			public T get() {
+				return context.get(supplier);
+			}
+		};
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param function		continuation to wrap, e.g. for thenApply or thenCompose. required parameter.
+	 * @return function running in the PurePath active now, the function itself if there is none.
+	 */
+	public static <T, R> Function<T, R> function(OneAgentSDK oneAgentSDK, final Function<T, R> function) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return function;
+		}
+		return new Function<T, R>() {
+			@Override
+			public R apply(final T t) {
+				return context.get(() -> function.apply(t));
+			}
+		};
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param function		continuation to wrap, e.g. for thenCombine or handle. required parameter.
+	 * @return function running in the PurePath active now, the function itself if there is none.
+	 */
+	public static <T, U, R> BiFunction<T, U, R> biFunction(OneAgentSDK oneAgentSDK, final BiFunction<T, U, R> function) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return function;
+		}
+		return new BiFunction<T, U, R>() {
+			@Override
+			public R apply(final T t, final U u) {
+				return context.get(() -> function.apply(t, u));
+			}
+		};
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param consumer		continuation to wrap, e.g. for thenAccept. required parameter.
+	 * @return consumer running in the PurePath active now, the consumer itself if there is none.
+	 */
+	public static <T> Consumer<T> consumer(OneAgentSDK oneAgentSDK, final Consumer<T> consumer) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return consumer;
+		}
+		return new Consumer<T>() {
+			@Override
+			public void accept(final T t) {
+				context.run(() -> consumer.accept(t));
+			}
+		};
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param consumer		continuation to wrap, e.g. for thenAcceptBoth or whenComplete. required parameter.
+	 * @return consumer running in the PurePath active now, the consumer itself if there is none.
+	 */
+	public static <T, U> BiConsumer<T, U> biConsumer(OneAgentSDK oneAgentSDK, final BiConsumer<T, U> consumer) {
+		final ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		if (context == null) {
+			return consumer;
+		}
+		return new BiConsumer<T, U>() {
+			@Override
+			public void accept(final T t, final U u) {
+				context.run(() -> consumer.accept(t, u));
+			}
+		};
+	}
+
+}
@@ -0,0 +1,25 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.concurrent.Executor;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * {@link Executor} linking each task to the PurePath active at {@link #execute(Runnable)}.
+ */
+class TracingExecutor implements Executor {
+
+	final OneAgentSDK oneAgentSDK;
+	private final Executor delegate;
+
+	TracingExecutor(OneAgentSDK oneAgentSDK, Executor delegate) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.delegate = delegate;
+	}
+
+	@Override
+	public void execute(Runnable command) {
+		delegate.execute(LinkedRunnable.link(oneAgentSDK, command));
+	}
+
+}
@@ -0,0 +1,89 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * {@link ExecutorService} linking each task to the PurePath active when it was submitted.
+ */
+class TracingExecutorService extends TracingExecutor implements ExecutorService {
+
+	private final ExecutorService delegate;
+
+	TracingExecutorService(OneAgentSDK oneAgentSDK, ExecutorService delegate) {
+		super(oneAgentSDK, delegate);
+		this.delegate = delegate;
+	}
+
+	@Override
+	public <T> Future<T> submit(Callable<T> task) {
+		return delegate.submit(LinkedCallable.link(oneAgentSDK, task));
+	}
+
+	@Override
+	public <T> Future<T> submit(Runnable task, T result) {
+		return delegate.submit(LinkedRunnable.link(oneAgentSDK, task), result);
+	}
+
+	@Override
+	public Future<?> submit(Runnable task) {
+		return delegate.submit(LinkedRunnable.link(oneAgentSDK, task));
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks) throws InterruptedException {
+		return delegate.invokeAll(LinkedCallable.linkAll(oneAgentSDK, tasks));
+	}
+
+	@Override
+	public <T> List<Future<T>> invokeAll(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return delegate.invokeAll(LinkedCallable.linkAll(oneAgentSDK, tasks), timeout, unit);
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks) throws InterruptedException, ExecutionException {
+		return delegate.invokeAny(LinkedCallable.linkAll(oneAgentSDK, tasks));
+	}
+
+	@Override
+	public <T> T invokeAny(Collection<? extends Callable<T>> tasks, long timeout, TimeUnit unit)
+			throws InterruptedException, ExecutionException, TimeoutException {
+		return delegate.invokeAny(LinkedCallable.linkAll(oneAgentSDK, tasks), timeout, unit);
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		// returns the linked tasks, running them later still links them to their PurePath
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+}
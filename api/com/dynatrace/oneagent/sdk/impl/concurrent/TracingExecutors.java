@@ -0,0 +1,53 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Wraps executors, so that tasks run under an {@link InProcessLinkTracer}, linked to the PurePath that was active
+ * when the task was handed over. This replaces the manual pattern shown in the InProcessLinkSample. A task that runs in
+ * the PurePath node it was handed over from, e.g. because the executor rejected it to the calling thread, runs directly.
+ *
+ * <p>If no PurePath is active when a task is handed over (see {@link OneAgentSDK#hasActivePath()}), no link is
+ * created and the task is passed to the wrapped executor unchanged.
+ */
+public final class TracingExecutors {
+
+	private TracingExecutors() {
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param executor		executor to wrap. required parameter.
+	 * @return executor linking every task to the PurePath active at {@link Executor#execute(Runnable)}.
+	 */
+	public static Executor wrap(OneAgentSDK oneAgentSDK, Executor executor) {
+		return new TracingExecutor(Objects.requireNonNull(oneAgentSDK, "oneAgentSDK"), Objects.requireNonNull(executor, "executor"));
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param executor		executor service to wrap. required parameter.
+	 * @return executor service linking every task to the PurePath active when it was submitted. Tasks submitted via
+	 *         invokeAll and invokeAny share one link.
+	 */
+	public static ExecutorService wrap(OneAgentSDK oneAgentSDK, ExecutorService executor) {
+		return new TracingExecutorService(Objects.requireNonNull(oneAgentSDK, "oneAgentSDK"), Objects.requireNonNull(executor, "executor"));
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param executor		scheduled executor service to wrap. required parameter.
+	 * @return scheduled executor service linking every task to the PurePath active when it was scheduled. All
+	 *         executions of a periodic task are linked to that PurePath.
+	 */
+	public static ScheduledExecutorService wrap(OneAgentSDK oneAgentSDK, ScheduledExecutorService executor) {
+		return new TracingScheduledExecutorService(Objects.requireNonNull(oneAgentSDK, "oneAgentSDK"), Objects.requireNonNull(executor, "executor"));
+	}
+
+}
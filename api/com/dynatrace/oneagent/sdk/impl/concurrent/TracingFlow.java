@@ -0,0 +1,71 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.concurrent.Flow;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Wraps {@link Flow} publishers and subscribers, so that the signals of a subscription (onSubscribe, onNext, onError,
+ * onComplete) run in the PurePath that was active when the subscriber subscribed. Same rules as for
+ * {@link TracingContinuations} apply: signals run under an {@link InProcessLinkTracer}, signals delivered synchronously
+ * while the subscribing PurePath node is still active run directly. Requires Java 9 or later.
+ */
+public final class TracingFlow {
+
+	private TracingFlow() {
+	}
+
+	/**
+	 * @return publisher wrapping every subscriber, with the PurePath active at {@link Flow.Publisher#subscribe(Flow.Subscriber)}.
+	 */
+	public static <T> Flow.Publisher<T> publisher(final OneAgentSDK oneAgentSDK, final Flow.Publisher<T> publisher) {
+		return new Flow.Publisher<T>() {
+			@Override
+			public void subscribe(Flow.Subscriber<? super T> subscriber) {
+				publisher.subscribe(subscriber(oneAgentSDK, subscriber));
+			}
+		};
+	}
+
+	/**
+	 * @return subscriber receiving all signals in the PurePath active now, the subscriber itself if there is none.
+	 */
+	public static <T> Flow.Subscriber<T> subscriber(OneAgentSDK oneAgentSDK, Flow.Subscriber<T> subscriber) {
+		ContinuationContext context = ContinuationContext.capture(oneAgentSDK);
+		return context == null ? subscriber : new LinkedSubscriber<T>(context, subscriber);
+	}
+
+	private static final class LinkedSubscriber<T> implements Flow.Subscriber<T> {
+
+		private final ContinuationContext context;
+		private final Flow.Subscriber<T> subscriber;
+
+		LinkedSubscriber(ContinuationContext context, Flow.Subscriber<T> subscriber) {
+			this.context = context;
+			this.subscriber = subscriber;
+		}
+
+		@Override
+		public void onSubscribe(final Flow.Subscription subscription) {
+			context.run(() -> subscriber.onSubscribe(subscription));
+		}
+
+		@Override
+		public void onNext(final T item) {
+			context.run(() -> subscriber.onNext(item));
+		}
+
+		@Override
+		public void onError(final Throwable throwable) {
+			context.run(() -> subscriber.onError(throwable), throwable);
+		}
+
+		@Override
+		public void onComplete() {
+			context.run(subscriber::onComplete);
+		}
+
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.Collection;
+import java.util.Spliterator;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * Creates parallel streams, whose work runs in the PurePath that was active when the stream was created, also on the
+ * worker threads of the common {@link java.util.concurrent.ForkJoinPool}:
+ *
+ * <pre>
+ * long total = TracingParallelStreams.parallelStream(oneAgentSDK, orders).mapToLong(Order::getAmount).sum();
+ * </pre>
+ *
+ * One link is created per stream. Each worker thread creates one Tracer per split of the source it traverses, also for
+ * short-circuiting operations (e.g. findFirst, anyMatch). As parallel streams split their source into a few chunks per
+ * worker thread, the number of Tracers does not grow with the number of elements. To keep one Tracer per split, the
+ * splits are traversed via {@link Stream#flatMap}, so the returned stream does not report its size, and operations
+ * like toArray can not allocate their result up front.
+ *
+ * <p>If no PurePath is active when the stream is created, a plain parallel stream is returned.
+ */
+public final class TracingParallelStreams {
+
+	private TracingParallelStreams() {
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param source		elements of the stream. required parameter.
+	 * @return parallel stream over the elements of source, traced as described above.
+	 */
+	public static <T> Stream<T> parallelStream(OneAgentSDK oneAgentSDK, Collection<T> source) {
+		return parallelStream(oneAgentSDK, source.spliterator());
+	}
+
+	/**
+	 * @param oneAgentSDK	SDK instance used for linking. required parameter.
+	 * @param source		elements of the stream. required parameter.
+	 * @return parallel stream over the elements of source, traced as described above.
+	 */
+	public static <T> Stream<T> parallelStream(OneAgentSDK oneAgentSDK, Spliterator<T> source) {
+		final ParallelTraceScope scope = ParallelTraceScope.currentOrCapture(oneAgentSDK);
+		if (scope == null) {
+			return StreamSupport.stream(source, true);
+		}
+		return StreamSupport.stream(new SourceSplits<T>(source), true).flatMap(split -> TracedSplit.stream(scope, split));
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.dynatrace.oneagent.sdk.impl.concurrent;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+
+/**
+ * {@link ScheduledExecutorService} linking each task to the PurePath active when it was scheduled. Every execution of
+ * a periodic task is linked to that PurePath, using the same link.
+ */
+final class TracingScheduledExecutorService extends TracingExecutorService implements ScheduledExecutorService {
+
+	private final ScheduledExecutorService delegate;
+
+	TracingScheduledExecutorService(OneAgentSDK oneAgentSDK, ScheduledExecutorService delegate) {
+		super(oneAgentSDK, delegate);
+		this.delegate = delegate;
+	}
+
+	@Override
+	public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+		return delegate.schedule(LinkedRunnable.link(oneAgentSDK, command), delay, unit);
+	}
+
+	@Override
+	public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+		return delegate.schedule(LinkedCallable.link(oneAgentSDK, callable), delay, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+		return delegate.scheduleAtFixedRate(LinkedRunnable.link(oneAgentSDK, command), initialDelay, period, unit);
+	}
+
+	@Override
+	public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay, TimeUnit unit) {
+		return delegate.scheduleWithFixedDelay(LinkedRunnable.link(oneAgentSDK, command), initialDelay, delay, unit);
+	}
+
+}
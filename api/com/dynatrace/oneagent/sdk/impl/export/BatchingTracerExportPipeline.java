@@ -0,0 +1,231 @@
+package com.dynatrace.oneagent.sdk.impl.export;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dynatrace.oneagent.sdk.api.LoggingCallback;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+
+/**
+ * Collects finished Tracers in a bounded queue and hands them to a {@link TracerExporter} in batches, from a single
+ * daemon thread. A batch is exported as soon as it reaches the maximum batch size, or when its oldest Tracer has waited
+ * for the maximum export delay.
+ *
+ * <p>{@link #offer(FinishedTracer)} never blocks: when the queue is full, the Tracer is dropped and counted. Every
+ * offered Tracer is counted exactly once, either as exported or as dropped, also when offered concurrently with
+ * {@link #shutdown()}. Exceptions and errors thrown by the exporter drop the batch, but never stop the export thread.
+ */
+public final class BatchingTracerExportPipeline {
+
+	private static final Object SHUTDOWN = new Object();
+
+	private final TracerExporter exporter;
+	private final int maxBatchSize;
+	private final long maxExportDelayNanos;
+	private final BlockingQueue<Object> queue;
+	private final Thread worker;
+	private final Object lifecycleLock = new Object();
+
+	private final AtomicLong exportedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	private volatile LoggingCallback loggingCallback;
+	private volatile boolean shutdown;
+
+	/**
+	 * Creates the pipeline and starts its export thread.
+	 *
+	 * @param exporter				receives the batches. required parameter.
+	 * @param maxBatchSize			maximum number of Tracers per call of {@link TracerExporter#export(List)}. must be positive.
+	 * @param maxExportDelayMillis	maximum time a Tracer waits in the pipeline before its batch is exported. must be positive.
+	 * @param maxQueueSize			maximum number of Tracers waiting for export. must be positive.
+	 */
+	public BatchingTracerExportPipeline(TracerExporter exporter, int maxBatchSize, long maxExportDelayMillis, int maxQueueSize) {
+		if (exporter == null) {
+			throw new NullPointerException("exporter");
+		}
+		if (maxBatchSize <= 0 || maxExportDelayMillis <= 0 || maxQueueSize <= 0) {
+			throw new IllegalArgumentException("batch size, export delay and queue size must be positive");
+		}
+		this.exporter = exporter;
+		this.maxBatchSize = maxBatchSize;
+		this.maxExportDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxExportDelayMillis);
+		this.queue = new ArrayBlockingQueue<Object>(maxQueueSize);
+		this.worker = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				exportLoop();
+			}
+		}, "OneAgentSDK tracer export");
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+
+	/**
+	 * Installs a callback that gets informed, if an export fails.
+	 *
+	 * @param loggingCallback	may be null, to remove current callback.
+	 */
+	public void setLoggingCallback(LoggingCallback loggingCallback) {
+		this.loggingCallback = loggingCallback;
+	}
+
+	/**
+	 * Hands a finished Tracer to the pipeline. Never blocks.
+	 *
+	 * @param tracer	the finished Tracer
+	 * @return false if the Tracer was dropped, because the queue is full or the pipeline was shut down.
+	 */
+	public boolean offer(FinishedTracer tracer) {
+		if (shutdown || !queue.offer(tracer)) {
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		// a Tracer queued while shutdown() was called may end up behind the final drain of the export thread. if it is
+		// still queued, it is taken back and dropped here, otherwise the export thread exported or dropped it.
+		if (shutdown && queue.remove(tracer)) {
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Exports all Tracers offered before this call and waits until the export has finished.
+	 *
+	 * @throws InterruptedException	if interrupted while waiting.
+	 */
+	public void flush() throws InterruptedException {
+		// exclusive with shutdown(), so the export thread is still running until the marker was processed
+		synchronized (lifecycleLock) {
+			if (shutdown) {
+				return;
+			}
+			CountDownLatch flushed = new CountDownLatch(1);
+			queue.put(flushed);
+			flushed.await();
+		}
+	}
+
+	/**
+	 * Exports all Tracers offered before this call, calls {@link TracerExporter#shutdown()} and stops the export thread.
+	 * Tracers offered afterwards are dropped.
+	 *
+	 * @throws InterruptedException	if interrupted while waiting.
+	 */
+	public void shutdown() throws InterruptedException {
+		synchronized (lifecycleLock) {
+			if (shutdown) {
+				return;
+			}
+			shutdown = true;
+			queue.put(SHUTDOWN);
+		}
+		worker.join();
+	}
+
+	/**
+	 * @return number of Tracers successfully handed to {@link TracerExporter#export(List)}.
+	 */
+	public long getExportedCount() {
+		return exportedCount.get();
+	}
+
+	/**
+	 * @return number of Tracers dropped, because the queue was full or the exporter failed.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	private void exportLoop() {
+		List<FinishedTracer> batch = new ArrayList<FinishedTracer>(maxBatchSize);
+		long deadline = 0;
+		while (true) {
+			Object element;
+			try {
+				if (batch.isEmpty()) {
+					element = queue.take();
+					deadline = System.nanoTime() + maxExportDelayNanos;
+				} else {
+					element = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+				}
+			} catch (InterruptedException e) {
+				// only shutdown() stops this thread
+				continue;
+			}
+
+			if (element == null) {
+				// export delay of oldest Tracer elapsed
+				export(batch);
+			} else if (element instanceof FinishedTracer) {
+				batch.add((FinishedTracer) element);
+				if (batch.size() >= maxBatchSize) {
+					export(batch);
+				}
+			} else if (element instanceof CountDownLatch) {
+				export(batch);
+				((CountDownLatch) element).countDown();
+			} else {
+				export(batch);
+				shutdownExporter();
+				releaseRemaining();
+				return;
+			}
+		}
+	}
+
+	private void export(List<FinishedTracer> batch) {
+		if (batch.isEmpty()) {
+			return;
+		}
+		try {
+			exporter.export(batch);
+			exportedCount.addAndGet(batch.size());
+		} catch (Throwable e) {
+			// also Errors: the export thread must survive any exporter, or flush() and shutdown() would wait forever
+			droppedCount.addAndGet(batch.size());
+			logError("export of " + batch.size() + " tracers failed: " + e);
+		}
+		batch.clear();
+	}
+
+	private void shutdownExporter() {
+		try {
+			exporter.shutdown();
+		} catch (Throwable e) {
+			logError("shutdown of exporter failed: " + e);
+		}
+	}
+
+	/**
+	 * Tracers racing with {@link #shutdown()} might still have been queued behind the shutdown marker. Those queued
+	 * after this drain are dropped by {@link #offer(FinishedTracer)} itself.
+	 */
+	private void releaseRemaining() {
+		Object element;
+		while ((element = queue.poll()) != null) {
+			if (element instanceof FinishedTracer) {
+				droppedCount.incrementAndGet();
+			}
+		}
+	}
+
+	private void logError(String message) {
+		LoggingCallback callback = loggingCallback;
+		if (callback != null) {
+			try {
+				callback.error(message);
+			} catch (RuntimeException e) {
+				// a failing callback must not stop the export thread
+			}
+		}
+	}
+
+}
@@ -0,0 +1,116 @@
+package com.dynatrace.oneagent.sdk.impl.export;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+
+/**
+ * {@link TracerExporter} appending one line per Tracer to a UTF-8 text file. Fields are separated by tabs:
+ * <pre>
+ * type  traceId  spanId  parentSpanId  startTimeMillis  durationNanos  serviceName  name  errorMessage  attributes
+ * </pre>
+ * Missing values are written as empty fields. Attributes are written as {@code key=value} pairs, separated by ','.
+ * Tabs, line breaks and backslashes inside values are escaped with a backslash, as are ',' and '=' inside attribute
+ * keys and values. So a line can be split at every unescaped separator. The file is flushed once per batch.
+ */
+public final class FileTracerExporter implements TracerExporter {
+
+	private final Writer writer;
+	private final StringBuilder line = new StringBuilder(256);
+
+	/**
+	 * @param file	file to append to. created, if it does not exist.
+	 * @throws IOException	if the file can not be opened.
+	 */
+	public FileTracerExporter(Path file) throws IOException {
+		this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND, StandardOpenOption.WRITE);
+	}
+
+	@Override
+	public void export(List<FinishedTracer> tracers) {
+		try {
+			for (FinishedTracer tracer : tracers) {
+				line.setLength(0);
+				line.append(tracer.getType()).append('\t');
+				appendEscaped(tracer.getTraceId(), false).append('\t');
+				appendEscaped(tracer.getSpanId(), false).append('\t');
+				appendEscaped(tracer.getParentSpanId(), false).append('\t');
+				line.append(tracer.getStartTimeMillis()).append('\t');
+				line.append(tracer.getDurationNanos()).append('\t');
+				appendEscaped(tracer.getServiceName(), false).append('\t');
+				appendEscaped(tracer.getName(), false).append('\t');
+				appendEscaped(tracer.getErrorMessage(), false).append('\t');
+				boolean first = true;
+				for (Map.Entry<String, Object> attribute : tracer.getCustomRequestAttributes().entrySet()) {
+					if (!first) {
+						line.append(',');
+					}
+					first = false;
+					appendEscaped(attribute.getKey(), true).append('=');
+					appendEscaped(String.valueOf(attribute.getValue()), true);
+				}
+				line.append('\n');
+				writer.append(line);
+			}
+			writer.flush();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		try {
+			writer.close();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * @param attribute	true to escape the separators of attributes, too
+	 */
+	private StringBuilder appendEscaped(String value, boolean attribute) {
+		if (value == null) {
+			return line;
+		}
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			switch (c) {
+			case '\t':
+				line.append("\\t");
+				break;
+			case '\n':
+				line.append("\\n");
+				break;
+			case '\r':
+				line.append("\\r");
+				break;
+			case '\\':
+				line.append("\\\\");
+				break;
+			case ',':
+			case '=':
+				if (attribute) {
+					line.append('\\');
+				}
+				line.append(c);
+				break;
+			default:
+				line.append(c);
+			}
+		}
+		return line;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.dynatrace.oneagent.sdk.impl.export;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+
+/**
+ * {@link TracerExporter} keeping all exported Tracers in memory, e.g. for load tests and assertions on traced data.
+ */
+public final class InMemoryTracerExporter implements TracerExporter {
+
+	private final List<FinishedTracer> finishedTracers = new ArrayList<FinishedTracer>();
+
+	@Override
+	public synchronized void export(List<FinishedTracer> tracers) {
+		finishedTracers.addAll(tracers);
+	}
+
+	@Override
+	public void shutdown() {
+	}
+
+	/**
+	 * @return copy of all Tracers exported so far, in export order.
+	 */
+	public synchronized List<FinishedTracer> getFinishedTracers() {
+		return new ArrayList<FinishedTracer>(finishedTracers);
+	}
+
+	/**
+	 * Removes all Tracers exported so far.
+	 */
+	public synchronized void reset() {
+		finishedTracers.clear();
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.dynatrace.oneagent.sdk.impl.governor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Enforces a per-second budget of recorded Tracers per {@link TracerType}, as configured via
+ * {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setTracerBudget(TracerType, int)}. Operations above the budget are
+ * counted precisely.
+ *
+ * <p>Every thread creating a Tracer passes through {@link #tryRecord(TracerType)}, so the governor takes no lock and
+ * avoids a single contended counter: the budget of a type is handed out in small chunks from a shared counter to
+ * stripes, each with its own counter on its own cache line, and a thread only counts down the chunk of the stripe it
+ * is mapped to. The shared counter is only touched once per chunk. Any thread may lease further chunks until the budget
+ * of the second is used up, so a single busy thread can record the whole budget. Counters are never moved back to an
+ * earlier second, so more Tracers than the budget are never recorded within a second; under uneven load, chunks left
+ * unused in the stripes of threads that went idle expire with the second.
+ */
+public final class TracerBudgetGovernor {
+
+	/** longs between two used slots of a {@link Budget}, so that each counter has a cache line of its own */
+	private static final int PADDING = 16;
+	/** minimum share of the budget per stripe, so that low budgets are not split into tiny chunks */
+	private static final int MIN_TRACERS_PER_STRIPE = 16;
+	/** chunks a stripe's share of the budget is leased in, so that idle stripes hold back little of the budget */
+	private static final int CHUNKS_PER_STRIPE = 4;
+	private static final int MAX_STRIPES = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2));
+	private static final long SECOND_MASK = 0xFFFFFFFFL;
+
+	private final LongSupplier nanoClock;
+
+	private final AtomicReferenceArray<Budget> budgets = new AtomicReferenceArray<Budget>(TracerType.values().length);
+	private final LongAdder[] unrecordedCounts = new LongAdder[TracerType.values().length];
+
+	public TracerBudgetGovernor() {
+		this(System::nanoTime);
+	}
+
+	/**
+	 * @param nanoClock	clock the seconds are counted with, in the unit and with the guarantees of {@link System#nanoTime()}.
+	 */
+	public TracerBudgetGovernor(LongSupplier nanoClock) {
+		this.nanoClock = nanoClock;
+		for (int i = 0; i < unrecordedCounts.length; i++) {
+			unrecordedCounts[i] = new LongAdder();
+		}
+	}
+
+	/**
+	 * Sets or removes the budget of a Tracer type. Takes effect immediately, the counting of the current second
+	 * starts over.
+	 *
+	 * @param tracerType		type of Tracers to limit.
+	 * @param tracersPerSecond	maximum number of recorded Tracers per second. a negative value removes the budget.
+	 */
+	public void setBudget(TracerType tracerType, int tracersPerSecond) {
+		budgets.set(tracerType.ordinal(), tracersPerSecond < 0 ? null : new Budget(tracersPerSecond));
+	}
+
+	/**
+	 * Decides whether an operation is recorded. If not, it is counted as unrecorded.
+	 *
+	 * @param tracerType	type of the Tracer to create.
+	 * @return true if a recording Tracer may be created, false if a counting-only Tracer must be used.
+	 */
+	public boolean tryRecord(TracerType tracerType) {
+		Budget budget = budgets.get(tracerType.ordinal());
+		if (budget == null || budget.tryAcquire()) {
+			return true;
+		}
+		unrecordedCounts[tracerType.ordinal()].increment();
+		return false;
+	}
+
+	/**
+	 * @param tracerType	type of Tracers.
+	 * @return number of operations of this type that were not recorded, since this governor was created.
+	 */
+	public long getUnrecordedCount(TracerType tracerType) {
+		return unrecordedCounts[tracerType.ordinal()].sum();
+	}
+
+	/**
+	 * Striped budget of one Tracer type. The shared counter and each stripe keep second and count of the current second
+	 * in a single long (upper and lower 32 bits), so that both are updated with one compare-and-set: the shared counter
+	 * counts the Tracers leased to stripes, a stripe counts the Tracers left in its chunk.
+	 *
+	 * <p>Counters only move forward in time. A thread that read the clock before another thread moved a counter to the
+	 * next second must not reset it to its own, older second: that would hand out the budget of the next second twice.
+	 * Such a thread reads the clock again instead.
+	 */
+	private final class Budget {
+
+		private final int stripeMask;
+		private final long tracersPerSecond;
+		private final long tracersPerChunk;
+		private final AtomicLong leased;
+		private final AtomicLongArray slots;
+
+		Budget(int tracersPerSecond) {
+			int stripes = Math.min(MAX_STRIPES, Integer.highestOneBit(Math.max(1, tracersPerSecond / MIN_TRACERS_PER_STRIPE)));
+			this.stripeMask = stripes - 1;
+			this.tracersPerSecond = tracersPerSecond;
+			this.tracersPerChunk = Math.max(1, tracersPerSecond / (stripes * CHUNKS_PER_STRIPE));
+			// start in the past, so that the first read of the clock is never behind the counters
+			long initial = (currentSecond() - 1 & SECOND_MASK) << 32;
+			this.leased = new AtomicLong(initial);
+			this.slots = new AtomicLongArray(stripes * PADDING);
+			for (int i = 0; i < slots.length(); i += PADDING) {
+				slots.set(i, initial);
+			}
+		}
+
+		boolean tryAcquire() {
+			if (tracersPerSecond == 0) {
+				return false;
+			}
+			int slot = (stripe() & stripeMask) * PADDING;
+			long second = currentSecond();
+			while (true) {
+				long current = slots.get(slot);
+				int age = age(current, second);
+				if (age < 0) {
+					// the stripe already counts a later second
+					second = currentSecond();
+					continue;
+				}
+				long left = age == 0 ? current & 0xFFFFFFFFL : 0;
+				if (left == 0) {
+					long chunk = lease(second);
+					if (chunk < 0) {
+						second = currentSecond();
+						continue;
+					}
+					if (chunk == 0) {
+						return false;
+					}
+					addToStripe(slot, second, chunk - 1);
+					return true;
+				}
+				if (slots.compareAndSet(slot, current, second << 32 | (left - 1))) {
+					return true;
+				}
+			}
+		}
+
+		/**
+		 * @return number of Tracers taken from the budget of the second, 0 if it is used up, -1 if the shared counter
+		 *         already counts a later second.
+		 */
+		private long lease(long second) {
+			while (true) {
+				long current = leased.get();
+				int age = age(current, second);
+				if (age < 0) {
+					return -1;
+				}
+				long used = age == 0 ? current & 0xFFFFFFFFL : 0;
+				long chunk = Math.min(tracersPerChunk, tracersPerSecond - used);
+				if (chunk <= 0) {
+					return 0;
+				}
+				if (leased.compareAndSet(current, second << 32 | (used + chunk))) {
+					return chunk;
+				}
+			}
+		}
+
+		/**
+		 * Adds leased Tracers to a stripe, which another thread of the stripe may have refilled meanwhile. If the stripe
+		 * moved on to a later second, the Tracers have expired and are discarded.
+		 */
+		private void addToStripe(int slot, long second, long tracers) {
+			while (tracers > 0) {
+				long current = slots.get(slot);
+				int age = age(current, second);
+				if (age < 0) {
+					return;
+				}
+				long left = age == 0 ? current & 0xFFFFFFFFL : 0;
+				if (slots.compareAndSet(slot, current, second << 32 | (left + tracers))) {
+					return;
+				}
+			}
+		}
+
+		/**
+		 * @return seconds between the second of a counter and the given second: positive if the counter is behind, negative
+		 *         if it already counts a later second. Seconds are compared modulo 2^32.
+		 */
+		private int age(long counter, long second) {
+			return (int) (second - (counter >>> 32));
+		}
+
+		private long currentSecond() {
+			return TimeUnit.NANOSECONDS.toSeconds(nanoClock.getAsLong()) & SECOND_MASK;
+		}
+
+		private int stripe() {
+			// spread the thread ids, which are usually consecutive
+			long id = Thread.currentThread().getId();
+			int h = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+			return h ^ (h >>> 16);
+		}
+
+	}
+
+}
@@ -0,0 +1,312 @@
+package com.dynatrace.oneagent.sdk.impl.journal;
+
+import static com.dynatrace.oneagent.sdk.impl.journal.TracerJournalFormat.*;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+
+/**
+ * Append-only journal of finished Tracers in memory-mapped segment files, for post-mortem analysis with
+ * {@link TracerJournalReader}. See {@link TracerJournalFormat} for the record layout.
+ *
+ * <p>{@link #append(FinishedTracer)} may be called from any number of threads. Space for a record is reserved by a
+ * single atomic add, and threads write their records into disjoint regions of the mapping, so appending takes no lock.
+ * A background thread maps the next segment in advance and deletes expired segments. Threads overflowing a segment
+ * therefore only switch to the prepared segment; any of them may do so, none waits for another one. Only if the
+ * background thread falls behind, an overflowing thread maps the next segment itself.
+ *
+ * <p>Records are never forced to disk on append. As the data is written to the page cache of the operating system, all
+ * committed records survive a crash of the JVM (but not of the operating system). A record interrupted by a crash lacks
+ * its commit marker and is skipped by the reader.
+ *
+ * <p>Used as {@link TracerExporter}, the journal receives the Tracers from the export thread of the SDK.
+ */
+public final class TracerJournal implements TracerExporter, Closeable {
+
+	/** how often the background thread checks the spare segment and the retention, unless woken up by a roll-over */
+	private static final long MAINTENANCE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+	private static final class Segment {
+		final long index;
+		final MappedByteBuffer buffer;
+		final AtomicInteger writeOffset = new AtomicInteger(SEGMENT_HEADER_SIZE);
+		/** installed by the first thread overflowing this segment */
+		final AtomicReference<Segment> successor = new AtomicReference<Segment>();
+
+		Segment(long index, MappedByteBuffer buffer) {
+			this.index = index;
+			this.buffer = buffer;
+		}
+	}
+
+	private final Path directory;
+	private final int segmentSize;
+	private final int maxSegments;
+
+	private final AtomicLong appendedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+	/** threads currently in {@link #append(FinishedTracer)}, awaited by {@link #close()} */
+	private final AtomicInteger activeWriters = new AtomicInteger();
+
+	private final ThreadLocal<TracerJournalEncoder> encoders = new ThreadLocal<TracerJournalEncoder>() {
+		@Override
+		protected TracerJournalEncoder initialValue() {
+			return new TracerJournalEncoder();
+		}
+	};
+
+	private final AtomicReference<Segment> current;
+	/** segment mapped in advance by the maintenance thread, meant to follow the current segment */
+	private final AtomicReference<Segment> spare = new AtomicReference<Segment>();
+	private final Thread maintenanceThread;
+	private volatile boolean closed;
+
+	/**
+	 * Opens a journal in the given directory. Appending always starts with a new segment, existing segments are kept.
+	 *
+	 * @param directory		directory of the segment files. created, if it does not exist.
+	 * @param segmentSize	size of each segment file in bytes.
+	 * @param maxSegments	maximum number of segment files kept in the directory, not counting the empty segment mapped
+	 * 						in advance. the oldest segments are deleted, whenever a new segment exceeds this limit. 0 for
+	 * 						no limit.
+	 * @throws IOException	if the directory or the first segment can not be created.
+	 */
+	public TracerJournal(Path directory, int segmentSize, int maxSegments) throws IOException {
+		if (segmentSize <= SEGMENT_HEADER_SIZE || maxSegments < 0) {
+			throw new IllegalArgumentException("invalid segment size or segment count");
+		}
+		this.directory = directory;
+		this.segmentSize = segmentSize;
+		this.maxSegments = maxSegments;
+		Files.createDirectories(directory);
+		this.current = new AtomicReference<Segment>(createSegment(lastSegmentIndex(directory) + 1));
+		this.maintenanceThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				maintain();
+			}
+		}, "OneAgentSDK tracer journal");
+		this.maintenanceThread.setDaemon(true);
+		this.maintenanceThread.start();
+	}
+
+	/**
+	 * Appends a finished Tracer. Never blocks, except if the next segment was not mapped in advance.
+	 *
+	 * @param tracer	the finished Tracer
+	 * @return false if the Tracer was dropped, because the journal is closed or failed, or the record exceeds the segment size.
+	 */
+	public boolean append(FinishedTracer tracer) {
+		activeWriters.incrementAndGet();
+		try {
+			if (closed) {
+				droppedCount.incrementAndGet();
+				return false;
+			}
+			ByteBuffer record = encoders.get().encode(tracer);
+			int length = record.limit();
+			if (length > segmentSize - SEGMENT_HEADER_SIZE) {
+				droppedCount.incrementAndGet();
+				return false;
+			}
+
+			Segment segment = current.get();
+			while (true) {
+				int offset = segment.writeOffset.getAndAdd(length);
+				if (offset <= segmentSize - length) {
+					write(segment.buffer, offset, record);
+					appendedCount.incrementAndGet();
+					return true;
+				}
+				if (offset <= segmentSize && segmentSize - offset >= 4) {
+					// exactly one thread crosses the end of the segment, it marks the end for the reader
+					segment.buffer.putInt(offset + OFFSET_LENGTH, END_OF_SEGMENT);
+				}
+				segment = successorOf(segment);
+				if (segment == null) {
+					droppedCount.incrementAndGet();
+					return false;
+				}
+			}
+		} finally {
+			activeWriters.decrementAndGet();
+		}
+	}
+
+	@Override
+	public void export(List<FinishedTracer> tracers) {
+		for (FinishedTracer tracer : tracers) {
+			append(tracer);
+		}
+	}
+
+	@Override
+	public void shutdown() {
+		close();
+	}
+
+	/**
+	 * Stops appending, waits for threads still appending and forces the current segment to disk. Tracers appended
+	 * afterwards are dropped.
+	 */
+	@Override
+	public void close() {
+		closed = true;
+		// a writer either sees the flag or is counted here, as both are sequentially consistent
+		while (activeWriters.get() != 0) {
+			Thread.yield();
+		}
+		LockSupport.unpark(maintenanceThread);
+		try {
+			maintenanceThread.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		current.get().buffer.force();
+	}
+
+	/**
+	 * @return number of Tracers appended to the journal.
+	 */
+	public long getAppendedCount() {
+		return appendedCount.get();
+	}
+
+	/**
+	 * @return number of Tracers not appended, because the journal was closed or failed, or the record was too large.
+	 */
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	private static void write(MappedByteBuffer buffer, int offset, ByteBuffer record) {
+		ByteBuffer target = buffer.duplicate().order(BYTE_ORDER);
+		target.putInt(offset + OFFSET_LENGTH, record.limit());
+		target.position(offset + OFFSET_CHECKSUM);
+		record.position(OFFSET_CHECKSUM);
+		target.put(record);
+		// the commit marker must not become visible before the rest of the record
+		VarHandle.releaseFence();
+		target.putInt(offset + OFFSET_COMMIT, COMMITTED);
+	}
+
+	/**
+	 * Returns the segment following a full one. Every thread overflowing the segment may install its successor, usually
+	 * the spare segment, so no thread waits for another one.
+	 *
+	 * @return the successor or null, if no segment could be mapped. The journal is closed in that case.
+	 */
+	private Segment successorOf(Segment full) {
+		Segment next = full.successor.get();
+		if (next == null) {
+			Segment candidate = spare.getAndSet(null);
+			if (candidate == null || candidate.index != full.index + 1) {
+				// the maintenance thread fell behind
+				try {
+					candidate = createSegment(full.index + 1);
+				} catch (IOException e) {
+					closed = true;
+					return null;
+				}
+			}
+			// a losing candidate maps the same file as the winner and is simply dropped
+			full.successor.compareAndSet(null, candidate);
+			next = full.successor.get();
+		}
+		if (current.compareAndSet(full, next)) {
+			LockSupport.unpark(maintenanceThread);
+		}
+		return next;
+	}
+
+	/**
+	 * Loop of the maintenance thread: keeps a spare segment mapped in advance and deletes expired segments, so that
+	 * appending threads never do file system work in the common case.
+	 */
+	private void maintain() {
+		long expiredUpTo = -1;
+		while (!closed) {
+			Segment segment = current.get();
+			Segment spareSegment = spare.get();
+			if (spareSegment == null || spareSegment.index <= segment.index) {
+				try {
+					spare.compareAndSet(spareSegment, createSegment(segment.index + 1));
+				} catch (IOException e) {
+					// appending threads try again on roll-over, and close the journal if that fails as well
+				}
+			}
+			if (segment.index > expiredUpTo) {
+				deleteExpiredSegments(segment.index);
+				expiredUpTo = segment.index;
+			}
+			LockSupport.parkNanos(this, MAINTENANCE_INTERVAL_NANOS);
+		}
+	}
+
+	private Segment createSegment(long index) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(directory.resolve(segmentFileName(index)).toFile(), "rw");
+		try {
+			file.setLength(segmentSize);
+			MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+			buffer.order(BYTE_ORDER);
+			buffer.putInt(0, SEGMENT_MAGIC);
+			buffer.putInt(4, SEGMENT_VERSION);
+			return new Segment(index, buffer);
+		} finally {
+			// the mapping stays valid after the file is closed
+			file.close();
+		}
+	}
+
+	private void deleteExpiredSegments(long newestIndex) {
+		if (maxSegments == 0 || newestIndex < maxSegments) {
+			return;
+		}
+		try {
+			DirectoryStream<Path> files = Files.newDirectoryStream(directory);
+			try {
+				for (Path file : files) {
+					long index = segmentIndex(file.getFileName().toString());
+					if (index >= 0 && index <= newestIndex - maxSegments) {
+						Files.deleteIfExists(file);
+					}
+				}
+			} finally {
+				files.close();
+			}
+		} catch (IOException e) {
+			// retention is best effort, e.g. a segment still mapped by a reader can not be deleted on Windows
+		}
+	}
+
+	private static long lastSegmentIndex(Path directory) throws IOException {
+		long last = -1;
+		DirectoryStream<Path> files = Files.newDirectoryStream(directory);
+		try {
+			for (Path file : files) {
+				last = Math.max(last, segmentIndex(file.getFileName().toString()));
+			}
+		} finally {
+			files.close();
+		}
+		return last;
+	}
+
+}
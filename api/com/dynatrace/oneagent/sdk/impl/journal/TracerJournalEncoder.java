@@ -0,0 +1,117 @@
+package com.dynatrace.oneagent.sdk.impl.journal;
+
+import static com.dynatrace.oneagent.sdk.impl.journal.TracerJournalFormat.*;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+
+/**
+ * Encodes a {@link FinishedTracer} into a reusable buffer. One instance per thread.
+ */
+final class TracerJournalEncoder {
+
+	private ByteBuffer buffer = ByteBuffer.allocate(512).order(BYTE_ORDER);
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * @return buffer containing the encoded record between 0 and its limit, including padding and checksum. The commit
+	 *         marker is not set.
+	 */
+	ByteBuffer encode(FinishedTracer tracer) {
+		buffer.clear();
+		buffer.putInt(0); // length
+		buffer.putInt(0); // commit marker
+		buffer.putInt(0); // checksum
+		buffer.put((byte) tracer.getType().ordinal());
+		buffer.put((byte) (tracer.getErrorMessage() != null ? FLAG_ERROR : 0));
+		Map<String, Object> attributes = tracer.getCustomRequestAttributes();
+		buffer.putShort((short) attributes.size());
+		buffer.putLong(tracer.getStartTimeMillis());
+		buffer.putLong(tracer.getDurationNanos());
+		putHexId(tracer.getTraceId(), TRACE_ID_SIZE);
+		putHexId(tracer.getSpanId(), SPAN_ID_SIZE);
+		putHexId(tracer.getParentSpanId(), SPAN_ID_SIZE);
+		putString(tracer.getServiceName());
+		putString(tracer.getName());
+		putString(tracer.getErrorMessage());
+		for (Map.Entry<String, Object> attribute : attributes.entrySet()) {
+			putString(attribute.getKey());
+			Object value = attribute.getValue();
+			ensureRemaining(9);
+			if (value instanceof Long) {
+				buffer.put(VALUE_LONG);
+				buffer.putLong((Long) value);
+			} else if (value instanceof Double) {
+				buffer.put(VALUE_DOUBLE);
+				buffer.putDouble((Double) value);
+			} else {
+				buffer.put(VALUE_STRING);
+				putString(String.valueOf(value));
+			}
+		}
+		int length = align(buffer.position());
+		ensureRemaining(length - buffer.position());
+		while (buffer.position() < length) {
+			buffer.put((byte) 0);
+		}
+		checksum.reset();
+		checksum.update(buffer.array(), OFFSET_TYPE, length - OFFSET_TYPE);
+		buffer.putInt(OFFSET_CHECKSUM, (int) checksum.getValue());
+		buffer.flip();
+		return buffer;
+	}
+
+	/**
+	 * Writes a lower-case hex id in binary form. Missing or malformed ids are written as all zero.
+	 */
+	private void putHexId(String id, int size) {
+		ensureRemaining(size);
+		int start = buffer.position();
+		boolean valid = id != null && id.length() == 2 * size;
+		for (int i = 0; i < size && valid; i++) {
+			int high = Character.digit(id.charAt(2 * i), 16);
+			int low = Character.digit(id.charAt(2 * i + 1), 16);
+			valid = high >= 0 && low >= 0;
+			buffer.put((byte) (high << 4 | low));
+		}
+		if (!valid) {
+			buffer.position(start);
+			for (int i = 0; i < size; i++) {
+				buffer.put((byte) 0);
+			}
+		}
+	}
+
+	private void putString(String value) {
+		if (value == null) {
+			ensureRemaining(2);
+			buffer.putShort((short) NULL_STRING);
+			return;
+		}
+		byte[] bytes = value.getBytes(CHARSET);
+		int length = bytes.length;
+		if (length > MAX_STRING_BYTES) {
+			length = MAX_STRING_BYTES;
+			// do not cut a multi-byte character
+			while ((bytes[length] & 0xC0) == 0x80) {
+				length--;
+			}
+		}
+		ensureRemaining(2 + length);
+		buffer.putShort((short) length);
+		buffer.put(bytes, 0, length);
+	}
+
+	private void ensureRemaining(int required) {
+		if (buffer.remaining() < required) {
+			ByteBuffer grown = ByteBuffer.allocate(Math.max(2 * buffer.capacity(), buffer.position() + required)).order(BYTE_ORDER);
+			buffer.flip();
+			grown.put(buffer);
+			buffer = grown;
+		}
+	}
+
+}
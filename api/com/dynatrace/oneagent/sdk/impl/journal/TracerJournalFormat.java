@@ -0,0 +1,100 @@
+package com.dynatrace.oneagent.sdk.impl.journal;
+
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Binary layout of tracer journal segments, shared by {@link TracerJournal} and {@link TracerJournalReader}.
+ *
+ * <p>A segment file starts with a header of {@link #SEGMENT_HEADER_SIZE} bytes (magic, version), followed by records.
+ * All numbers are little endian. Each record is padded to a multiple of 8 bytes and starts with a fixed part, so
+ * records can be filtered without decoding any string:
+ * <pre>
+ * offset  size  field
+ *  0      4     record length in bytes (including padding). -1: end of segment
+ *  4      4     commit marker, written after all other fields of the record
+ *  8      4     CRC32 checksum of all bytes from offset 12 up to the record length
+ * 12      1     tracer type (ordinal of TracerType)
+ * 13      1     flags (bit 0: error)
+ * 14      2     number of custom request attributes
+ * 16      8     start time [ms since epoch]
+ * 24      8     duration [ns]
+ * 32     16     Trace-Id
+ * 48      8     Span-Id
+ * 56      8     parent Span-Id (all zero: none)
+ * 64      ...   service name, name, error message as strings
+ *         ...   attributes: key as string, value type (1 byte), value (string, 8 byte long or 8 byte double)
+ * </pre>
+ * A record is valid only if it carries the commit marker and its checksum matches. Space is reserved for records
+ * concurrently, so a slot not (yet) holding a valid record may be followed by valid records: readers continue at the
+ * next multiple of 8 bytes, where the checksum prevents payload bytes from being taken for a record.
+ * Strings are stored as unsigned 16 bit byte length followed by UTF-8 bytes. Length 0xFFFF marks null.
+ */
+final class TracerJournalFormat {
+
+	static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+	static final Charset CHARSET = StandardCharsets.UTF_8;
+
+	static final int SEGMENT_MAGIC = 0x4A544440; // "@DTJ"
+	static final int SEGMENT_VERSION = 2;
+	static final int SEGMENT_HEADER_SIZE = 16;
+	static final String SEGMENT_FILE_PREFIX = "tracers-";
+	static final String SEGMENT_FILE_SUFFIX = ".journal";
+
+	static final int END_OF_SEGMENT = -1;
+	static final int COMMITTED = 0x54494D43; // "CMIT"
+
+	static final int OFFSET_LENGTH = 0;
+	static final int OFFSET_COMMIT = 4;
+	static final int OFFSET_CHECKSUM = 8;
+	static final int OFFSET_TYPE = 12;
+	static final int OFFSET_FLAGS = 13;
+	static final int OFFSET_ATTRIBUTE_COUNT = 14;
+	static final int OFFSET_START_TIME = 16;
+	static final int OFFSET_DURATION = 24;
+	static final int OFFSET_TRACE_ID = 32;
+	static final int OFFSET_SPAN_ID = 48;
+	static final int OFFSET_PARENT_SPAN_ID = 56;
+	static final int OFFSET_STRINGS = 64;
+
+	static final int TRACE_ID_SIZE = 16;
+	static final int SPAN_ID_SIZE = 8;
+
+	static final int FLAG_ERROR = 1;
+
+	static final int NULL_STRING = 0xFFFF;
+	static final int MAX_STRING_BYTES = 0xFFFE;
+
+	static final byte VALUE_STRING = 0;
+	static final byte VALUE_LONG = 1;
+	static final byte VALUE_DOUBLE = 2;
+
+	static final int RECORD_ALIGNMENT = 8;
+
+	private TracerJournalFormat() {
+	}
+
+	static String segmentFileName(long index) {
+		return String.format("%s%012d%s", SEGMENT_FILE_PREFIX, index, SEGMENT_FILE_SUFFIX);
+	}
+
+	/**
+	 * @return index of the segment or -1, if fileName is not a segment file name.
+	 */
+	static long segmentIndex(String fileName) {
+		if (!fileName.startsWith(SEGMENT_FILE_PREFIX) || !fileName.endsWith(SEGMENT_FILE_SUFFIX)) {
+			return -1;
+		}
+		try {
+			return Long.parseLong(fileName.substring(SEGMENT_FILE_PREFIX.length(), fileName.length() - SEGMENT_FILE_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	static int align(int length) {
+		return (length + RECORD_ALIGNMENT - 1) & -RECORD_ALIGNMENT;
+	}
+
+}
@@ -0,0 +1,237 @@
+package com.dynatrace.oneagent.sdk.impl.journal;
+
+import static com.dynatrace.oneagent.sdk.impl.journal.TracerJournalFormat.*;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Scans the segments written by {@link TracerJournal}, oldest first. Segments are memory-mapped read-only, and each
+ * record is presented through a single reused {@link TracerJournalRecord}, so scanning allocates nothing per record
+ * unless strings are requested.
+ *
+ * <p>Can be used as command line tool, see {@link #main(String[])}.
+ */
+public final class TracerJournalReader {
+
+	/**
+	 * Receives the records of a scan.
+	 */
+	public interface RecordVisitor {
+
+		/**
+		 * @param record	view of the current record. only valid during this call.
+		 * @return false to stop the scan.
+		 */
+		boolean visit(TracerJournalRecord record);
+
+	}
+
+	private final Path directory;
+
+	/**
+	 * @param directory	directory containing the segment files of a journal.
+	 */
+	public TracerJournalReader(Path directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Visits all committed records of all segments, in the order they were reserved within each segment.
+	 * Slots not holding a valid record, e.g. records still being written or interrupted by a crash, are skipped and
+	 * scanning continues with the records behind them.
+	 *
+	 * @param visitor	receives the records.
+	 * @return number of records visited.
+	 * @throws IOException	if a segment can not be read.
+	 */
+	public long scan(RecordVisitor visitor) throws IOException {
+		TracerJournalRecord record = new TracerJournalRecord();
+		CRC32 checksum = new CRC32();
+		long visited = 0;
+		for (Path segmentFile : segmentFiles()) {
+			MappedByteBuffer segment = map(segmentFile);
+			if (segment.capacity() < SEGMENT_HEADER_SIZE || segment.getInt(0) != SEGMENT_MAGIC
+					|| segment.getInt(4) != SEGMENT_VERSION) {
+				continue;
+			}
+			ByteBuffer checksummed = segment.duplicate();
+			int size = segment.capacity();
+			int offset = SEGMENT_HEADER_SIZE;
+			// the end marker is only trusted at a record boundary, not while searching for the next record
+			boolean atRecordBoundary = true;
+			while (offset <= size - OFFSET_STRINGS) {
+				int length = segment.getInt(offset + OFFSET_LENGTH);
+				if (length == END_OF_SEGMENT && atRecordBoundary) {
+					break;
+				}
+				if (isValidRecord(segment, checksummed, checksum, offset, length)) {
+					record.reset(segment, offset);
+					visited++;
+					if (!visitor.visit(record)) {
+						return visited;
+					}
+					offset += length;
+					atRecordBoundary = true;
+				} else {
+					// not written (yet), unfinished or corrupted: the next record may start at any aligned offset
+					offset += RECORD_ALIGNMENT;
+					atRecordBoundary = false;
+				}
+			}
+		}
+		return visited;
+	}
+
+	private static boolean isValidRecord(MappedByteBuffer segment, ByteBuffer checksummed, CRC32 checksum, int offset, int length) {
+		if (length < OFFSET_STRINGS || length > segment.capacity() - offset || (length & (RECORD_ALIGNMENT - 1)) != 0
+				|| segment.getInt(offset + OFFSET_COMMIT) != COMMITTED) {
+			return false;
+		}
+		checksummed.limit(offset + length).position(offset + OFFSET_TYPE);
+		checksum.reset();
+		checksum.update(checksummed);
+		checksummed.limit(checksummed.capacity());
+		return segment.getInt(offset + OFFSET_CHECKSUM) == (int) checksum.getValue();
+	}
+
+	private List<Path> segmentFiles() throws IOException {
+		List<Path> segmentFiles = new ArrayList<Path>();
+		DirectoryStream<Path> files = Files.newDirectoryStream(directory);
+		try {
+			for (Path file : files) {
+				if (segmentIndex(file.getFileName().toString()) >= 0) {
+					segmentFiles.add(file);
+				}
+			}
+		} finally {
+			files.close();
+		}
+		// zero-padded indices, so name order is index order
+		Collections.sort(segmentFiles);
+		return segmentFiles;
+	}
+
+	private static MappedByteBuffer map(Path segmentFile) throws IOException {
+		RandomAccessFile file = new RandomAccessFile(segmentFile.toFile(), "r");
+		try {
+			MappedByteBuffer segment = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, file.length());
+			segment.order(BYTE_ORDER);
+			return segment;
+		} finally {
+			file.close();
+		}
+	}
+
+	/**
+	 * Prints the records of a journal as tab-separated lines to stdout, and scan statistics to stderr.
+	 *
+	 * <pre>
+	 * usage: TracerJournalReader &lt;directory&gt; [options]
+	 *   --type=&lt;TracerType&gt;      only records of this type, e.g. DATABASE_REQUEST
+	 *   --errors                  only records with error
+	 *   --min-duration-ms=&lt;n&gt;     only records taking at least n milliseconds
+	 *   --trace-id=&lt;hex&gt;         only records of this trace
+	 *   --name=&lt;text&gt;            only records whose name contains text
+	 *   --count                   only print the number of matching records
+	 * </pre>
+	 */
+	public static void main(String[] args) throws IOException {
+		if (args.length == 0) {
+			System.err.println("usage: TracerJournalReader <directory> [--type=<TracerType>] [--errors] "
+					+ "[--min-duration-ms=<n>] [--trace-id=<hex>] [--name=<text>] [--count]");
+			System.exit(2);
+		}
+		TracerType type = null;
+		boolean errorsOnly = false;
+		long minDurationNanos = 0;
+		String traceId = null;
+		String name = null;
+		boolean countOnly = false;
+		for (int i = 1; i < args.length; i++) {
+			String arg = args[i];
+			if (arg.startsWith("--type=")) {
+				type = TracerType.valueOf(arg.substring("--type=".length()));
+			} else if (arg.equals("--errors")) {
+				errorsOnly = true;
+			} else if (arg.startsWith("--min-duration-ms=")) {
+				minDurationNanos = TimeUnit.MILLISECONDS.toNanos(Long.parseLong(arg.substring("--min-duration-ms=".length())));
+			} else if (arg.startsWith("--trace-id=")) {
+				traceId = arg.substring("--trace-id=".length());
+			} else if (arg.startsWith("--name=")) {
+				name = arg.substring("--name=".length());
+			} else if (arg.equals("--count")) {
+				countOnly = true;
+			} else {
+				System.err.println("unknown option: " + arg);
+				System.exit(2);
+			}
+		}
+
+		final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, CHARSET), 1 << 16);
+		final long[] matched = new long[1];
+		final StringBuilder line = new StringBuilder(256);
+		final TracerType typeFilter = type;
+		final boolean errorFilter = errorsOnly;
+		final long durationFilter = minDurationNanos;
+		final String traceIdFilter = traceId;
+		final String nameFilter = name;
+		final boolean print = !countOnly;
+
+		long startNanos = System.nanoTime();
+		long scanned = new TracerJournalReader(Paths.get(args[0])).scan(new RecordVisitor() {
+			@Override
+			public boolean visit(TracerJournalRecord record) {
+				// cheap fixed-size fields first, strings last
+				if ((typeFilter != null && record.getType() != typeFilter)
+						|| (errorFilter && !record.isError())
+						|| record.getDurationNanos() < durationFilter
+						|| (traceIdFilter != null && !record.hasTraceId(traceIdFilter))) {
+					return true;
+				}
+				if (nameFilter != null) {
+					String recordName = record.getName();
+					if (recordName == null || !recordName.contains(nameFilter)) {
+						return true;
+					}
+				}
+				matched[0]++;
+				if (print) {
+					line.setLength(0);
+					record.appendTo(line).append('\n');
+					try {
+						out.append(line);
+					} catch (IOException e) {
+						return false;
+					}
+				}
+				return true;
+			}
+		});
+		if (countOnly) {
+			out.append(Long.toString(matched[0])).append('\n');
+		}
+		out.flush();
+		long elapsedNanos = Math.max(1, System.nanoTime() - startNanos);
+		System.err.printf("scanned %d records, matched %d, in %d ms (%.0f records/s)%n", scanned, matched[0],
+				TimeUnit.NANOSECONDS.toMillis(elapsedNanos), scanned * 1e9 / elapsedNanos);
+	}
+
+}
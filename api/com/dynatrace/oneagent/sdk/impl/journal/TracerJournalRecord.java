@@ -0,0 +1,186 @@
+package com.dynatrace.oneagent.sdk.impl.journal;
+
+import static com.dynatrace.oneagent.sdk.impl.journal.TracerJournalFormat.*;
+
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Read-only view of a single record of a tracer journal, as passed to {@link TracerJournalReader.RecordVisitor}.
+ * The view is reused for all records of a scan: it must not be kept, and its fields must only be read during
+ * the visit.
+ *
+ * <p>The fixed-size fields (type, error flag, timings, ids) are read directly from the mapped segment. Strings are only
+ * decoded when they are requested.
+ */
+public final class TracerJournalRecord {
+
+	private static final TracerType[] TYPES = TracerType.values();
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	private ByteBuffer segment;
+	private int offset;
+
+	void reset(ByteBuffer segment, int offset) {
+		this.segment = segment;
+		this.offset = offset;
+	}
+
+	public TracerType getType() {
+		int ordinal = segment.get(offset + OFFSET_TYPE) & 0xFF;
+		return ordinal < TYPES.length ? TYPES[ordinal] : null;
+	}
+
+	public boolean isError() {
+		return (segment.get(offset + OFFSET_FLAGS) & FLAG_ERROR) != 0;
+	}
+
+	public long getStartTimeMillis() {
+		return segment.getLong(offset + OFFSET_START_TIME);
+	}
+
+	public long getDurationNanos() {
+		return segment.getLong(offset + OFFSET_DURATION);
+	}
+
+	public String getTraceId() {
+		return hexId(offset + OFFSET_TRACE_ID, TRACE_ID_SIZE);
+	}
+
+	public String getSpanId() {
+		return hexId(offset + OFFSET_SPAN_ID, SPAN_ID_SIZE);
+	}
+
+	/**
+	 * @return parent Span-Id or null, if the Tracer started the trace.
+	 */
+	public String getParentSpanId() {
+		return isZero(offset + OFFSET_PARENT_SPAN_ID, SPAN_ID_SIZE) ? null : hexId(offset + OFFSET_PARENT_SPAN_ID, SPAN_ID_SIZE);
+	}
+
+	/**
+	 * Compares the Trace-Id of this record with a hex-encoded Trace-Id, without decoding the record.
+	 *
+	 * @param traceId	lower- or upper-case, hex-encoded Trace-Id
+	 * @return true if both are equal.
+	 */
+	public boolean hasTraceId(CharSequence traceId) {
+		if (traceId.length() != 2 * TRACE_ID_SIZE) {
+			return false;
+		}
+		for (int i = 0; i < TRACE_ID_SIZE; i++) {
+			int b = segment.get(offset + OFFSET_TRACE_ID + i) & 0xFF;
+			if (Character.digit(traceId.charAt(2 * i), 16) != b >>> 4
+					|| Character.digit(traceId.charAt(2 * i + 1), 16) != (b & 0xF)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public String getServiceName() {
+		return readString(offset + OFFSET_STRINGS);
+	}
+
+	public String getName() {
+		return readString(skipString(offset + OFFSET_STRINGS));
+	}
+
+	public String getErrorMessage() {
+		return readString(skipString(skipString(offset + OFFSET_STRINGS)));
+	}
+
+	/**
+	 * @return custom request attributes in the order they were recorded. values are of type String, Long or Double.
+	 */
+	public Map<String, Object> getCustomRequestAttributes() {
+		int count = segment.getShort(offset + OFFSET_ATTRIBUTE_COUNT) & 0xFFFF;
+		Map<String, Object> attributes = new LinkedHashMap<String, Object>();
+		int position = skipString(skipString(skipString(offset + OFFSET_STRINGS)));
+		for (int i = 0; i < count; i++) {
+			String key = readString(position);
+			position = skipString(position);
+			byte valueType = segment.get(position++);
+			if (valueType == VALUE_LONG) {
+				attributes.put(key, segment.getLong(position));
+				position += 8;
+			} else if (valueType == VALUE_DOUBLE) {
+				attributes.put(key, segment.getDouble(position));
+				position += 8;
+			} else {
+				attributes.put(key, readString(position));
+				position = skipString(position);
+			}
+		}
+		return attributes;
+	}
+
+	/**
+	 * Appends this record as one tab-separated line, with the same fields as
+	 * {@link com.dynatrace.oneagent.sdk.impl.export.FileTracerExporter} (but unescaped), without the line break.
+	 */
+	public StringBuilder appendTo(StringBuilder line) {
+		line.append(getType()).append('\t');
+		line.append(getTraceId()).append('\t');
+		line.append(getSpanId()).append('\t');
+		appendNullable(line, getParentSpanId()).append('\t');
+		line.append(getStartTimeMillis()).append('\t');
+		line.append(getDurationNanos()).append('\t');
+		appendNullable(line, getServiceName()).append('\t');
+		appendNullable(line, getName()).append('\t');
+		appendNullable(line, getErrorMessage()).append('\t');
+		boolean first = true;
+		for (Map.Entry<String, Object> attribute : getCustomRequestAttributes().entrySet()) {
+			if (!first) {
+				line.append(',');
+			}
+			first = false;
+			line.append(attribute.getKey()).append('=').append(attribute.getValue());
+		}
+		return line;
+	}
+
+	private static StringBuilder appendNullable(StringBuilder line, String value) {
+		return value == null ? line : line.append(value);
+	}
+
+	private int skipString(int position) {
+		int length = segment.getShort(position) & 0xFFFF;
+		return position + 2 + (length == NULL_STRING ? 0 : length);
+	}
+
+	private String readString(int position) {
+		int length = segment.getShort(position) & 0xFFFF;
+		if (length == NULL_STRING) {
+			return null;
+		}
+		byte[] bytes = new byte[length];
+		ByteBuffer source = segment.duplicate();
+		source.position(position + 2);
+		source.get(bytes);
+		return new String(bytes, CHARSET);
+	}
+
+	private boolean isZero(int position, int size) {
+		for (int i = 0; i < size; i++) {
+			if (segment.get(position + i) != 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String hexId(int position, int size) {
+		char[] hex = new char[2 * size];
+		for (int i = 0; i < size; i++) {
+			int b = segment.get(position + i) & 0xFF;
+			hex[2 * i] = HEX_DIGITS[b >>> 4];
+			hex[2 * i + 1] = HEX_DIGITS[b & 0xF];
+		}
+		return new String(hex);
+	}
+
+}
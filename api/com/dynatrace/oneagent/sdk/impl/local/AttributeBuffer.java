@@ -0,0 +1,102 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.impl.attributes.PrimitiveCustomRequestAttributeBatch;
+
+/**
+ * Custom request attributes added to a service call, in the order they were added. Numeric values are stored unboxed
+ * (doubles as their raw long bits), they are only boxed by {@link #toMap()} when the Tracer is exported. Not
+ * thread-safe, guarded by the owning {@link LocalTracer}. Pooled per thread by the {@link LocalOneAgentSDK}, once the
+ * owning Tracer is released.
+ */
+final class AttributeBuffer {
+
+	static final byte STRING = 0;
+	static final byte LONG = 1;
+	static final byte DOUBLE = 2;
+
+	private static final int INITIAL_CAPACITY = 8;
+
+	private String[] keys = new String[INITIAL_CAPACITY];
+	private byte[] types = new byte[INITIAL_CAPACITY];
+	private long[] numbers = new long[INITIAL_CAPACITY];
+	private String[] strings = new String[INITIAL_CAPACITY];
+	private int count;
+
+	/**
+	 * @param number	value of a LONG attribute, raw long bits of a DOUBLE attribute. ignored for STRING attributes.
+	 * @param string	value of a STRING attribute, null otherwise.
+	 */
+	void add(String key, byte type, long number, String string) {
+		ensureCapacity(count + 1);
+		keys[count] = key;
+		types[count] = type;
+		numbers[count] = number;
+		strings[count++] = string;
+	}
+
+	/**
+	 * Adds all attributes of a batch, whose keys must all be {@link LocalCustomRequestAttributeKey}s: first the long,
+	 * then the double attributes, each in the order they were added to the batch.
+	 */
+	void addAll(PrimitiveCustomRequestAttributeBatch batch) {
+		int longCount = batch.getLongCount();
+		int doubleCount = batch.getDoubleCount();
+		ensureCapacity(count + longCount + doubleCount);
+		for (int i = 0; i < longCount; i++) {
+			keys[count] = ((LocalCustomRequestAttributeKey) batch.getLongKey(i)).key;
+			types[count] = LONG;
+			numbers[count++] = batch.getLongValue(i);
+		}
+		for (int i = 0; i < doubleCount; i++) {
+			keys[count] = ((LocalCustomRequestAttributeKey) batch.getDoubleKey(i)).key;
+			types[count] = DOUBLE;
+			numbers[count++] = Double.doubleToRawLongBits(batch.getDoubleValue(i));
+		}
+	}
+
+	/**
+	 * @return unmodifiable copy with values of type String, Long or Double. If a key was added more than once, the map
+	 *         holds its last value.
+	 */
+	Map<String, Object> toMap() {
+		if (count == 0) {
+			return Collections.emptyMap();
+		}
+		Map<String, Object> map = new LinkedHashMap<String, Object>(count * 2);
+		for (int i = 0; i < count; i++) {
+			switch (types[i]) {
+			case LONG:
+				map.put(keys[i], Long.valueOf(numbers[i]));
+				break;
+			case DOUBLE:
+				map.put(keys[i], Double.valueOf(Double.longBitsToDouble(numbers[i])));
+				break;
+			default:
+				map.put(keys[i], strings[i]);
+			}
+		}
+		return Collections.unmodifiableMap(map);
+	}
+
+	void clear() {
+		Arrays.fill(keys, 0, count, null);
+		Arrays.fill(strings, 0, count, null);
+		count = 0;
+	}
+
+	private void ensureCapacity(int capacity) {
+		if (capacity > keys.length) {
+			int newCapacity = Math.max(capacity, keys.length * 2);
+			keys = Arrays.copyOf(keys, newCapacity);
+			types = Arrays.copyOf(types, newCapacity);
+			numbers = Arrays.copyOf(numbers, newCapacity);
+			strings = Arrays.copyOf(strings, newCapacity);
+		}
+	}
+
+}
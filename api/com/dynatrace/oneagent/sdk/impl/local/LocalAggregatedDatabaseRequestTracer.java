@@ -0,0 +1,75 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseRequestAggregator;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseStatementKey;
+
+/**
+ * {@link DatabaseRequestTracer} of a request in aggregation mode, see {@link LocalDatabaseRequestAggregation}. Only
+ * measures the request and records it into its aggregate when ended. Does not become active, so it neither is part of
+ * the PurePath of its caller nor has child calls.
+ */
+final class LocalAggregatedDatabaseRequestTracer implements DatabaseRequestTracer {
+
+	private static final int CREATED = 0;
+	private static final int STARTED = 1;
+	private static final int ENDED = 2;
+
+	private final LocalOneAgentSDK oneAgentSDK;
+	private final DatabaseRequestAggregator aggregator;
+	private final DatabaseStatementKey statementKey;
+	private int state = CREATED;
+	private long startNanos;
+	private boolean error;
+	private int rowsReturned;
+	private int roundTripCount;
+
+	LocalAggregatedDatabaseRequestTracer(LocalOneAgentSDK oneAgentSDK, DatabaseRequestAggregator aggregator,
+			DatabaseStatementKey statementKey) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.aggregator = aggregator;
+		this.statementKey = statementKey;
+	}
+
+	@Override
+	public void start() {
+		if (state != CREATED) {
+			oneAgentSDK.warn(TracerType.DATABASE_REQUEST + ": start() called more than once");
+			return;
+		}
+		state = STARTED;
+		startNanos = System.nanoTime();
+	}
+
+	@Override
+	public void error(String message) {
+		error = true;
+	}
+
+	@Override
+	public void end() {
+		if (state != STARTED) {
+			oneAgentSDK.warn(TracerType.DATABASE_REQUEST + ": end()"
+					+ (state == CREATED ? " called on a Tracer that was not started" : " called more than once"));
+			return;
+		}
+		state = ENDED;
+		aggregator.record(statementKey, System.nanoTime() - startNanos, error, rowsReturned, roundTripCount);
+	}
+
+	@Override
+	public void release() {
+	}
+
+	@Override
+	public void setRowsReturned(int rowsReturned) {
+		this.rowsReturned = rowsReturned;
+	}
+
+	@Override
+	public void setRoundTripCount(int roundTripCount) {
+		this.roundTripCount = roundTripCount;
+	}
+
+}
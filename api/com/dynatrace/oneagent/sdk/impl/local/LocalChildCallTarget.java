@@ -0,0 +1,42 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.Objects;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Target of a child call, compared by {@link com.dynatrace.oneagent.sdk.impl.compaction.ChildCallCompactor} to find
+ * identical calls: the database of a database request, or service name and endpoint of an outgoing remote call.
+ */
+final class LocalChildCallTarget {
+
+	final TracerType type;
+	/** database name or service name, may be null */
+	final String serviceName;
+	/** service endpoint of remote calls, may be null */
+	final String endpoint;
+
+	LocalChildCallTarget(TracerType type, String serviceName, String endpoint) {
+		this.type = type;
+		this.serviceName = serviceName;
+		this.endpoint = endpoint;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof LocalChildCallTarget)) {
+			return false;
+		}
+		LocalChildCallTarget other = (LocalChildCallTarget) obj;
+		return type == other.type && Objects.equals(serviceName, other.serviceName) && Objects.equals(endpoint, other.endpoint);
+	}
+
+	@Override
+	public int hashCode() {
+		return (type.hashCode() * 31 + Objects.hashCode(serviceName)) * 31 + Objects.hashCode(endpoint);
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+
+/**
+ * {@link CustomRequestAttributeKey} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalCustomRequestAttributeKey implements CustomRequestAttributeKey {
+
+	final String key;
+
+	LocalCustomRequestAttributeKey(String key) {
+		this.key = key;
+	}
+
+}
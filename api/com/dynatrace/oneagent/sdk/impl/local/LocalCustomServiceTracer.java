@@ -0,0 +1,30 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link CustomServiceTracer} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalCustomServiceTracer extends LocalTracer implements CustomServiceTracer {
+
+	private final String serviceMethod;
+	private final String serviceName;
+
+	LocalCustomServiceTracer(LocalOneAgentSDK oneAgentSDK, String serviceMethod, String serviceName) {
+		super(oneAgentSDK, TracerType.CUSTOM_SERVICE);
+		this.serviceMethod = serviceMethod;
+		this.serviceName = serviceName;
+	}
+
+	@Override
+	String getName() {
+		return serviceMethod;
+	}
+
+	@Override
+	String getServiceName() {
+		return serviceName;
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+
+/**
+ * {@link DatabaseInfo} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalDatabaseInfo implements DatabaseInfo {
+
+	final String name;
+
+	LocalDatabaseInfo(String name) {
+		this.name = name;
+	}
+
+}
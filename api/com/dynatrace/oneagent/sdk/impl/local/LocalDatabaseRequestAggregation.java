@@ -0,0 +1,105 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.List;
+
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseRequestAggregate;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseRequestAggregator;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseStatementKey;
+import com.dynatrace.oneagent.sdk.impl.export.BatchingTracerExportPipeline;
+
+/**
+ * Aggregation mode of the {@link LocalOneAgentSDK}, see
+ * {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setDatabaseRequestAggregation(long, int)}. Requests of statements
+ * with an aggregate are counted by a {@link LocalAggregatedDatabaseRequestTracer}. A daemon thread hands the aggregates
+ * to the export pipeline of the SDK every flush interval, as one
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} per aggregate: a root node of its own trace, whose
+ * name is the statement fingerprint and whose call count, total and maximum duration and failed calls are those of
+ * the aggregate.
+ */
+final class LocalDatabaseRequestAggregation {
+
+	private final LocalOneAgentSDK oneAgentSDK;
+	private final DatabaseRequestAggregator aggregator;
+	private final long flushIntervalMillis;
+	private final Thread flushThread;
+	private volatile boolean stopped;
+	/** start of the current flush interval, used by the flushing thread only */
+	private long intervalStartMillis = System.currentTimeMillis();
+
+	/**
+	 * Creates the aggregator and starts the flush thread.
+	 *
+	 * @param flushIntervalMillis	must be positive.
+	 * @param maxAggregates			must be positive.
+	 */
+	LocalDatabaseRequestAggregation(LocalOneAgentSDK oneAgentSDK, long flushIntervalMillis, int maxAggregates) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.aggregator = new DatabaseRequestAggregator(maxAggregates);
+		this.flushIntervalMillis = flushIntervalMillis;
+		this.flushThread = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				flushLoop();
+			}
+		}, "OneAgentSDK database request aggregation");
+		this.flushThread.setDaemon(true);
+		this.flushThread.start();
+	}
+
+	/**
+	 * @param statementKey	statement and database of the request. may be null, if the statement is not known.
+	 * @return counting Tracer, or null if the request is to be traced individually: its statement is not known, or
+	 *         the maximum number of aggregates was reached.
+	 */
+	DatabaseRequestTracer trace(DatabaseStatementKey statementKey) {
+		if (statementKey == null || !aggregator.reserve(statementKey)) {
+			return null;
+		}
+		return new LocalAggregatedDatabaseRequestTracer(oneAgentSDK, aggregator, statementKey);
+	}
+
+	/**
+	 * Stops the flush thread and flushes the remaining aggregates.
+	 */
+	void stop() throws InterruptedException {
+		stopped = true;
+		flushThread.interrupt();
+		flushThread.join();
+		flush();
+	}
+
+	private void flushLoop() {
+		while (!stopped) {
+			try {
+				Thread.sleep(flushIntervalMillis);
+			} catch (InterruptedException e) {
+				// stopped, the remaining aggregates are flushed by stop()
+				return;
+			}
+			flush();
+		}
+	}
+
+	private void flush() {
+		long nowMillis = System.currentTimeMillis();
+		List<DatabaseRequestAggregate> aggregates = aggregator.flush();
+		BatchingTracerExportPipeline pipeline = oneAgentSDK.getExportPipeline();
+		if (pipeline != null) {
+			for (DatabaseRequestAggregate aggregate : aggregates) {
+				pipeline.offer(new LocalFinishedTracer(TracerType.DATABASE_REQUEST, aggregate.getStatementFingerprint(),
+						LocalOneAgentSDK.databaseName(aggregate.getDatabaseInfo()), intervalStartMillis,
+						aggregate.getTotalDurationNanos(), TraceParent.randomId(), TraceParent.randomId(),
+						TraceParent.randomId(), 0, saturatedInt(aggregate.getCount()), aggregate.getLatencies().getMaxNanos(),
+						saturatedInt(aggregate.getErrorCount())));
+			}
+		}
+		intervalStartMillis = nowMillis;
+	}
+
+	private static int saturatedInt(long value) {
+		return (int) Math.min(value, Integer.MAX_VALUE);
+	}
+
+}
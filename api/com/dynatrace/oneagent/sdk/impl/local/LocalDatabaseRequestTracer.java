@@ -0,0 +1,49 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link DatabaseRequestTracer} of the {@link LocalOneAgentSDK}. Row and round-trip counts are not part of a
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+final class LocalDatabaseRequestTracer extends LocalTracer implements DatabaseRequestTracer {
+
+	private final String databaseName;
+	private final String statement;
+
+	LocalDatabaseRequestTracer(LocalOneAgentSDK oneAgentSDK, String databaseName, String statement) {
+		super(oneAgentSDK, TracerType.DATABASE_REQUEST);
+		this.databaseName = databaseName;
+		this.statement = statement;
+	}
+
+	@Override
+	String getName() {
+		return statement;
+	}
+
+	@Override
+	String getServiceName() {
+		return databaseName;
+	}
+
+	@Override
+	String getSamplingName() {
+		return null;
+	}
+
+	@Override
+	LocalChildCallTarget getChildCallTarget() {
+		return new LocalChildCallTarget(TracerType.DATABASE_REQUEST, databaseName, null);
+	}
+
+	@Override
+	public void setRowsReturned(int rowsReturned) {
+	}
+
+	@Override
+	public void setRoundTripCount(int roundTripCount) {
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseStatementKey;
+
+/**
+ * {@link DatabaseStatementInfo} of the {@link LocalOneAgentSDK}. The key of the statement in aggregation mode is
+ * computed once, so requests of a registered statement are aggregated without normalizing the statement again.
+ */
+final class LocalDatabaseStatementInfo implements DatabaseStatementInfo {
+
+	final LocalDatabaseInfo databaseInfo;
+	final String statement;
+	/** null if the statement is null */
+	final DatabaseStatementKey statementKey;
+
+	LocalDatabaseStatementInfo(LocalDatabaseInfo databaseInfo, String statement) {
+		this.databaseInfo = databaseInfo;
+		this.statement = statement;
+		this.statementKey = statement == null ? null : new DatabaseStatementKey(databaseInfo, statement);
+	}
+
+}
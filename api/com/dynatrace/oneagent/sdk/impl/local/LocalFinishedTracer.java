@@ -0,0 +1,167 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+
+/**
+ * Immutable {@link FinishedTracer} created by the {@link LocalOneAgentSDK} when a recording Tracer ends. Ids are
+ * hex-encoded when first requested, so exporters that do not read them do not pay for the encoding.
+ */
+final class LocalFinishedTracer implements FinishedTracer {
+
+	private final TracerType type;
+	private final String name;
+	private final String serviceName;
+	private final long startTimeMillis;
+	private final long durationNanos;
+	private final String errorMessage;
+	private final long traceIdHigh;
+	private final long traceIdLow;
+	private final long spanId;
+	private final long parentSpanId;
+	private final Map<String, Object> customRequestAttributes;
+	/** may be null */
+	private final long[] linkedSpanIds;
+	private final long droppedChildCallCount;
+	private final int callCount;
+	private final long maxDurationNanos;
+	private final int failedCallCount;
+
+	/**
+	 * Finished Tracer of a single call.
+	 */
+	LocalFinishedTracer(TracerType type, String name, String serviceName, long startTimeMillis, long durationNanos,
+			String errorMessage, long traceIdHigh, long traceIdLow, long spanId, long parentSpanId,
+			Map<String, Object> customRequestAttributes, long[] linkedSpanIds, long droppedChildCallCount) {
+		this(type, name, serviceName, startTimeMillis, durationNanos, errorMessage, traceIdHigh, traceIdLow, spanId,
+				parentSpanId, customRequestAttributes, linkedSpanIds, droppedChildCallCount, 1, durationNanos,
+				errorMessage == null ? 0 : 1);
+	}
+
+	/**
+	 * Node of several calls, see {@link FinishedTracer#getCallCount()}. The error message summarizes failed calls.
+	 */
+	LocalFinishedTracer(TracerType type, String name, String serviceName, long startTimeMillis, long totalDurationNanos,
+			long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, int callCount, long maxDurationNanos,
+			int failedCallCount) {
+		this(type, name, serviceName, startTimeMillis, totalDurationNanos,
+				failedCallCount == 0 ? null : failedCallCount + " of " + callCount + " calls failed", traceIdHigh, traceIdLow,
+				spanId, parentSpanId, Collections.<String, Object>emptyMap(), null, 0, callCount, maxDurationNanos,
+				failedCallCount);
+	}
+
+	private LocalFinishedTracer(TracerType type, String name, String serviceName, long startTimeMillis, long durationNanos,
+			String errorMessage, long traceIdHigh, long traceIdLow, long spanId, long parentSpanId,
+			Map<String, Object> customRequestAttributes, long[] linkedSpanIds, long droppedChildCallCount, int callCount,
+			long maxDurationNanos, int failedCallCount) {
+		this.type = type;
+		this.name = name;
+		this.serviceName = serviceName;
+		this.startTimeMillis = startTimeMillis;
+		this.durationNanos = durationNanos;
+		this.errorMessage = errorMessage;
+		this.traceIdHigh = traceIdHigh;
+		this.traceIdLow = traceIdLow;
+		this.spanId = spanId;
+		this.parentSpanId = parentSpanId;
+		this.customRequestAttributes = customRequestAttributes;
+		this.linkedSpanIds = linkedSpanIds;
+		this.droppedChildCallCount = droppedChildCallCount;
+		this.callCount = callCount;
+		this.maxDurationNanos = maxDurationNanos;
+		this.failedCallCount = failedCallCount;
+	}
+
+	@Override
+	public TracerType getType() {
+		return type;
+	}
+
+	@Override
+	public String getName() {
+		return name;
+	}
+
+	@Override
+	public String getServiceName() {
+		return serviceName;
+	}
+
+	@Override
+	public long getStartTimeMillis() {
+		return startTimeMillis;
+	}
+
+	@Override
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	@Override
+	public String getErrorMessage() {
+		return errorMessage;
+	}
+
+	@Override
+	public String getTraceId() {
+		return TraceParent.traceId(traceIdHigh, traceIdLow);
+	}
+
+	@Override
+	public String getSpanId() {
+		return TraceParent.spanId(spanId);
+	}
+
+	@Override
+	public String getParentSpanId() {
+		return parentSpanId == 0 ? null : TraceParent.spanId(parentSpanId);
+	}
+
+	@Override
+	public Map<String, Object> getCustomRequestAttributes() {
+		return customRequestAttributes;
+	}
+
+	@Override
+	public List<String> getLinkedSpanIds() {
+		if (linkedSpanIds == null) {
+			return Collections.emptyList();
+		}
+		List<String> spanIds = new ArrayList<String>(linkedSpanIds.length);
+		for (long linkedSpanId : linkedSpanIds) {
+			spanIds.add(TraceParent.spanId(linkedSpanId));
+		}
+		return Collections.unmodifiableList(spanIds);
+	}
+
+	@Override
+	public int getCallCount() {
+		return callCount;
+	}
+
+	@Override
+	public long getMaxDurationNanos() {
+		return maxDurationNanos;
+	}
+
+	@Override
+	public int getFailedCallCount() {
+		return failedCallCount;
+	}
+
+	@Override
+	public long getDroppedChildCallCount() {
+		return droppedChildCallCount;
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + name + " [" + getTraceId() + "/" + getSpanId() + "]";
+	}
+
+}
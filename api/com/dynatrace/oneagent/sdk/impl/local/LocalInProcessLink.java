@@ -0,0 +1,22 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+
+/**
+ * {@link InProcessLink} of the {@link LocalOneAgentSDK}. Refers to the Tracer that was active when the link was
+ * created, which becomes the parent of the {@link LocalInProcessLinkTracer}.
+ */
+final class LocalInProcessLink implements InProcessLink {
+
+	/** link created while no path was active: the linked Tracer neither records nor becomes active */
+	static final LocalInProcessLink EMPTY = new LocalInProcessLink(null);
+	/** link created in a trace that is not sampled: the linked Tracer is the stateless {@link LocalNotSampledTracer} */
+	static final LocalInProcessLink NOT_SAMPLED = new LocalInProcessLink(null);
+
+	final LocalTracer origin;
+
+	LocalInProcessLink(LocalTracer origin) {
+		this.origin = origin;
+	}
+
+}
@@ -0,0 +1,40 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link InProcessLinkTracer} of the {@link LocalOneAgentSDK}. Continues the trace of the Tracer that was active when
+ * the link was created, regardless of the Tracer active on the calling thread. Linked to
+ * {@link LocalInProcessLink#EMPTY}, it neither records nor becomes active.
+ */
+final class LocalInProcessLinkTracer extends LocalTracer implements InProcessLinkTracer {
+
+	private final LocalInProcessLink inProcessLink;
+
+	LocalInProcessLinkTracer(LocalOneAgentSDK oneAgentSDK, LocalInProcessLink inProcessLink) {
+		super(oneAgentSDK, TracerType.IN_PROCESS_LINK);
+		this.inProcessLink = inProcessLink;
+	}
+
+	@Override
+	String getName() {
+		return null;
+	}
+
+	@Override
+	String getServiceName() {
+		return null;
+	}
+
+	@Override
+	LocalTracer getLocalParent(LocalTracer activeTracer) {
+		return inProcessLink.origin;
+	}
+
+	@Override
+	boolean mayStartTrace() {
+		return false;
+	}
+
+}
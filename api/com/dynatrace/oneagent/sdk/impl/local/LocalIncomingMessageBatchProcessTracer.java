@@ -0,0 +1,46 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link IncomingMessageBatchProcessTracer} of the {@link LocalOneAgentSDK}. As a
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} has a single parent, the batch continues the trace of
+ * the first message carrying a valid tag. Errors of single messages are not captured.
+ */
+final class LocalIncomingMessageBatchProcessTracer extends LocalMessageTracer implements IncomingMessageBatchProcessTracer {
+
+	LocalIncomingMessageBatchProcessTracer(LocalOneAgentSDK oneAgentSDK, LocalMessagingSystemInfo messagingSystemInfo) {
+		super(oneAgentSDK, TracerType.INCOMING_MESSAGE_BATCH_PROCESS, messagingSystemInfo);
+	}
+
+	@Override
+	public void setMessages(int messageCount, String[] dynatraceStringTags, String[] vendorMessageIds, String[] correlationIds) {
+		String tag = null;
+		for (int i = 0; dynatraceStringTags != null && i < messageCount && tag == null; i++) {
+			if (TraceParent.parse(dynatraceStringTags[i], null)) {
+				tag = dynatraceStringTags[i];
+			}
+		}
+		setDynatraceStringTag(tag);
+	}
+
+	@Override
+	public <Carrier> void setMessages(int messageCount, HeaderGetter<Carrier> headerGetter, Carrier[] carriers,
+			String[] vendorMessageIds, String[] correlationIds) {
+		String tag = null;
+		for (int i = 0; i < messageCount && tag == null; i++) {
+			CharSequence value = headerGetter.getHeader(TraceParent.HEADER_NAME, carriers[i]);
+			if (TraceParent.parse(value, null)) {
+				tag = value.toString();
+			}
+		}
+		setDynatraceStringTag(tag);
+	}
+
+	@Override
+	public void messageError(int messageIndex, String message) {
+	}
+
+}
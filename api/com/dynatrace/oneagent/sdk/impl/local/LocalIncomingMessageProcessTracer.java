@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link IncomingMessageProcessTracer} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalIncomingMessageProcessTracer extends LocalMessageTracer implements IncomingMessageProcessTracer {
+
+	LocalIncomingMessageProcessTracer(LocalOneAgentSDK oneAgentSDK, LocalMessagingSystemInfo messagingSystemInfo) {
+		super(oneAgentSDK, TracerType.INCOMING_MESSAGE_PROCESS, messagingSystemInfo);
+	}
+
+}
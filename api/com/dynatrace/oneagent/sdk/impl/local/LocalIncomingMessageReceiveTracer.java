@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link IncomingMessageReceiveTracer} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalIncomingMessageReceiveTracer extends LocalMessageTracer implements IncomingMessageReceiveTracer {
+
+	LocalIncomingMessageReceiveTracer(LocalOneAgentSDK oneAgentSDK, LocalMessagingSystemInfo messagingSystemInfo) {
+		super(oneAgentSDK, TracerType.INCOMING_MESSAGE_RECEIVE, messagingSystemInfo);
+	}
+
+}
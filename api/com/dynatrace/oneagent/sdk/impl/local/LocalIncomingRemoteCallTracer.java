@@ -0,0 +1,35 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link IncomingRemoteCallTracer} of the {@link LocalOneAgentSDK}. The protocol name is not part of a
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+final class LocalIncomingRemoteCallTracer extends LocalTracer implements IncomingRemoteCallTracer {
+
+	private final String serviceMethod;
+	private final String serviceName;
+
+	LocalIncomingRemoteCallTracer(LocalOneAgentSDK oneAgentSDK, String serviceMethod, String serviceName) {
+		super(oneAgentSDK, TracerType.INCOMING_REMOTE_CALL);
+		this.serviceMethod = serviceMethod;
+		this.serviceName = serviceName;
+	}
+
+	@Override
+	String getName() {
+		return serviceMethod;
+	}
+
+	@Override
+	String getServiceName() {
+		return serviceName;
+	}
+
+	@Override
+	public void setProtocolName(String protocolName) {
+	}
+
+}
@@ -0,0 +1,67 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link IncomingWebRequestTracer} of the {@link LocalOneAgentSDK}. Remote address, headers, parameters and status
+ * code are not part of a {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+final class LocalIncomingWebRequestTracer extends LocalTracer implements IncomingWebRequestTracer {
+
+	private final String applicationID;
+	private final String url;
+
+	LocalIncomingWebRequestTracer(LocalOneAgentSDK oneAgentSDK, String applicationID, String url) {
+		super(oneAgentSDK, TracerType.INCOMING_WEB_REQUEST);
+		this.applicationID = applicationID;
+		this.url = url;
+	}
+
+	@Override
+	String getName() {
+		return url;
+	}
+
+	@Override
+	String getServiceName() {
+		return applicationID;
+	}
+
+	@Override
+	public void setRemoteAddress(String remoteAddress) {
+	}
+
+	@Override
+	public void addRequestHeader(String name, String value) {
+	}
+
+	@Override
+	public <Carrier> void addRequestHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void addParameter(String name, String value) {
+	}
+
+	@Override
+	public void addParameterLazy(String name, Supplier<String> valueSupplier) {
+		// parameters are not captured, so the value is never needed
+	}
+
+	@Override
+	public void addResponseHeader(String name, String value) {
+	}
+
+	@Override
+	public <Carrier> void addResponseHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setStatusCode(int statusCode) {
+	}
+
+}
@@ -0,0 +1,41 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Common base of the messaging Tracers of the {@link LocalOneAgentSDK}. Message ids and correlation ids are not part
+ * of a {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+abstract class LocalMessageTracer extends LocalTracer {
+
+	private final String vendorName;
+	private final String destinationName;
+
+	LocalMessageTracer(LocalOneAgentSDK oneAgentSDK, TracerType type, LocalMessagingSystemInfo messagingSystemInfo) {
+		super(oneAgentSDK, type);
+		this.vendorName = messagingSystemInfo == null ? null : messagingSystemInfo.vendorName;
+		this.destinationName = messagingSystemInfo == null ? null : messagingSystemInfo.destinationName;
+	}
+
+	@Override
+	String getName() {
+		return destinationName;
+	}
+
+	@Override
+	String getServiceName() {
+		return vendorName;
+	}
+
+	@Override
+	String getSamplingName() {
+		return destinationName;
+	}
+
+	public void setVendorMessageId(String vendorMessageId) {
+	}
+
+	public void setCorrelationId(String correlationId) {
+	}
+
+}
@@ -0,0 +1,18 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+
+/**
+ * {@link MessagingSystemInfo} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalMessagingSystemInfo implements MessagingSystemInfo {
+
+	final String vendorName;
+	final String destinationName;
+
+	LocalMessagingSystemInfo(String vendorName, String destinationName) {
+		this.vendorName = vendorName;
+		this.destinationName = destinationName;
+	}
+
+}
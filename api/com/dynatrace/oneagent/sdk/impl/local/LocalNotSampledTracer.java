@@ -0,0 +1,157 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+
+/**
+ * Stateless Tracer of the {@link LocalOneAgentSDK}, returned by trace* calls for Tracers of a trace that is not
+ * sampled. One instance per SDK is shared by all threads and Tracer types. {@link #start()} and {@link #end()} only
+ * count the depth of the {@link NotSampledTrace} of the calling thread, so that Tracers created in between inherit
+ * the decision. Tags carry the trace context with the sampled flag cleared; all messages of a batch get the same tag.
+ *
+ * <p>Without state, misuse like calling {@link #end()} twice cannot be detected.
+ */
+final class LocalNotSampledTracer implements CustomServiceTracer, DatabaseRequestTracer, OutgoingWebRequestTracer,
+		OutgoingRemoteCallTracer, OutgoingMessageTracer, InProcessLinkTracer {
+
+	private static final byte[] EMPTY_TAG = new byte[0];
+
+	private final LocalOneAgentSDK oneAgentSDK;
+
+	LocalNotSampledTracer(LocalOneAgentSDK oneAgentSDK) {
+		this.oneAgentSDK = oneAgentSDK;
+	}
+
+	@Override
+	public void start() {
+		oneAgentSDK.getNotSampledTrace().enter();
+	}
+
+	@Override
+	public void error(String message) {
+	}
+
+	@Override
+	public void end() {
+		if (!oneAgentSDK.getNotSampledTrace().exit()) {
+			oneAgentSDK.warn("end() called on a Tracer of a trace that is not sampled, which was not started");
+		}
+	}
+
+	@Override
+	public void release() {
+	}
+
+	// OutgoingTaggable
+
+	@Override
+	public String getDynatraceStringTag() {
+		LocalTracer activeTracer = oneAgentSDK.getActiveTracer();
+		if (activeTracer != null) {
+			// a Tracer object that is not sampled, e.g. an incoming call with a tag of a trace that is not sampled
+			return activeTracer.getDynatraceStringTag();
+		}
+		NotSampledTrace notSampledTrace = oneAgentSDK.getNotSampledTrace();
+		return notSampledTrace.depth == 0 ? "" : notSampledTrace.getTag();
+	}
+
+	@Override
+	public byte[] getDynatraceByteTag() {
+		String stringTag = getDynatraceStringTag();
+		return stringTag.isEmpty() ? EMPTY_TAG : stringTag.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	@Override
+	public int getDynatraceByteTag(ByteBuffer target) {
+		String stringTag = getDynatraceStringTag();
+		int length = stringTag.length();
+		if (length > target.remaining()) {
+			return -length;
+		}
+		for (int i = 0; i < length; i++) {
+			target.put((byte) stringTag.charAt(i));
+		}
+		return length;
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier) {
+		String stringTag = getDynatraceStringTag();
+		if (!stringTag.isEmpty()) {
+			headerSetter.setHeader(TraceParent.HEADER_NAME, stringTag, carrier);
+		}
+	}
+
+	@Override
+	public String getDynatraceStringTag(int messageIndex) {
+		return getDynatraceStringTag();
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier, int messageIndex) {
+		injectTracingHeaders(headerSetter, carrier);
+	}
+
+	// CustomRequestAttributable: service calls of traces that are not sampled do not record attributes
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+		batch.clear();
+	}
+
+	// remaining setters of the Tracer types
+
+	@Override
+	public void setRowsReturned(int rowsReturned) {
+	}
+
+	@Override
+	public void setRoundTripCount(int roundTripCount) {
+	}
+
+	@Override
+	public void addRequestHeader(String name, String value) {
+	}
+
+	@Override
+	public void addResponseHeader(String name, String value) {
+	}
+
+	@Override
+	public void setStatusCode(int statusCode) {
+	}
+
+	@Override
+	public void setProtocolName(String protocolName) {
+	}
+
+	@Override
+	public void setVendorMessageId(String vendorMessageId) {
+	}
+
+	@Override
+	public void setCorrelationId(String correlationId) {
+	}
+
+}
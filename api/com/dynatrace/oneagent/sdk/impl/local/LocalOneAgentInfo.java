@@ -0,0 +1,30 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
+
+/**
+ * {@link OneAgentInfo} of the {@link LocalOneAgentSDK}, which records without any agent.
+ */
+final class LocalOneAgentInfo implements OneAgentInfo {
+
+	static final LocalOneAgentInfo INSTANCE = new LocalOneAgentInfo();
+
+	private LocalOneAgentInfo() {
+	}
+
+	@Override
+	public boolean agentFound() {
+		return false;
+	}
+
+	@Override
+	public boolean agentCompatible() {
+		return false;
+	}
+
+	@Override
+	public String version() {
+		return null;
+	}
+
+}
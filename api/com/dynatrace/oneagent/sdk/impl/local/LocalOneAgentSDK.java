@@ -0,0 +1,618 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.ArrayDeque;
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.LoggingCallback;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.SDKStateListener;
+import com.dynatrace.oneagent.sdk.api.Sampler;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy;
+import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
+import com.dynatrace.oneagent.sdk.api.infos.TraceContextInfo;
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+import com.dynatrace.oneagent.sdk.impl.aggregation.DatabaseStatementKey;
+import com.dynatrace.oneagent.sdk.impl.attributes.PrimitiveCustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.impl.completion.AsynchronousTracerCompletion;
+import com.dynatrace.oneagent.sdk.impl.export.BatchingTracerExportPipeline;
+import com.dynatrace.oneagent.sdk.impl.governor.TracerBudgetGovernor;
+
+/**
+ * {@link OneAgentSDK} that records Tracers within the process, without any agent, and hands every ended recording
+ * Tracer to the exporter installed via {@link #setTracerExporter(TracerExporter, int, long, int)}. Intended for tests,
+ * benchmarks and applications that export traces themselves. The state is always {@link SDKState#ACTIVE}.
+ *
+ * <p>Trace context is propagated like with an agent: to child Tracers on the same thread, via {@link InProcessLink}s
+ * and via tags, which use the W3C 'traceparent' format (also as 'traceparent' header). Sampling decisions of the
+ * installed {@link Sampler} and budgets set via {@link #setTracerBudget(TracerType, int)} are applied. New traces
+ * started by outgoing, database and custom service Tracers are sampled by the trace* call, which returns a shared,
+ * stateless {@link LocalNotSampledTracer} for every Tracer of a trace that is not sampled. Incoming Tracers are sampled
+ * when started, as their tag is only known then.
+ *
+ * <p>Identical database requests and outgoing remote calls of a parent Tracer are merged, if enabled via
+ * {@link #setChildCallCompaction(int)}: the merged nodes are exported when the parent ends.
+ *
+ * <p>Database requests are aggregated per database and statement fingerprint, if enabled via
+ * {@link #setDatabaseRequestAggregation(long, int)}: a daemon thread exports one merged node per aggregate every flush
+ * interval, see {@link LocalDatabaseRequestAggregation}.
+ *
+ * <p>Recording Tracers are completed on a daemon thread, if enabled via
+ * {@link #setAsynchronousCompletion(int, CompletionOverflowPolicy)}: see {@link AsynchronousTracerCompletion}.
+ */
+public final class LocalOneAgentSDK implements OneAgentSDK {
+
+	/** maximum number of released attribute buffers kept per thread */
+	private static final int MAX_POOLED_BUFFERS = 16;
+
+	/** sampling decisions of {@link #sampleNewTrace(TracerType, String)} */
+	private static final int NOT_SAMPLED = 0;
+	private static final int SAMPLED = 1;
+	private static final int INHERITED = 2;
+
+	private final ThreadLocal<LocalTracer> activeTracer = new ThreadLocal<LocalTracer>();
+	private final ThreadLocal<NotSampledTrace> notSampledTrace = new ThreadLocal<NotSampledTrace>() {
+		@Override
+		protected NotSampledTrace initialValue() {
+			return new NotSampledTrace();
+		}
+	};
+	private final LocalNotSampledTracer notSampledTracer = new LocalNotSampledTracer(this);
+	private final ThreadLocal<ArrayDeque<AttributeBuffer>> attributeBufferPool = new ThreadLocal<ArrayDeque<AttributeBuffer>>() {
+		@Override
+		protected ArrayDeque<AttributeBuffer> initialValue() {
+			return new ArrayDeque<AttributeBuffer>(MAX_POOLED_BUFFERS);
+		}
+	};
+	private final TracerBudgetGovernor budgetGovernor = new TracerBudgetGovernor();
+
+	private volatile Sampler sampler;
+	/** see {@link #setChildCallCompaction(int)}, 0 if disabled */
+	private volatile int maxNodesPerParent;
+	/** see {@link #setDatabaseRequestAggregation(long, int)}, null if disabled. replaced under this */
+	private volatile LocalDatabaseRequestAggregation databaseRequestAggregation;
+	/** see {@link #setAsynchronousCompletion(int, CompletionOverflowPolicy)}, null if disabled. replaced under this */
+	private volatile AsynchronousTracerCompletion asynchronousCompletion;
+	/** overflows of replaced asynchronous completions, guarded by this */
+	private long previousOverflowCount;
+	private volatile LoggingCallback loggingCallback;
+	private volatile BatchingTracerExportPipeline exportPipeline;
+	/** Tracers dropped by replaced pipelines, guarded by this */
+	private long previouslyDroppedCount;
+
+	@Override
+	public WebApplicationInfo createWebApplicationInfo(String webServerName, String applicationID, String contextRoot) {
+		return new LocalWebApplicationInfo(applicationID);
+	}
+
+	@Override
+	public DatabaseInfo createDatabaseInfo(String name, String vendor, ChannelType channelType, String channelEndpoint) {
+		return new LocalDatabaseInfo(name);
+	}
+
+	@Override
+	public IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, String url, String method) {
+		return new LocalIncomingWebRequestTracer(this, applicationID(webApplicationInfo), url);
+	}
+
+	@Override
+	public IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, CharSequence scheme,
+			CharSequence host, int port, CharSequence path, CharSequence query, String method, boolean resolveHostname) {
+		return new LocalIncomingWebRequestTracer(this, applicationID(webApplicationInfo), url(scheme, host, port, path, query));
+	}
+
+	@Override
+	public OutgoingWebRequestTracer traceOutgoingWebRequest(String url, String method) {
+		int sampling = sampleNewTrace(TracerType.OUTGOING_WEB_REQUEST, null);
+		return sampling == NOT_SAMPLED ? notSampledTracer : decided(new LocalOutgoingWebRequestTracer(this, url), sampling);
+	}
+
+	@Override
+	public OutgoingWebRequestTracer traceOutgoingWebRequest(CharSequence scheme, CharSequence host, int port,
+			CharSequence path, CharSequence query, String method, boolean resolveHostname) {
+		int sampling = sampleNewTrace(TracerType.OUTGOING_WEB_REQUEST, null);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return decided(new LocalOutgoingWebRequestTracer(this, url(scheme, host, port, path, query)), sampling);
+	}
+
+	@Override
+	public DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseInfo databaseInfo, String statement) {
+		LocalDatabaseRequestAggregation aggregation = databaseRequestAggregation;
+		if (aggregation != null && databaseInfo instanceof LocalDatabaseInfo && statement != null) {
+			DatabaseRequestTracer aggregatedTracer = aggregation.trace(new DatabaseStatementKey(databaseInfo, statement));
+			if (aggregatedTracer != null) {
+				return aggregatedTracer;
+			}
+		}
+		int sampling = sampleNewTrace(TracerType.DATABASE_REQUEST, null);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return decided(new LocalDatabaseRequestTracer(this, databaseName(databaseInfo), statement), sampling);
+	}
+
+	@Override
+	public DatabaseStatementInfo createDatabaseStatementInfo(DatabaseInfo databaseInfo, String statement) {
+		return new LocalDatabaseStatementInfo(databaseInfo instanceof LocalDatabaseInfo ? (LocalDatabaseInfo) databaseInfo : null,
+				statement);
+	}
+
+	@Override
+	public DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseStatementInfo databaseStatementInfo) {
+		LocalDatabaseRequestAggregation aggregation = databaseRequestAggregation;
+		if (aggregation != null && databaseStatementInfo instanceof LocalDatabaseStatementInfo) {
+			DatabaseRequestTracer aggregatedTracer = aggregation
+					.trace(((LocalDatabaseStatementInfo) databaseStatementInfo).statementKey);
+			if (aggregatedTracer != null) {
+				return aggregatedTracer;
+			}
+		}
+		int sampling = sampleNewTrace(TracerType.DATABASE_REQUEST, null);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		if (!(databaseStatementInfo instanceof LocalDatabaseStatementInfo)) {
+			warn("DatabaseStatementInfo was not created by this SDK");
+			return decided(new LocalDatabaseRequestTracer(this, null, null), sampling);
+		}
+		LocalDatabaseStatementInfo statementInfo = (LocalDatabaseStatementInfo) databaseStatementInfo;
+		return decided(new LocalDatabaseRequestTracer(this, databaseName(statementInfo.databaseInfo), statementInfo.statement),
+				sampling);
+	}
+
+	@Override
+	public synchronized void setDatabaseRequestAggregation(long flushIntervalMillis, int maxAggregates) {
+		if (flushIntervalMillis < 0 || (flushIntervalMillis > 0 && maxAggregates <= 0)) {
+			warn("invalid database request aggregation settings ignored: flushIntervalMillis=" + flushIntervalMillis
+					+ ", maxAggregates=" + maxAggregates);
+			return;
+		}
+		LocalDatabaseRequestAggregation replaced = databaseRequestAggregation;
+		databaseRequestAggregation = flushIntervalMillis == 0 ? null
+				: new LocalDatabaseRequestAggregation(this, flushIntervalMillis, maxAggregates);
+		if (replaced != null) {
+			try {
+				replaced.stop();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	@Override
+	public void setChildCallCompaction(int maxNodesPerParent) {
+		if (maxNodesPerParent < 0) {
+			warn("negative maximum number of nodes per parent ignored: " + maxNodesPerParent);
+			return;
+		}
+		this.maxNodesPerParent = maxNodesPerParent;
+	}
+
+	@Override
+	public OutgoingRemoteCallTracer traceOutgoingRemoteCall(String serviceMethod, String serviceName, String serviceEndpoint,
+			ChannelType channelType, String channelEndpoint) {
+		int sampling = sampleNewTrace(TracerType.OUTGOING_REMOTE_CALL, serviceName);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return decided(new LocalOutgoingRemoteCallTracer(this, serviceMethod, serviceName, serviceEndpoint), sampling);
+	}
+
+	@Override
+	public IncomingRemoteCallTracer traceIncomingRemoteCall(String serviceMethod, String serviceName, String serviceEndpoint) {
+		return new LocalIncomingRemoteCallTracer(this, serviceMethod, serviceName);
+	}
+
+	@Override
+	public boolean hasActivePath() {
+		return activeTracer.get() != null || notSampledTrace.get().depth > 0;
+	}
+
+	@Override
+	public Object getActivePathToken() {
+		// Tracers are never reused, so the active Tracer identifies the node. Nodes of a trace that is not sampled are
+		// not recorded, so they share the token of their thread.
+		LocalTracer tracer = activeTracer.get();
+		if (tracer != null) {
+			return tracer;
+		}
+		NotSampledTrace trace = notSampledTrace.get();
+		return trace.depth > 0 ? trace : null;
+	}
+
+	@Override
+	public InProcessLink createInProcessLink() {
+		LocalTracer tracer = activeTracer.get();
+		if (tracer != null) {
+			return tracer.sampled ? new LocalInProcessLink(tracer) : LocalInProcessLink.NOT_SAMPLED;
+		}
+		return notSampledTrace.get().depth > 0 ? LocalInProcessLink.NOT_SAMPLED : LocalInProcessLink.EMPTY;
+	}
+
+	@Override
+	public InProcessLinkTracer traceInProcessLink(InProcessLink inProcessLink) {
+		if (!(inProcessLink instanceof LocalInProcessLink)) {
+			warn("InProcessLink was not created by this SDK");
+			return new LocalInProcessLinkTracer(this, LocalInProcessLink.EMPTY);
+		}
+		if (inProcessLink == LocalInProcessLink.NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return new LocalInProcessLinkTracer(this, (LocalInProcessLink) inProcessLink);
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+		LocalTracer serviceCall = activeServiceCall();
+		if (serviceCall != null) {
+			serviceCall.addCustomRequestAttribute(key, value);
+		}
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+		LocalTracer serviceCall = activeServiceCall();
+		if (serviceCall != null) {
+			serviceCall.addCustomRequestAttribute(key, value);
+		}
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+		LocalTracer serviceCall = activeServiceCall();
+		if (serviceCall != null) {
+			serviceCall.addCustomRequestAttribute(key, value);
+		}
+	}
+
+	@Override
+	public void addCustomRequestAttributeLazy(String key, Supplier<String> valueSupplier) {
+		LocalTracer serviceCall = activeServiceCall();
+		if (serviceCall != null && serviceCall.isRecording()) {
+			serviceCall.addCustomRequestAttribute(key, valueSupplier.get());
+		}
+	}
+
+	@Override
+	public CustomRequestAttributeKey createCustomRequestAttributeKey(String key) {
+		return new LocalCustomRequestAttributeKey(key);
+	}
+
+	@Override
+	public CustomRequestAttributeBatch createCustomRequestAttributeBatch() {
+		return new PrimitiveCustomRequestAttributeBatch();
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+		LocalTracer serviceCall = activeServiceCall();
+		if (serviceCall != null) {
+			serviceCall.addCustomRequestAttributes(batch);
+		} else {
+			batch.clear();
+		}
+	}
+
+	@Override
+	public MessagingSystemInfo createMessagingSystemInfo(String vendorName, String destinationName,
+			MessageDestinationType destinationType, ChannelType channelType, String channelEndpoint) {
+		return new LocalMessagingSystemInfo(vendorName, destinationName);
+	}
+
+	@Override
+	public OutgoingMessageTracer traceOutgoingMessage(MessagingSystemInfo messagingSystem) {
+		return traceOutgoingMessage(messagingSystem(messagingSystem), 1, false);
+	}
+
+	@Override
+	public OutgoingMessageTracer traceOutgoingMessageBatch(MessagingSystemInfo messagingSystem, int messageCount) {
+		return traceOutgoingMessage(messagingSystem(messagingSystem), messageCount, true);
+	}
+
+	@Override
+	public IncomingMessageReceiveTracer traceIncomingMessageReceive(MessagingSystemInfo messagingSystem) {
+		return new LocalIncomingMessageReceiveTracer(this, messagingSystem(messagingSystem));
+	}
+
+	@Override
+	public IncomingMessageProcessTracer traceIncomingMessageProcess(MessagingSystemInfo messagingSystem) {
+		return new LocalIncomingMessageProcessTracer(this, messagingSystem(messagingSystem));
+	}
+
+	@Override
+	public IncomingMessageBatchProcessTracer traceIncomingMessageBatchProcess(MessagingSystemInfo messagingSystem) {
+		return new LocalIncomingMessageBatchProcessTracer(this, messagingSystem(messagingSystem));
+	}
+
+	@Override
+	public CustomServiceTracer traceCustomService(String serviceMethod, String serviceName) {
+		int sampling = sampleNewTrace(TracerType.CUSTOM_SERVICE, serviceName);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return decided(new LocalCustomServiceTracer(this, serviceMethod, serviceName), sampling);
+	}
+
+	@Override
+	public SDKState getCurrentState() {
+		return SDKState.ACTIVE;
+	}
+
+	@Override
+	public void setSDKStateListener(SDKStateListener sdkStateListener) {
+		// state never changes, so there is nothing to notify about
+	}
+
+	@Override
+	public void setSampler(Sampler sampler) {
+		this.sampler = sampler;
+	}
+
+	@Override
+	public void setTracerBudget(TracerType tracerType, int tracersPerSecond) {
+		budgetGovernor.setBudget(tracerType, tracersPerSecond);
+	}
+
+	@Override
+	public long getUnrecordedTracerCount(TracerType tracerType) {
+		return budgetGovernor.getUnrecordedCount(tracerType);
+	}
+
+	@Override
+	public OneAgentInfo getAgentInfo() {
+		return LocalOneAgentInfo.INSTANCE;
+	}
+
+	@Override
+	public void setLoggingCallback(LoggingCallback loggingCallback) {
+		this.loggingCallback = loggingCallback;
+		BatchingTracerExportPipeline pipeline = exportPipeline;
+		if (pipeline != null) {
+			pipeline.setLoggingCallback(loggingCallback);
+		}
+		AsynchronousTracerCompletion completion = asynchronousCompletion;
+		if (completion != null) {
+			completion.setLoggingCallback(loggingCallback);
+		}
+	}
+
+	@Override
+	public synchronized void setAsynchronousCompletion(int queueCapacity, CompletionOverflowPolicy overflowPolicy) {
+		if (queueCapacity < 0 || (queueCapacity > 0 && overflowPolicy == null)) {
+			warn("invalid asynchronous completion settings ignored: queueCapacity=" + queueCapacity + ", overflowPolicy="
+					+ overflowPolicy);
+			return;
+		}
+		AsynchronousTracerCompletion replaced = asynchronousCompletion;
+		if (queueCapacity == 0) {
+			asynchronousCompletion = null;
+		} else {
+			AsynchronousTracerCompletion completion = new AsynchronousTracerCompletion(queueCapacity, overflowPolicy);
+			completion.setLoggingCallback(loggingCallback);
+			asynchronousCompletion = completion;
+		}
+		if (replaced != null) {
+			try {
+				// completes the Tracers ended before
+				replaced.shutdown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			previousOverflowCount += replaced.getOverflowCount();
+		}
+	}
+
+	@Override
+	public synchronized long getAsynchronousCompletionOverflowCount() {
+		AsynchronousTracerCompletion completion = asynchronousCompletion;
+		return previousOverflowCount + (completion == null ? 0 : completion.getOverflowCount());
+	}
+
+	@Override
+	public synchronized void setTracerExporter(TracerExporter tracerExporter, int maxBatchSize, long maxExportDelayMillis,
+			int maxQueueSize) {
+		BatchingTracerExportPipeline replaced = exportPipeline;
+		if (tracerExporter != null) {
+			BatchingTracerExportPipeline pipeline = new BatchingTracerExportPipeline(tracerExporter, maxBatchSize,
+					maxExportDelayMillis, maxQueueSize);
+			pipeline.setLoggingCallback(loggingCallback);
+			exportPipeline = pipeline;
+		} else {
+			exportPipeline = null;
+		}
+		if (replaced != null) {
+			try {
+				replaced.shutdown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			previouslyDroppedCount += replaced.getDroppedCount();
+		}
+	}
+
+	@Override
+	public synchronized long getDroppedTracerExportCount() {
+		BatchingTracerExportPipeline pipeline = exportPipeline;
+		return previouslyDroppedCount + (pipeline == null ? 0 : pipeline.getDroppedCount());
+	}
+
+	@Override
+	public TraceContextInfo getTraceContextInfo() {
+		LocalTracer tracer = activeTracer.get();
+		if (tracer != null) {
+			return new LocalTraceContextInfo(TraceParent.traceId(tracer.traceIdHigh, tracer.traceIdLow),
+					TraceParent.spanId(tracer.spanId));
+		}
+		NotSampledTrace trace = notSampledTrace.get();
+		if (trace.depth > 0) {
+			return new LocalTraceContextInfo(TraceParent.traceId(trace.traceIdHigh, trace.traceIdLow),
+					TraceParent.spanId(trace.spanId));
+		}
+		return LocalTraceContextInfo.INVALID;
+	}
+
+	LocalTracer getActiveTracer() {
+		return activeTracer.get();
+	}
+
+	void setActiveTracer(LocalTracer tracer) {
+		if (tracer == null) {
+			activeTracer.remove();
+		} else {
+			activeTracer.set(tracer);
+		}
+	}
+
+	/**
+	 * @return maximum number of merged child call nodes per parent Tracer, 0 if child call compaction is disabled.
+	 */
+	int getMaxNodesPerParent() {
+		return maxNodesPerParent;
+	}
+
+	NotSampledTrace getNotSampledTrace() {
+		return notSampledTrace.get();
+	}
+
+	BatchingTracerExportPipeline getExportPipeline() {
+		return exportPipeline;
+	}
+
+	/**
+	 * @return null if Tracers are completed synchronously.
+	 */
+	AsynchronousTracerCompletion getAsynchronousCompletion() {
+		return asynchronousCompletion;
+	}
+
+	/**
+	 * @return buffer from the pool of the calling thread, or a new one if the pool is empty.
+	 */
+	AttributeBuffer acquireAttributeBuffer() {
+		AttributeBuffer buffer = attributeBufferPool.get().poll();
+		return buffer == null ? new AttributeBuffer() : buffer;
+	}
+
+	/**
+	 * Clears the buffer of a released Tracer and puts it into the pool of the calling thread, unless the pool is full.
+	 */
+	void releaseAttributeBuffer(AttributeBuffer buffer) {
+		ArrayDeque<AttributeBuffer> pool = attributeBufferPool.get();
+		if (pool.size() < MAX_POOLED_BUFFERS) {
+			buffer.clear();
+			pool.push(buffer);
+		}
+	}
+
+	/**
+	 * Decides at the trace* call, whether a Tracer that is neither incoming nor linked is recorded: Tracers of a trace
+	 * that is not sampled, and new traces the sampler rejects, are represented by the shared {@link LocalNotSampledTracer}.
+	 *
+	 * @return {@link #NOT_SAMPLED}, {@link #SAMPLED} for a new trace the sampler accepted, or {@link #INHERITED} if a
+	 *         sampled Tracer is active, whose decision the new Tracer inherits when started.
+	 */
+	private int sampleNewTrace(TracerType tracerType, String serviceName) {
+		LocalTracer tracer = activeTracer.get();
+		if (tracer != null) {
+			return tracer.sampled ? INHERITED : NOT_SAMPLED;
+		}
+		if (notSampledTrace.get().depth > 0) {
+			return NOT_SAMPLED;
+		}
+		return sample(tracerType, serviceName) ? SAMPLED : NOT_SAMPLED;
+	}
+
+	private static <T extends LocalTracer> T decided(T tracer, int sampling) {
+		tracer.sampledRoot = sampling == SAMPLED;
+		return tracer;
+	}
+
+	private OutgoingMessageTracer traceOutgoingMessage(LocalMessagingSystemInfo messagingSystem, int messageCount,
+			boolean batch) {
+		int sampling = sampleNewTrace(TracerType.OUTGOING_MESSAGE, messagingSystem == null ? null : messagingSystem.destinationName);
+		if (sampling == NOT_SAMPLED) {
+			return notSampledTracer;
+		}
+		return decided(new LocalOutgoingMessageTracer(this, messagingSystem, messageCount, batch), sampling);
+	}
+
+	boolean sample(TracerType tracerType, String serviceName) {
+		Sampler currentSampler = sampler;
+		if (currentSampler == null) {
+			return true;
+		}
+		try {
+			return currentSampler.shouldSample(tracerType, serviceName);
+		} catch (RuntimeException e) {
+			warn("sampler failed, trace is recorded: " + e);
+			return true;
+		}
+	}
+
+	boolean tryRecord(TracerType tracerType) {
+		return budgetGovernor.tryRecord(tracerType);
+	}
+
+	void warn(String message) {
+		LoggingCallback callback = loggingCallback;
+		if (callback != null) {
+			callback.warn(message);
+		}
+	}
+
+	private LocalTracer activeServiceCall() {
+		LocalTracer tracer = activeTracer.get();
+		return tracer == null ? null : tracer.serviceCall;
+	}
+
+	private static String applicationID(WebApplicationInfo webApplicationInfo) {
+		return webApplicationInfo instanceof LocalWebApplicationInfo ? ((LocalWebApplicationInfo) webApplicationInfo).applicationID : null;
+	}
+
+	static String databaseName(DatabaseInfo databaseInfo) {
+		return databaseInfo instanceof LocalDatabaseInfo ? ((LocalDatabaseInfo) databaseInfo).name : null;
+	}
+
+	private static LocalMessagingSystemInfo messagingSystem(MessagingSystemInfo messagingSystemInfo) {
+		return messagingSystemInfo instanceof LocalMessagingSystemInfo ? (LocalMessagingSystemInfo) messagingSystemInfo : null;
+	}
+
+	private static String url(CharSequence scheme, CharSequence host, int port, CharSequence path, CharSequence query) {
+		StringBuilder sb = new StringBuilder();
+		if (scheme != null && host != null) {
+			sb.append(scheme).append("://").append(host);
+			if (port >= 0) {
+				sb.append(':').append(port);
+			}
+		}
+		sb.append(path);
+		if (query != null && query.length() > 0) {
+			sb.append('?').append(query);
+		}
+		return sb.toString();
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.util.BitSet;
+
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link OutgoingMessageTracer} of the {@link LocalOneAgentSDK}. Each message of a batch gets a Span-Id of its own,
+ * derived from the Span-Id of the batch Tracer and the message index, so no Tracer is created per message. The
+ * Span-Ids of all messages whose tags were requested are exported as linked to the batch Tracer, see
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer#getLinkedSpanIds()}.
+ */
+final class LocalOutgoingMessageTracer extends LocalMessageTracer implements OutgoingMessageTracer {
+
+	private final int messageCount;
+	private final boolean batch;
+	/** indices of the messages whose tags were requested, null until the first one */
+	private BitSet taggedMessages;
+
+	LocalOutgoingMessageTracer(LocalOneAgentSDK oneAgentSDK, LocalMessagingSystemInfo messagingSystemInfo, int messageCount,
+			boolean batch) {
+		super(oneAgentSDK, TracerType.OUTGOING_MESSAGE, messagingSystemInfo);
+		this.messageCount = messageCount;
+		this.batch = batch;
+	}
+
+	@Override
+	public String getDynatraceStringTag(int messageIndex) {
+		if (!checkMessageIndex(messageIndex)) {
+			return "";
+		}
+		if (!batch) {
+			return getDynatraceStringTag();
+		}
+		if (!isTaggable()) {
+			return "";
+		}
+		if (isRecording()) {
+			if (taggedMessages == null) {
+				taggedMessages = new BitSet(messageCount);
+			}
+			taggedMessages.set(messageIndex);
+		}
+		return TraceParent.format(traceIdHigh, traceIdLow, messageSpanId(messageIndex), sampled);
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier, int messageIndex) {
+		String stringTag = getDynatraceStringTag(messageIndex);
+		if (!stringTag.isEmpty()) {
+			headerSetter.setHeader(TraceParent.HEADER_NAME, stringTag, carrier);
+		}
+	}
+
+	@Override
+	long[] getLinkedSpanIds() {
+		if (taggedMessages == null) {
+			return null;
+		}
+		long[] spanIds = new long[taggedMessages.cardinality()];
+		int messageIndex = taggedMessages.nextSetBit(0);
+		for (int i = 0; i < spanIds.length; i++) {
+			spanIds[i] = messageSpanId(messageIndex);
+			messageIndex = taggedMessages.nextSetBit(messageIndex + 1);
+		}
+		return spanIds;
+	}
+
+	private long messageSpanId(int messageIndex) {
+		return TraceParent.derivedId(spanId, messageIndex + 1L);
+	}
+
+	private boolean checkMessageIndex(int messageIndex) {
+		if (messageIndex < 0 || messageIndex >= messageCount) {
+			oneAgentSDK.warn(TracerType.OUTGOING_MESSAGE + ": message index " + messageIndex + " out of range, batch has "
+					+ messageCount + " messages");
+			return false;
+		}
+		return true;
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link OutgoingRemoteCallTracer} of the {@link LocalOneAgentSDK}. The protocol name is not part of a
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+final class LocalOutgoingRemoteCallTracer extends LocalTracer implements OutgoingRemoteCallTracer {
+
+	private final String serviceMethod;
+	private final String serviceName;
+	private final String serviceEndpoint;
+
+	LocalOutgoingRemoteCallTracer(LocalOneAgentSDK oneAgentSDK, String serviceMethod, String serviceName,
+			String serviceEndpoint) {
+		super(oneAgentSDK, TracerType.OUTGOING_REMOTE_CALL);
+		this.serviceMethod = serviceMethod;
+		this.serviceName = serviceName;
+		this.serviceEndpoint = serviceEndpoint;
+	}
+
+	@Override
+	String getName() {
+		return serviceMethod;
+	}
+
+	@Override
+	String getServiceName() {
+		return serviceName;
+	}
+
+	@Override
+	LocalChildCallTarget getChildCallTarget() {
+		return new LocalChildCallTarget(TracerType.OUTGOING_REMOTE_CALL, serviceName, serviceEndpoint);
+	}
+
+	@Override
+	public void setProtocolName(String protocolName) {
+	}
+
+}
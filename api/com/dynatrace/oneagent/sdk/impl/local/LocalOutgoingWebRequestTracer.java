@@ -0,0 +1,41 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * {@link OutgoingWebRequestTracer} of the {@link LocalOneAgentSDK}. Headers and status code are not part of a
+ * {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer} and therefore not captured.
+ */
+final class LocalOutgoingWebRequestTracer extends LocalTracer implements OutgoingWebRequestTracer {
+
+	private final String url;
+
+	LocalOutgoingWebRequestTracer(LocalOneAgentSDK oneAgentSDK, String url) {
+		super(oneAgentSDK, TracerType.OUTGOING_WEB_REQUEST);
+		this.url = url;
+	}
+
+	@Override
+	String getName() {
+		return url;
+	}
+
+	@Override
+	String getServiceName() {
+		return null;
+	}
+
+	@Override
+	public void addRequestHeader(String name, String value) {
+	}
+
+	@Override
+	public void addResponseHeader(String name, String value) {
+	}
+
+	@Override
+	public void setStatusCode(int statusCode) {
+	}
+
+}
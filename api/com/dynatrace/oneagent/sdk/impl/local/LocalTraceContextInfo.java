@@ -0,0 +1,35 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.TraceContextInfo;
+
+/**
+ * {@link TraceContextInfo} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalTraceContextInfo implements TraceContextInfo {
+
+	static final LocalTraceContextInfo INVALID = new LocalTraceContextInfo(INVALID_TRACE_ID, INVALID_SPAN_ID);
+
+	private final String traceId;
+	private final String spanId;
+
+	LocalTraceContextInfo(String traceId, String spanId) {
+		this.traceId = traceId;
+		this.spanId = spanId;
+	}
+
+	@Override
+	public boolean isValid() {
+		return this != INVALID;
+	}
+
+	@Override
+	public String getTraceId() {
+		return traceId;
+	}
+
+	@Override
+	public String getSpanId() {
+		return spanId;
+	}
+
+}
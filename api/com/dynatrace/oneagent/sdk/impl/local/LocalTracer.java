@@ -0,0 +1,565 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributable;
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.IncomingTaggable;
+import com.dynatrace.oneagent.sdk.api.OutgoingTaggable;
+import com.dynatrace.oneagent.sdk.api.Tracer;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.impl.attributes.PrimitiveCustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.impl.compaction.ChildCallCompactor;
+import com.dynatrace.oneagent.sdk.impl.completion.AsynchronousTracerCompletion;
+import com.dynatrace.oneagent.sdk.impl.completion.Completable;
+import com.dynatrace.oneagent.sdk.impl.export.BatchingTracerExportPipeline;
+
+/**
+ * Common base of all Tracers of the {@link LocalOneAgentSDK}. Holds the methods of {@link IncomingTaggable},
+ * {@link OutgoingTaggable} and {@link CustomRequestAttributable}, so that every Tracer type only has to declare the
+ * interfaces it supports.
+ *
+ * <p>When started, a Tracer takes its trace context from the incoming tag, the {@link LocalInProcessLink}, the Tracer
+ * active on the calling thread or the {@link NotSampledTrace} of the thread, in this order. Without any of them it
+ * starts a new trace. Whether the new trace is sampled is usually decided by the trace* call already, which returns a
+ * {@link LocalNotSampledTracer} instead of a LocalTracer, if not. A started Tracer is in one of three modes:
+ * <ul>
+ * <li>recording: becomes the active Tracer of the thread and is exported when it ends.</li>
+ * <li>not sampled: only Tracers with an incoming tag and Tracers created before their trace was decided. Becomes the
+ * active Tracer of the thread, so that the sampling decision propagates to children and tags, but is not exported.</li>
+ * <li>inactive: over the budget of its type, or linked to an empty {@link LocalInProcessLink}. Does not become
+ * active and returns empty tags.</li>
+ * </ul>
+ *
+ * <p>With child call compaction, a recording database request or outgoing remote call is merged into the node of
+ * identical calls of its parent instead: it has the Span-Id of that node, and the parent exports all nodes when it
+ * ends. Calls beyond the maximum number of nodes per parent are inactive and only counted on the parent.
+ *
+ * <p>Except for the custom request attribute methods, a Tracer must only be used by the thread that created it.
+ * {@link #release()} hands the attribute buffer back to the pool of the SDK and leaves the Tracer released for good,
+ * so that later calls via a stale reference are detected instead of writing into a buffer reused by another Tracer.
+ *
+ * <p>In asynchronous completion mode, {@link #end()} only takes the duration and restores the active Tracer of the
+ * thread; capturing the attributes and exporting are done by {@link #complete()}, on the completion thread.
+ */
+abstract class LocalTracer implements Tracer, TraceParent.Target, Completable {
+
+	private static final byte[] EMPTY_TAG = new byte[0];
+
+	private static final int CREATED = 0;
+	private static final int STARTED = 1;
+	private static final int ENDED = 2;
+	private static final int RELEASED = 3;
+
+	final LocalOneAgentSDK oneAgentSDK;
+	private final TracerType type;
+	private volatile int state = CREATED;
+
+	/** whether an incoming tag was set before start, its trace context is kept in the ids below */
+	private boolean remoteParent;
+
+	/** whether the trace* call already sampled this Tracer as root of a new trace */
+	boolean sampledRoot;
+	private boolean recording;
+	private boolean active;
+	private LocalTracer previous;
+	/** Tracer of the service call custom request attributes of the SDK are added to, null if there is none */
+	LocalTracer serviceCall;
+	long traceIdHigh;
+	long traceIdLow;
+	long spanId;
+	private long parentSpanId;
+	boolean sampled;
+	private String tag;
+
+	private long startTimeMillis;
+	private long startNanos;
+	/** set when ended, guarded by this */
+	private long durationNanos;
+	/** whether this Tracer was ended in asynchronous completion mode and is not completed yet, guarded by this */
+	private boolean completionPending;
+	private String errorMessage;
+	/** taken from the pool of the SDK on first use, guarded by this */
+	private AttributeBuffer attributes;
+
+	/** parent holding the node this Tracer is merged into, null if it is not merged */
+	private LocalTracer compactedInto;
+	private int childCallNode;
+	/** nodes of merged child calls, created on the first child call that can be merged */
+	private ChildCallCompactor childCalls;
+
+	LocalTracer(LocalOneAgentSDK oneAgentSDK, TracerType type) {
+		this.oneAgentSDK = oneAgentSDK;
+		this.type = type;
+	}
+
+	/**
+	 * @return name of the traced operation, see {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer#getName()}.
+	 */
+	abstract String getName();
+
+	/**
+	 * @return see {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer#getServiceName()}.
+	 */
+	abstract String getServiceName();
+
+	/**
+	 * @return name passed to {@link com.dynatrace.oneagent.sdk.api.Sampler#shouldSample(TracerType, String)}.
+	 */
+	String getSamplingName() {
+		return getServiceName();
+	}
+
+	/**
+	 * @param activeTracer	Tracer active on the calling thread, may be null.
+	 * @return local parent of this Tracer, may be null.
+	 */
+	LocalTracer getLocalParent(LocalTracer activeTracer) {
+		return activeTracer;
+	}
+
+	/**
+	 * @return whether this Tracer starts a new trace, if it has no parent.
+	 */
+	boolean mayStartTrace() {
+		return true;
+	}
+
+	@Override
+	public void start() {
+		if (state != CREATED) {
+			warnMisuse("start()", " called more than once");
+			return;
+		}
+		LocalTracer activeTracer = oneAgentSDK.getActiveTracer();
+		LocalTracer parent = getLocalParent(activeTracer);
+		// with an incoming tag, ids and sampling decision were already set via setTraceParent
+		if (!remoteParent) {
+			NotSampledTrace notSampledTrace;
+			if (parent != null) {
+				traceIdHigh = parent.traceIdHigh;
+				traceIdLow = parent.traceIdLow;
+				parentSpanId = parent.spanId;
+				sampled = parent.sampled;
+				serviceCall = parent.serviceCall;
+			} else if ((notSampledTrace = oneAgentSDK.getNotSampledTrace()).depth > 0) {
+				traceIdHigh = notSampledTrace.traceIdHigh;
+				traceIdLow = notSampledTrace.traceIdLow;
+				parentSpanId = notSampledTrace.spanId;
+				sampled = false;
+			} else if (mayStartTrace()) {
+				traceIdHigh = TraceParent.randomId();
+				traceIdLow = TraceParent.randomId();
+				sampled = sampledRoot || oneAgentSDK.sample(type, getSamplingName());
+			} else {
+				state = STARTED;
+				return;
+			}
+		}
+		if (sampled && !oneAgentSDK.tryRecord(type)) {
+			state = STARTED;
+			return;
+		}
+		startTimeMillis = System.currentTimeMillis();
+		if (sampled && parent != null && !compactInto(parent)) {
+			// only counted on the parent
+			state = STARTED;
+			return;
+		}
+		recording = sampled;
+		active = true;
+		if (compactedInto == null) {
+			spanId = TraceParent.randomId();
+		}
+		if (this instanceof CustomRequestAttributable) {
+			serviceCall = this;
+		}
+		previous = activeTracer;
+		oneAgentSDK.setActiveTracer(this);
+		startNanos = System.nanoTime();
+		state = STARTED;
+	}
+
+	@Override
+	public void error(String message) {
+		if (state != STARTED) {
+			warnMisuse("error()", " called on a Tracer that is not started or already ended");
+			return;
+		}
+		if (errorMessage != null) {
+			oneAgentSDK.warn(type + ": error() called more than once");
+		}
+		errorMessage = message;
+	}
+
+	@Override
+	public void end() {
+		if (state != STARTED) {
+			warnMisuse("end()", state == CREATED ? " called on a Tracer that was not started" : " called more than once");
+			return;
+		}
+		long durationNanos = System.nanoTime() - startNanos;
+		if (active) {
+			if (oneAgentSDK.getActiveTracer() == this) {
+				oneAgentSDK.setActiveTracer(previous);
+			} else {
+				oneAgentSDK.warn(type + ": end() called while a Tracer started after this one is still active");
+			}
+		}
+		if (compactedInto != null) {
+			synchronized (this) {
+				state = ENDED;
+			}
+			compactedInto.childCalls.record(childCallNode, durationNanos, errorMessage != null);
+			return;
+		}
+		BatchingTracerExportPipeline pipeline = recording ? oneAgentSDK.getExportPipeline() : null;
+		AsynchronousTracerCompletion completion = pipeline == null ? null : oneAgentSDK.getAsynchronousCompletion();
+		LocalFinishedTracer finishedTracer = null;
+		synchronized (this) {
+			state = ENDED;
+			this.durationNanos = durationNanos;
+			if (completion != null) {
+				completionPending = true;
+			} else if (pipeline != null) {
+				finishedTracer = finish();
+			}
+		}
+		if (completion != null) {
+			completion.submit(this);
+		} else if (finishedTracer != null) {
+			offer(pipeline, finishedTracer);
+		}
+	}
+
+	/**
+	 * Exports this Tracer on the completion thread, if it was ended in asynchronous completion mode. A Tracer released
+	 * before it was completed keeps its attribute buffer until then, and the buffer is not pooled.
+	 */
+	@Override
+	public void complete() {
+		BatchingTracerExportPipeline pipeline = oneAgentSDK.getExportPipeline();
+		LocalFinishedTracer finishedTracer;
+		synchronized (this) {
+			finishedTracer = pipeline == null ? null : finish();
+			completionPending = false;
+			if (state == RELEASED) {
+				attributes = null;
+			}
+		}
+		if (finishedTracer != null) {
+			offer(pipeline, finishedTracer);
+		}
+	}
+
+	/**
+	 * Captures the ended Tracer. Must be called holding the lock of this Tracer.
+	 */
+	private LocalFinishedTracer finish() {
+		return new LocalFinishedTracer(type, getName(), getServiceName(), startTimeMillis, durationNanos, errorMessage,
+				traceIdHigh, traceIdLow, spanId, parentSpanId,
+				attributes == null ? Collections.<String, Object>emptyMap() : attributes.toMap(), getLinkedSpanIds(),
+				childCalls == null ? 0 : childCalls.getDroppedCount());
+	}
+
+	private void offer(BatchingTracerExportPipeline pipeline, LocalFinishedTracer finishedTracer) {
+		pipeline.offer(finishedTracer);
+		if (childCalls != null) {
+			offerChildCalls(pipeline);
+		}
+	}
+
+	/**
+	 * Merges this Tracer into the node of identical child calls of the parent, if child call compaction is enabled and
+	 * this Tracer has a {@link #getChildCallTarget()}. A merged Tracer has the Span-Id of its node and is not exported
+	 * itself.
+	 *
+	 * @param parent	parent Tracer, this Tracer is sampled
+	 * @return false if this call is dropped, as the parent already holds the maximum number of nodes.
+	 */
+	private boolean compactInto(LocalTracer parent) {
+		int maxNodesPerParent = oneAgentSDK.getMaxNodesPerParent();
+		LocalChildCallTarget target;
+		if (maxNodesPerParent == 0 || !parent.recording || (target = getChildCallTarget()) == null) {
+			return true;
+		}
+		if (parent.childCalls == null) {
+			parent.childCalls = new ChildCallCompactor(maxNodesPerParent);
+		}
+		String name = getName();
+		childCallNode = parent.childCalls.node(target, name == null ? "" : name, startTimeMillis);
+		if (childCallNode < 0) {
+			return false;
+		}
+		compactedInto = parent;
+		spanId = childCallSpanId(parent.spanId, childCallNode);
+		return true;
+	}
+
+	/**
+	 * Exports the nodes of merged child calls, once this Tracer ended.
+	 */
+	private void offerChildCalls(BatchingTracerExportPipeline pipeline) {
+		for (int node = 0; node < childCalls.size(); node++) {
+			if (childCalls.getCount(node) > 0) {
+				LocalChildCallTarget target = (LocalChildCallTarget) childCalls.getTarget(node);
+				pipeline.offer(new LocalFinishedTracer(target.type, childCalls.getOperation(node), target.serviceName,
+						childCalls.getStartTimeMillis(node), childCalls.getTotalDurationNanos(node), traceIdHigh, traceIdLow,
+						childCallSpanId(spanId, node), spanId, childCalls.getCount(node), childCalls.getMaxDurationNanos(node),
+						childCalls.getErrorCount(node)));
+			}
+		}
+	}
+
+	/**
+	 * @return Span-Id of a node of merged child calls. Never equal to a Span-Id derived for the messages of a batch.
+	 */
+	private static long childCallSpanId(long parentSpanId, int node) {
+		return TraceParent.derivedId(parentSpanId, -(node + 1L));
+	}
+
+	@Override
+	public void release() {
+		if (state != ENDED) {
+			warnMisuse("release()", " called before end()");
+			return;
+		}
+		AttributeBuffer buffer;
+		synchronized (this) {
+			state = RELEASED;
+			if (completionPending) {
+				// still read by the completion thread
+				buffer = null;
+			} else {
+				buffer = attributes;
+				attributes = null;
+			}
+		}
+		if (buffer != null) {
+			oneAgentSDK.releaseAttributeBuffer(buffer);
+		}
+	}
+
+	// IncomingTaggable
+
+	public void setDynatraceStringTag(String tag) {
+		if (state != CREATED) {
+			warnMisuse("tag", " set after the Tracer was started, ignored");
+			return;
+		}
+		if (tag == null || tag.isEmpty()) {
+			remoteParent = false;
+			return;
+		}
+		remoteParent = TraceParent.parse(tag, this);
+		if (!remoteParent) {
+			oneAgentSDK.warn(type + ": invalid tag ignored: " + tag);
+		}
+	}
+
+	public void setDynatraceByteTag(byte[] tag) {
+		setDynatraceByteTag(tag == null ? null : ByteBuffer.wrap(tag), 0, tag == null ? 0 : tag.length);
+	}
+
+	public void setDynatraceByteTag(ByteBuffer tag, int offset, int length) {
+		if (state != CREATED) {
+			warnMisuse("tag", " set after the Tracer was started, ignored");
+			return;
+		}
+		if (tag == null || length == 0) {
+			remoteParent = false;
+			return;
+		}
+		remoteParent = TraceParent.parse(tag, offset, length, this);
+		if (!remoteParent) {
+			oneAgentSDK.warn(type + ": invalid tag of " + length + " bytes ignored");
+		}
+	}
+
+	public <Carrier> void extractTracingHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+		if (state != CREATED) {
+			warnMisuse("tracing headers", " extracted after the Tracer was started, ignored");
+			return;
+		}
+		CharSequence value = headerGetter.getHeader(TraceParent.HEADER_NAME, carrier);
+		remoteParent = TraceParent.parse(value, this);
+		if (!remoteParent && value != null) {
+			oneAgentSDK.warn(type + ": invalid " + TraceParent.HEADER_NAME + " header ignored: " + value);
+		}
+	}
+
+	/**
+	 * Takes the trace context of a valid incoming tag, see {@link TraceParent#parse(CharSequence, TraceParent.Target)}.
+	 */
+	@Override
+	public void setTraceParent(long traceIdHigh, long traceIdLow, long spanId, boolean sampled) {
+		this.traceIdHigh = traceIdHigh;
+		this.traceIdLow = traceIdLow;
+		this.parentSpanId = spanId;
+		this.sampled = sampled;
+	}
+
+	// OutgoingTaggable
+
+	public String getDynatraceStringTag() {
+		if (!isTaggable()) {
+			return "";
+		}
+		if (tag == null) {
+			tag = TraceParent.format(traceIdHigh, traceIdLow, spanId, sampled);
+		}
+		return tag;
+	}
+
+	public byte[] getDynatraceByteTag() {
+		String stringTag = getDynatraceStringTag();
+		return stringTag.isEmpty() ? EMPTY_TAG : stringTag.getBytes(StandardCharsets.US_ASCII);
+	}
+
+	public int getDynatraceByteTag(ByteBuffer target) {
+		String stringTag = getDynatraceStringTag();
+		int length = stringTag.length();
+		if (length > target.remaining()) {
+			return -length;
+		}
+		for (int i = 0; i < length; i++) {
+			target.put((byte) stringTag.charAt(i));
+		}
+		return length;
+	}
+
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier) {
+		String stringTag = getDynatraceStringTag();
+		if (!stringTag.isEmpty()) {
+			headerSetter.setHeader(TraceParent.HEADER_NAME, stringTag, carrier);
+		}
+	}
+
+	// CustomRequestAttributable
+
+	public void addCustomRequestAttribute(String key, String value) {
+		addAttribute(key, AttributeBuffer.STRING, 0, value);
+	}
+
+	public void addCustomRequestAttribute(String key, long value) {
+		addAttribute(key, AttributeBuffer.LONG, value, null);
+	}
+
+	public void addCustomRequestAttribute(String key, double value) {
+		addAttribute(key, AttributeBuffer.DOUBLE, Double.doubleToRawLongBits(value), null);
+	}
+
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+		if (!(batch instanceof PrimitiveCustomRequestAttributeBatch)) {
+			oneAgentSDK.warn(type + ": batch was not created by this SDK, ignored");
+			return;
+		}
+		PrimitiveCustomRequestAttributeBatch primitiveBatch = (PrimitiveCustomRequestAttributeBatch) batch;
+		if (!hasLocalKeys(primitiveBatch)) {
+			oneAgentSDK.warn(type + ": batch with keys not created by this SDK ignored");
+			primitiveBatch.clear();
+			return;
+		}
+		boolean ended;
+		synchronized (this) {
+			ended = state >= ENDED;
+			if (!ended && (state == CREATED || recording)) {
+				if (attributes == null) {
+					attributes = oneAgentSDK.acquireAttributeBuffer();
+				}
+				attributes.addAll(primitiveBatch);
+			}
+		}
+		primitiveBatch.clear();
+		if (ended) {
+			warnMisuse("batch of custom request attributes", " added after the Tracer was ended, ignored");
+		}
+	}
+
+	/**
+	 * @return whether outgoing tags can be created: the Tracer is started, not ended and active. Reports calls in any
+	 *         other state than inactive.
+	 */
+	final boolean isTaggable() {
+		if (state != STARTED) {
+			warnMisuse("tag", " requested from a Tracer that is not started or already ended");
+			return false;
+		}
+		return active;
+	}
+
+	/**
+	 * @return target of this Tracer as a child call, if identical child calls of one parent can be merged (see
+	 *         {@link com.dynatrace.oneagent.sdk.api.OneAgentSDK#setChildCallCompaction(int)}), null otherwise.
+	 */
+	LocalChildCallTarget getChildCallTarget() {
+		return null;
+	}
+
+	/**
+	 * @return Span-Ids of nodes linked to this Tracer, see
+	 *         {@link com.dynatrace.oneagent.sdk.api.export.FinishedTracer#getLinkedSpanIds()}. null if there are none.
+	 *         Called once, when a recording Tracer ends.
+	 */
+	long[] getLinkedSpanIds() {
+		return null;
+	}
+
+	/**
+	 * @return whether this Tracer was started as part of a sampled trace within budget.
+	 */
+	boolean isRecording() {
+		return recording;
+	}
+
+	/**
+	 * Reports a call that is not allowed in the current state. Calls on a released Tracer are reported as such.
+	 */
+	private void warnMisuse(String call, String problem) {
+		oneAgentSDK.warn(type + ": " + call + (state == RELEASED ? " used after the Tracer was released, ignored" : problem));
+	}
+
+	private static boolean hasLocalKeys(PrimitiveCustomRequestAttributeBatch batch) {
+		for (int i = 0; i < batch.getLongCount(); i++) {
+			if (!(batch.getLongKey(i) instanceof LocalCustomRequestAttributeKey)) {
+				return false;
+			}
+		}
+		for (int i = 0; i < batch.getDoubleCount(); i++) {
+			if (!(batch.getDoubleKey(i) instanceof LocalCustomRequestAttributeKey)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Adds a custom request attribute to this service call. Can be called from any thread.
+	 *
+	 * @see AttributeBuffer#add(String, byte, long, String)
+	 */
+	final void addAttribute(String key, byte valueType, long number, String string) {
+		if (key == null || (valueType == AttributeBuffer.STRING && string == null)) {
+			oneAgentSDK.warn(type + ": custom request attribute without key or value ignored");
+			return;
+		}
+		boolean ended;
+		synchronized (this) {
+			ended = state >= ENDED;
+			if (!ended && (state == CREATED || recording)) {
+				if (attributes == null) {
+					attributes = oneAgentSDK.acquireAttributeBuffer();
+				}
+				attributes.add(key, valueType, number, string);
+			}
+		}
+		if (ended) {
+			warnMisuse("custom request attribute '" + key + "'", " added after the Tracer was ended, ignored");
+		}
+	}
+
+}
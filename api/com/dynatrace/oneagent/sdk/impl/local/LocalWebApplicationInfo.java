@@ -0,0 +1,16 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+
+/**
+ * {@link WebApplicationInfo} of the {@link LocalOneAgentSDK}.
+ */
+final class LocalWebApplicationInfo implements WebApplicationInfo {
+
+	final String applicationID;
+
+	LocalWebApplicationInfo(String applicationID) {
+		this.applicationID = applicationID;
+	}
+
+}
@@ -0,0 +1,48 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+/**
+ * Per-thread state of a trace that is not sampled, while no Tracer object is active on the thread: the number of
+ * started {@link LocalNotSampledTracer} calls and the trace context to propagate via tags. One instance per thread,
+ * reused for every trace, so that not sampled traces do not allocate.
+ */
+final class NotSampledTrace {
+
+	/** number of started, not yet ended {@link LocalNotSampledTracer} calls on this thread */
+	int depth;
+	long traceIdHigh;
+	long traceIdLow;
+	long spanId;
+	/** tag of the current trace, formatted on first request */
+	private String tag;
+
+	/**
+	 * Starts a new trace context on this thread, if none is active.
+	 */
+	void enter() {
+		if (depth++ == 0) {
+			traceIdHigh = TraceParent.randomId();
+			traceIdLow = TraceParent.randomId();
+			spanId = TraceParent.randomId();
+			tag = null;
+		}
+	}
+
+	/**
+	 * @return whether a not sampled trace was active.
+	 */
+	boolean exit() {
+		if (depth == 0) {
+			return false;
+		}
+		depth--;
+		return true;
+	}
+
+	String getTag() {
+		if (tag == null) {
+			tag = TraceParent.format(traceIdHigh, traceIdLow, spanId, false);
+		}
+		return tag;
+	}
+
+}
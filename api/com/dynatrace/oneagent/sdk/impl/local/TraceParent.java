@@ -0,0 +1,163 @@
+package com.dynatrace.oneagent.sdk.impl.local;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Trace context passed between Tracers, encoded as W3C 'traceparent' header value
+ * ({@code 00-<trace-id>-<parent-id>-<flags>}), which is also used as string tag. Parsing allocates nothing: the
+ * fields are handed to a {@link Target}.
+ */
+final class TraceParent {
+
+	static final String HEADER_NAME = "traceparent";
+
+	private static final int LENGTH = 55;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Receives the fields of a parsed 'traceparent', so that parsing needs no result object.
+	 */
+	interface Target {
+
+		void setTraceParent(long traceIdHigh, long traceIdLow, long spanId, boolean sampled);
+
+	}
+
+	private TraceParent() {
+	}
+
+	/**
+	 * @return random id, never 0 (which is invalid for trace and span ids).
+	 */
+	static long randomId() {
+		long id;
+		do {
+			id = ThreadLocalRandom.current().nextLong();
+		} while (id == 0);
+		return id;
+	}
+
+	/**
+	 * @return id derived from the given span id and salt, never 0. Different salts give different ids with the same
+	 *         probability as random ids do.
+	 */
+	static long derivedId(long spanId, long salt) {
+		// finalizer of SplitMix64
+		long id = spanId + salt * 0x9E3779B97F4A7C15L;
+		id = (id ^ (id >>> 30)) * 0xBF58476D1CE4E5B9L;
+		id = (id ^ (id >>> 27)) * 0x94D049BB133111EBL;
+		id ^= id >>> 31;
+		return id == 0 ? 1 : id;
+	}
+
+	static String format(long traceIdHigh, long traceIdLow, long spanId, boolean sampled) {
+		StringBuilder sb = new StringBuilder(LENGTH);
+		sb.append("00-");
+		appendHex(sb, traceIdHigh);
+		appendHex(sb, traceIdLow);
+		sb.append('-');
+		appendHex(sb, spanId);
+		sb.append(sampled ? "-01" : "-00");
+		return sb.toString();
+	}
+
+	static String traceId(long traceIdHigh, long traceIdLow) {
+		StringBuilder sb = new StringBuilder(32);
+		appendHex(sb, traceIdHigh);
+		appendHex(sb, traceIdLow);
+		return sb.toString();
+	}
+
+	static String spanId(long spanId) {
+		StringBuilder sb = new StringBuilder(16);
+		appendHex(sb, spanId);
+		return sb.toString();
+	}
+
+	/**
+	 * @param value		header value or string tag. may be null.
+	 * @param target	receives the parsed fields, if the value is valid. may be null, to only validate the value.
+	 * @return whether the value is a valid 'traceparent' of version 00.
+	 */
+	static boolean parse(CharSequence value, Target target) {
+		return value != null && parse(value, null, 0, value.length(), target);
+	}
+
+	/**
+	 * Same as {@link #parse(CharSequence, Target)}, but reads the ASCII bytes of the value directly from a buffer, with
+	 * absolute reads, so neither a copy of the bytes nor a String is created.
+	 *
+	 * @param buffer	buffer holding the value. position and limit are not changed.
+	 * @param offset	absolute index of the first byte of the value.
+	 * @param length	number of bytes of the value.
+	 */
+	static boolean parse(ByteBuffer buffer, int offset, int length, Target target) {
+		return parse(null, buffer, offset, length, target);
+	}
+
+	/**
+	 * Reads the value either from chars or from buffer, whichever is not null.
+	 */
+	private static boolean parse(CharSequence chars, ByteBuffer buffer, int offset, int length, Target target) {
+		if (length != LENGTH || charAt(chars, buffer, offset, 0) != '0' || charAt(chars, buffer, offset, 1) != '0'
+				|| charAt(chars, buffer, offset, 2) != '-' || charAt(chars, buffer, offset, 35) != '-'
+				|| charAt(chars, buffer, offset, 52) != '-') {
+			return false;
+		}
+		long traceIdHigh = 0;
+		long traceIdLow = 0;
+		long spanId = 0;
+		int flags = 0;
+		for (int i = 3; i < LENGTH; i++) {
+			if (i == 35 || i == 52) {
+				continue;
+			}
+			int digit = hexDigit(charAt(chars, buffer, offset, i));
+			if (digit < 0) {
+				return false;
+			}
+			if (i < 19) {
+				traceIdHigh = traceIdHigh << 4 | digit;
+			} else if (i < 35) {
+				traceIdLow = traceIdLow << 4 | digit;
+			} else if (i < 52) {
+				spanId = spanId << 4 | digit;
+			} else {
+				flags = flags << 4 | digit;
+			}
+		}
+		if ((traceIdHigh == 0 && traceIdLow == 0) || spanId == 0) {
+			return false;
+		}
+		if (target != null) {
+			target.setTraceParent(traceIdHigh, traceIdLow, spanId, (flags & 1) != 0);
+		}
+		return true;
+	}
+
+	private static int charAt(CharSequence chars, ByteBuffer buffer, int offset, int index) {
+		return chars != null ? chars.charAt(index) : buffer.get(offset + index) & 0xFF;
+	}
+
+	/**
+	 * @return value of a lowercase hex digit, -1 for any other character. Unlike {@link Character#digit(char, int)},
+	 *         only the ASCII characters [0-9a-f] are accepted, as required by W3C Trace Context.
+	 */
+	private static int hexDigit(int c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		return -1;
+	}
+
+	private static void appendHex(StringBuilder sb, long value) {
+		for (int shift = 60; shift >= 0; shift -= 4) {
+			sb.append(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+		}
+	}
+
+}
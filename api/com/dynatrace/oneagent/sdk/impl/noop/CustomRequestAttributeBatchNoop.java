@@ -0,0 +1,28 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+
+/**
+ * Stateless {@link CustomRequestAttributeBatch} returned while no agent is present. Attributes are dropped right away.
+ */
+final class CustomRequestAttributeBatchNoop implements CustomRequestAttributeBatch {
+
+	static final CustomRequestAttributeBatchNoop INSTANCE = new CustomRequestAttributeBatchNoop();
+
+	private CustomRequestAttributeBatchNoop() {
+	}
+
+	@Override
+	public void add(CustomRequestAttributeKey key, long value) {
+	}
+
+	@Override
+	public void add(CustomRequestAttributeKey key, double value) {
+	}
+
+	@Override
+	public void clear() {
+	}
+
+}
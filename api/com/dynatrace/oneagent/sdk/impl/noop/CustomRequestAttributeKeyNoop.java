@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+
+/**
+ * Constant {@link CustomRequestAttributeKey} returned while no agent is present.
+ */
+final class CustomRequestAttributeKeyNoop implements CustomRequestAttributeKey {
+
+	static final CustomRequestAttributeKeyNoop INSTANCE = new CustomRequestAttributeKeyNoop();
+
+	private CustomRequestAttributeKeyNoop() {
+	}
+
+}
@@ -0,0 +1,32 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+
+/**
+ * Stateless {@link CustomServiceTracer} returned while no agent is present.
+ */
+final class CustomServiceTracerNoop extends TracerNoop implements CustomServiceTracer {
+
+	static final CustomServiceTracerNoop INSTANCE = new CustomServiceTracerNoop();
+
+	private CustomServiceTracerNoop() {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+	}
+
+}
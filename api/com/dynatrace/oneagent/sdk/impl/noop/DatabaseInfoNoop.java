@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+
+/**
+ * Constant {@link DatabaseInfo} returned while no agent is present.
+ */
+final class DatabaseInfoNoop implements DatabaseInfo {
+
+	static final DatabaseInfoNoop INSTANCE = new DatabaseInfoNoop();
+
+	private DatabaseInfoNoop() {
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+
+/**
+ * Stateless {@link DatabaseRequestTracer} returned while no agent is present.
+ */
+final class DatabaseRequestTracerNoop extends TracerNoop implements DatabaseRequestTracer {
+
+	static final DatabaseRequestTracerNoop INSTANCE = new DatabaseRequestTracerNoop();
+
+	private DatabaseRequestTracerNoop() {
+	}
+
+	@Override
+	public void setRowsReturned(int rowsReturned) {
+	}
+
+	@Override
+	public void setRoundTripCount(int roundTripCount) {
+	}
+
+}
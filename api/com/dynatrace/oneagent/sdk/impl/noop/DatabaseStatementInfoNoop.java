@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
+
+/**
+ * Constant {@link DatabaseStatementInfo} returned while no agent is present.
+ */
+final class DatabaseStatementInfoNoop implements DatabaseStatementInfo {
+
+	static final DatabaseStatementInfoNoop INSTANCE = new DatabaseStatementInfoNoop();
+
+	private DatabaseStatementInfoNoop() {
+	}
+
+}
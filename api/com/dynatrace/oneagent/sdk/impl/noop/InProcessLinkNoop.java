@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+
+/**
+ * Constant {@link InProcessLink} returned while no agent is present.
+ */
+final class InProcessLinkNoop implements InProcessLink {
+
+	static final InProcessLinkNoop INSTANCE = new InProcessLinkNoop();
+
+	private InProcessLinkNoop() {
+	}
+
+}
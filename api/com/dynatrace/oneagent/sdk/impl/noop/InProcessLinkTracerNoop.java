@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+
+/**
+ * Stateless {@link InProcessLinkTracer} returned while no agent is present.
+ */
+final class InProcessLinkTracerNoop extends TracerNoop implements InProcessLinkTracer {
+
+	static final InProcessLinkTracerNoop INSTANCE = new InProcessLinkTracerNoop();
+
+	private InProcessLinkTracerNoop() {
+	}
+
+}
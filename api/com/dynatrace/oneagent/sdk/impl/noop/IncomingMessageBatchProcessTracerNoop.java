@@ -0,0 +1,30 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
+
+/**
+ * Stateless {@link IncomingMessageBatchProcessTracer} returned while no agent is present.
+ */
+final class IncomingMessageBatchProcessTracerNoop extends TracerNoop implements IncomingMessageBatchProcessTracer {
+
+	static final IncomingMessageBatchProcessTracerNoop INSTANCE = new IncomingMessageBatchProcessTracerNoop();
+
+	private IncomingMessageBatchProcessTracerNoop() {
+	}
+
+	@Override
+	public void setMessages(int messageCount, String[] dynatraceStringTags, String[] vendorMessageIds,
+			String[] correlationIds) {
+	}
+
+	@Override
+	public <Carrier> void setMessages(int messageCount, HeaderGetter<Carrier> headerGetter, Carrier[] carriers,
+			String[] vendorMessageIds, String[] correlationIds) {
+	}
+
+	@Override
+	public void messageError(int messageIndex, String message) {
+	}
+
+}
@@ -0,0 +1,59 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+
+/**
+ * Stateless {@link IncomingMessageProcessTracer} returned while no agent is present.
+ */
+final class IncomingMessageProcessTracerNoop extends TracerNoop implements IncomingMessageProcessTracer {
+
+	static final IncomingMessageProcessTracerNoop INSTANCE = new IncomingMessageProcessTracerNoop();
+
+	private IncomingMessageProcessTracerNoop() {
+	}
+
+	@Override
+	public void setDynatraceStringTag(String tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(byte[] tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(ByteBuffer tag, int offset, int length) {
+	}
+
+	@Override
+	public <Carrier> void extractTracingHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setVendorMessageId(String vendorMessageId) {
+	}
+
+	@Override
+	public void setCorrelationId(String correlationId) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+	}
+
+}
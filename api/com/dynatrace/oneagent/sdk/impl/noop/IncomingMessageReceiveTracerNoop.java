@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
+
+/**
+ * Stateless {@link IncomingMessageReceiveTracer} returned while no agent is present.
+ */
+final class IncomingMessageReceiveTracerNoop extends TracerNoop implements IncomingMessageReceiveTracer {
+
+	static final IncomingMessageReceiveTracerNoop INSTANCE = new IncomingMessageReceiveTracerNoop();
+
+	private IncomingMessageReceiveTracerNoop() {
+	}
+
+}
@@ -0,0 +1,55 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+
+/**
+ * Stateless {@link IncomingRemoteCallTracer} returned while no agent is present.
+ */
+final class IncomingRemoteCallTracerNoop extends TracerNoop implements IncomingRemoteCallTracer {
+
+	static final IncomingRemoteCallTracerNoop INSTANCE = new IncomingRemoteCallTracerNoop();
+
+	private IncomingRemoteCallTracerNoop() {
+	}
+
+	@Override
+	public void setDynatraceStringTag(String tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(byte[] tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(ByteBuffer tag, int offset, int length) {
+	}
+
+	@Override
+	public <Carrier> void extractTracingHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setProtocolName(String protocolName) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+	}
+
+}
@@ -0,0 +1,84 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+
+/**
+ * Stateless {@link IncomingWebRequestTracer} returned while no agent is present.
+ */
+final class IncomingWebRequestTracerNoop extends TracerNoop implements IncomingWebRequestTracer {
+
+	static final IncomingWebRequestTracerNoop INSTANCE = new IncomingWebRequestTracerNoop();
+
+	private IncomingWebRequestTracerNoop() {
+	}
+
+	@Override
+	public void setDynatraceStringTag(String tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(byte[] tag) {
+	}
+
+	@Override
+	public void setDynatraceByteTag(ByteBuffer tag, int offset, int length) {
+	}
+
+	@Override
+	public <Carrier> void extractTracingHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setRemoteAddress(String remoteAddress) {
+	}
+
+	@Override
+	public void addRequestHeader(String name, String value) {
+	}
+
+	@Override
+	public <Carrier> void addRequestHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void addParameter(String name, String value) {
+	}
+
+	@Override
+	public void addParameterLazy(String name, Supplier<String> valueSupplier) {
+	}
+
+	@Override
+	public void addResponseHeader(String name, String value) {
+	}
+
+	@Override
+	public <Carrier> void addResponseHeaders(HeaderGetter<Carrier> headerGetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setStatusCode(int statusCode) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+	}
+
+}
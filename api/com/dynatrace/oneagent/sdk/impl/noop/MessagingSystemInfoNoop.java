@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+
+/**
+ * Constant {@link MessagingSystemInfo} returned while no agent is present.
+ */
+final class MessagingSystemInfoNoop implements MessagingSystemInfo {
+
+	static final MessagingSystemInfoNoop INSTANCE = new MessagingSystemInfoNoop();
+
+	private MessagingSystemInfoNoop() {
+	}
+
+}
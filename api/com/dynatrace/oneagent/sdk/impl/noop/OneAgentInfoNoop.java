@@ -0,0 +1,30 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
+
+/**
+ * Constant {@link OneAgentInfo} reporting that no agent has been found.
+ */
+final class OneAgentInfoNoop implements OneAgentInfo {
+
+	static final OneAgentInfoNoop INSTANCE = new OneAgentInfoNoop();
+
+	private OneAgentInfoNoop() {
+	}
+
+	@Override
+	public boolean agentFound() {
+		return false;
+	}
+
+	@Override
+	public boolean agentCompatible() {
+		return false;
+	}
+
+	@Override
+	public String version() {
+		return null;
+	}
+
+}
@@ -0,0 +1,261 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.util.function.Supplier;
+
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.InProcessLink;
+import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.LoggingCallback;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.SDKStateListener;
+import com.dynatrace.oneagent.sdk.api.Sampler;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.CompletionOverflowPolicy;
+import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
+import com.dynatrace.oneagent.sdk.api.infos.TraceContextInfo;
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+
+/**
+ * {@link OneAgentSDK} used when no (compatible) agent is present. The state is always
+ * {@link SDKState#PERMANENTLY_INACTIVE}.
+ *
+ * <p>Every method returns a shared, stateless constant and never allocates, so an instrumented code path costs
+ * nothing beyond the (inlinable) calls themselves.
+ */
+public final class OneAgentSDKNoop implements OneAgentSDK {
+
+	public static final OneAgentSDKNoop INSTANCE = new OneAgentSDKNoop();
+
+	static final byte[] EMPTY_TAG = new byte[0];
+
+	private OneAgentSDKNoop() {
+	}
+
+	@Override
+	public WebApplicationInfo createWebApplicationInfo(String webServerName, String applicationID, String contextRoot) {
+		return WebApplicationInfoNoop.INSTANCE;
+	}
+
+	@Override
+	public DatabaseInfo createDatabaseInfo(String name, String vendor, ChannelType channelType, String channelEndpoint) {
+		return DatabaseInfoNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, String url, String method) {
+		return IncomingWebRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingWebRequestTracer traceIncomingWebRequest(WebApplicationInfo webApplicationInfo, CharSequence scheme,
+			CharSequence host, int port, CharSequence path, CharSequence query, String method, boolean resolveHostname) {
+		return IncomingWebRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public OutgoingWebRequestTracer traceOutgoingWebRequest(String url, String method) {
+		return OutgoingWebRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public OutgoingWebRequestTracer traceOutgoingWebRequest(CharSequence scheme, CharSequence host, int port,
+			CharSequence path, CharSequence query, String method, boolean resolveHostname) {
+		return OutgoingWebRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseInfo databaseInfo, String statement) {
+		return DatabaseRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public DatabaseStatementInfo createDatabaseStatementInfo(DatabaseInfo databaseInfo, String statement) {
+		return DatabaseStatementInfoNoop.INSTANCE;
+	}
+
+	@Override
+	public DatabaseRequestTracer traceSQLDatabaseRequest(DatabaseStatementInfo databaseStatementInfo) {
+		return DatabaseRequestTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public void setDatabaseRequestAggregation(long flushIntervalMillis, int maxAggregates) {
+	}
+
+	@Override
+	public void setChildCallCompaction(int maxNodesPerParent) {
+	}
+
+	@Override
+	public OutgoingRemoteCallTracer traceOutgoingRemoteCall(String serviceMethod, String serviceName, String serviceEndpoint,
+			ChannelType channelType, String channelEndpoint) {
+		return OutgoingRemoteCallTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingRemoteCallTracer traceIncomingRemoteCall(String serviceMethod, String serviceName, String serviceEndpoint) {
+		return IncomingRemoteCallTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public boolean hasActivePath() {
+		return false;
+	}
+
+	@Override
+	public Object getActivePathToken() {
+		return null;
+	}
+
+	@Override
+	public InProcessLink createInProcessLink() {
+		return InProcessLinkNoop.INSTANCE;
+	}
+
+	@Override
+	public InProcessLinkTracer traceInProcessLink(InProcessLink inProcessLink) {
+		return InProcessLinkTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, String value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, long value) {
+	}
+
+	@Override
+	public void addCustomRequestAttribute(String key, double value) {
+	}
+
+	@Override
+	public void addCustomRequestAttributeLazy(String key, Supplier<String> valueSupplier) {
+	}
+
+	@Override
+	public CustomRequestAttributeKey createCustomRequestAttributeKey(String key) {
+		return CustomRequestAttributeKeyNoop.INSTANCE;
+	}
+
+	@Override
+	public CustomRequestAttributeBatch createCustomRequestAttributeBatch() {
+		return CustomRequestAttributeBatchNoop.INSTANCE;
+	}
+
+	@Override
+	public void addCustomRequestAttributes(CustomRequestAttributeBatch batch) {
+	}
+
+	@Override
+	public MessagingSystemInfo createMessagingSystemInfo(String vendorName, String destinationName,
+			MessageDestinationType destinationType, ChannelType channelType, String channelEndpoint) {
+		return MessagingSystemInfoNoop.INSTANCE;
+	}
+
+	@Override
+	public OutgoingMessageTracer traceOutgoingMessage(MessagingSystemInfo messagingSystem) {
+		return OutgoingMessageTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public OutgoingMessageTracer traceOutgoingMessageBatch(MessagingSystemInfo messagingSystem, int messageCount) {
+		return OutgoingMessageTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingMessageReceiveTracer traceIncomingMessageReceive(MessagingSystemInfo messagingSystem) {
+		return IncomingMessageReceiveTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingMessageProcessTracer traceIncomingMessageProcess(MessagingSystemInfo messagingSystem) {
+		return IncomingMessageProcessTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public IncomingMessageBatchProcessTracer traceIncomingMessageBatchProcess(MessagingSystemInfo messagingSystem) {
+		return IncomingMessageBatchProcessTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public CustomServiceTracer traceCustomService(String serviceMethod, String serviceName) {
+		return CustomServiceTracerNoop.INSTANCE;
+	}
+
+	@Override
+	public SDKState getCurrentState() {
+		return SDKState.PERMANENTLY_INACTIVE;
+	}
+
+	@Override
+	public void setSDKStateListener(SDKStateListener sdkStateListener) {
+		// state never changes, so there is nothing to notify about
+	}
+
+	@Override
+	public void setSampler(Sampler sampler) {
+	}
+
+	@Override
+	public void setTracerBudget(TracerType tracerType, int tracersPerSecond) {
+	}
+
+	@Override
+	public long getUnrecordedTracerCount(TracerType tracerType) {
+		return 0;
+	}
+
+	@Override
+	public OneAgentInfo getAgentInfo() {
+		return OneAgentInfoNoop.INSTANCE;
+	}
+
+	@Override
+	public void setLoggingCallback(LoggingCallback loggingCallback) {
+	}
+
+	@Override
+	public void setAsynchronousCompletion(int queueCapacity, CompletionOverflowPolicy overflowPolicy) {
+	}
+
+	@Override
+	public long getAsynchronousCompletionOverflowCount() {
+		return 0;
+	}
+
+	@Override
+	public void setTracerExporter(TracerExporter tracerExporter, int maxBatchSize, long maxExportDelayMillis,
+			int maxQueueSize) {
+		// no Tracer is ever recorded, so there is nothing to export
+	}
+
+	@Override
+	public long getDroppedTracerExportCount() {
+		return 0;
+	}
+
+	@Override
+	public TraceContextInfo getTraceContextInfo() {
+		return TraceContextInfoNoop.INSTANCE;
+	}
+
+}
@@ -0,0 +1,54 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+
+/**
+ * Stateless {@link OutgoingMessageTracer} returned while no agent is present.
+ */
+final class OutgoingMessageTracerNoop extends TracerNoop implements OutgoingMessageTracer {
+
+	static final OutgoingMessageTracerNoop INSTANCE = new OutgoingMessageTracerNoop();
+
+	private OutgoingMessageTracerNoop() {
+	}
+
+	@Override
+	public String getDynatraceStringTag() {
+		return "";
+	}
+
+	@Override
+	public byte[] getDynatraceByteTag() {
+		return OneAgentSDKNoop.EMPTY_TAG;
+	}
+
+	@Override
+	public int getDynatraceByteTag(ByteBuffer target) {
+		return 0;
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setVendorMessageId(String vendorMessageId) {
+	}
+
+	@Override
+	public void setCorrelationId(String correlationId) {
+	}
+
+	@Override
+	public String getDynatraceStringTag(int messageIndex) {
+		return "";
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier, int messageIndex) {
+	}
+
+}
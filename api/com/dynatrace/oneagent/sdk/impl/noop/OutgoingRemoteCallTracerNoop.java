@@ -0,0 +1,41 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+
+/**
+ * Stateless {@link OutgoingRemoteCallTracer} returned while no agent is present.
+ */
+final class OutgoingRemoteCallTracerNoop extends TracerNoop implements OutgoingRemoteCallTracer {
+
+	static final OutgoingRemoteCallTracerNoop INSTANCE = new OutgoingRemoteCallTracerNoop();
+
+	private OutgoingRemoteCallTracerNoop() {
+	}
+
+	@Override
+	public String getDynatraceStringTag() {
+		return "";
+	}
+
+	@Override
+	public byte[] getDynatraceByteTag() {
+		return OneAgentSDKNoop.EMPTY_TAG;
+	}
+
+	@Override
+	public int getDynatraceByteTag(ByteBuffer target) {
+		return 0;
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier) {
+	}
+
+	@Override
+	public void setProtocolName(String protocolName) {
+	}
+
+}
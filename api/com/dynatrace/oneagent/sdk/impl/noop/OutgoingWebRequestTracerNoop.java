@@ -0,0 +1,49 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import java.nio.ByteBuffer;
+
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+
+/**
+ * Stateless {@link OutgoingWebRequestTracer} returned while no agent is present.
+ */
+final class OutgoingWebRequestTracerNoop extends TracerNoop implements OutgoingWebRequestTracer {
+
+	static final OutgoingWebRequestTracerNoop INSTANCE = new OutgoingWebRequestTracerNoop();
+
+	private OutgoingWebRequestTracerNoop() {
+	}
+
+	@Override
+	public String getDynatraceStringTag() {
+		return "";
+	}
+
+	@Override
+	public byte[] getDynatraceByteTag() {
+		return OneAgentSDKNoop.EMPTY_TAG;
+	}
+
+	@Override
+	public int getDynatraceByteTag(ByteBuffer target) {
+		return 0;
+	}
+
+	@Override
+	public <Carrier> void injectTracingHeaders(HeaderSetter<Carrier> headerSetter, Carrier carrier) {
+	}
+
+	@Override
+	public void addRequestHeader(String name, String value) {
+	}
+
+	@Override
+	public void addResponseHeader(String name, String value) {
+	}
+
+	@Override
+	public void setStatusCode(int statusCode) {
+	}
+
+}
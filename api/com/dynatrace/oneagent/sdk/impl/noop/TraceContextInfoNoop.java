@@ -0,0 +1,31 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.TraceContextInfo;
+
+/**
+ * Constant {@link TraceContextInfo} carrying the invalid Trace-Id and Span-Id, as there is never an active PurePath
+ * without an agent.
+ */
+final class TraceContextInfoNoop implements TraceContextInfo {
+
+	static final TraceContextInfoNoop INSTANCE = new TraceContextInfoNoop();
+
+	private TraceContextInfoNoop() {
+	}
+
+	@Override
+	public boolean isValid() {
+		return false;
+	}
+
+	@Override
+	public String getTraceId() {
+		return INVALID_TRACE_ID;
+	}
+
+	@Override
+	public String getSpanId() {
+		return INVALID_SPAN_ID;
+	}
+
+}
@@ -0,0 +1,26 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.Tracer;
+
+/**
+ * Common base of all no-op tracers. Holds no state, so every tracer type can be shared as a singleton across threads.
+ */
+abstract class TracerNoop implements Tracer {
+
+	@Override
+	public void start() {
+	}
+
+	@Override
+	public void error(String message) {
+	}
+
+	@Override
+	public void end() {
+	}
+
+	@Override
+	public void release() {
+	}
+
+}
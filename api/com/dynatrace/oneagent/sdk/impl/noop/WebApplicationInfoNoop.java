@@ -0,0 +1,15 @@
+package com.dynatrace.oneagent.sdk.impl.noop;
+
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+
+/**
+ * Constant {@link WebApplicationInfo} returned while no agent is present.
+ */
+final class WebApplicationInfoNoop implements WebApplicationInfo {
+
+	static final WebApplicationInfoNoop INSTANCE = new WebApplicationInfoNoop();
+
+	private WebApplicationInfoNoop() {
+	}
+
+}
@@ -0,0 +1,130 @@
+package com.dynatrace.oneagent.sdk.impl.sampling;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dynatrace.oneagent.sdk.api.Sampler;
+import com.dynatrace.oneagent.sdk.api.enums.TracerType;
+
+/**
+ * Factory for the commonly used {@link Sampler}s. All returned samplers are thread-safe and take no lock.
+ */
+public final class Samplers {
+
+	private static final Sampler ALWAYS = new Sampler() {
+		@Override
+		public boolean shouldSample(TracerType tracerType, String serviceName) {
+			return true;
+		}
+	};
+
+	private static final Sampler NEVER = new Sampler() {
+		@Override
+		public boolean shouldSample(TracerType tracerType, String serviceName) {
+			return false;
+		}
+	};
+
+	private Samplers() {
+	}
+
+	/**
+	 * @return sampler recording every trace.
+	 */
+	public static Sampler always() {
+		return ALWAYS;
+	}
+
+	/**
+	 * @return sampler recording no trace.
+	 */
+	public static Sampler never() {
+		return NEVER;
+	}
+
+	/**
+	 * @param probability	share of traces to record, between 0.0 and 1.0.
+	 * @return sampler recording each trace with the given probability.
+	 */
+	public static Sampler probabilistic(final double probability) {
+		if (probability < 0.0 || probability > 1.0) {
+			throw new IllegalArgumentException("probability must be between 0.0 and 1.0: " + probability);
+		}
+		if (probability == 0.0) {
+			return NEVER;
+		}
+		if (probability == 1.0) {
+			return ALWAYS;
+		}
+		return new Sampler() {
+			@Override
+			public boolean shouldSample(TracerType tracerType, String serviceName) {
+				return ThreadLocalRandom.current().nextDouble() < probability;
+			}
+		};
+	}
+
+	/**
+	 * @param tracesPerSecond	maximum number of traces to record per second.
+	 * @return sampler recording the first tracesPerSecond traces of every second.
+	 */
+	public static Sampler rateLimited(int tracesPerSecond) {
+		if (tracesPerSecond < 0) {
+			throw new IllegalArgumentException("tracesPerSecond must not be negative: " + tracesPerSecond);
+		}
+		return tracesPerSecond == 0 ? NEVER : new RateLimitedSampler(tracesPerSecond);
+	}
+
+	/**
+	 * @param samplersByService	sampler to use per service name (see {@link Sampler#shouldSample(TracerType, String)}).
+	 *                          copied, later changes of the map have no effect.
+	 * @param defaultSampler	sampler to use for all other services. required parameter.
+	 * @return sampler delegating to a sampler per service.
+	 */
+	public static Sampler perService(Map<String, Sampler> samplersByService, final Sampler defaultSampler) {
+		Objects.requireNonNull(defaultSampler, "defaultSampler");
+		final Map<String, Sampler> samplers = new HashMap<String, Sampler>(samplersByService);
+		return new Sampler() {
+			@Override
+			public boolean shouldSample(TracerType tracerType, String serviceName) {
+				Sampler sampler = serviceName == null ? null : samplers.get(serviceName);
+				return (sampler != null ? sampler : defaultSampler).shouldSample(tracerType, serviceName);
+			}
+		};
+	}
+
+	/**
+	 * Counts the recorded traces of the current second. Second and count are kept in a single {@link AtomicLong}
+	 * (upper and lower 32 bits), so that both are updated with one compare-and-set.
+	 */
+	private static final class RateLimitedSampler implements Sampler {
+
+		private final int tracesPerSecond;
+		private final AtomicLong secondAndCount = new AtomicLong();
+
+		RateLimitedSampler(int tracesPerSecond) {
+			this.tracesPerSecond = tracesPerSecond;
+		}
+
+		@Override
+		public boolean shouldSample(TracerType tracerType, String serviceName) {
+			long second = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime()) & 0xFFFFFFFFL;
+			while (true) {
+				long current = secondAndCount.get();
+				long count = current >>> 32 == second ? current & 0xFFFFFFFFL : 0;
+				if (count >= tracesPerSecond) {
+					return false;
+				}
+				if (secondAndCount.compareAndSet(current, second << 32 | (count + 1))) {
+					return true;
+				}
+			}
+		}
+
+	}
+
+}
@@ -1,8 +1,10 @@
 package com.dynatrace.oneagent.sdk.samples;
 
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomRequestAttributeBatch;
 import com.dynatrace.oneagent.sdk.api.LoggingCallback;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.infos.CustomRequestAttributeKey;
 
 /**
  * This sample shows the usage of the SDK to record custom request attribute values (SCAVs).
@@ -35,6 +37,15 @@ public class CustomRequestAttributeSample {
 		
 		oneAgentSDK.addCustomRequestAttribute("billingAmount", 34.99);
 		oneAgentSDK.addCustomRequestAttribute("billingAmount", "unlimited");
+
+		// many numeric attributes per request: register keys once, reuse one batch per thread
+		CustomRequestAttributeKey itemCount = oneAgentSDK.createCustomRequestAttributeKey("itemCount");
+		CustomRequestAttributeKey taxAmount = oneAgentSDK.createCustomRequestAttributeKey("taxAmount");
+		CustomRequestAttributeBatch batch = oneAgentSDK.createCustomRequestAttributeBatch();
+
+		batch.add(itemCount, 12);
+		batch.add(taxAmount, 6.65);
+		oneAgentSDK.addCustomRequestAttributes(batch);
 		
 	}
 
@@ -5,6 +5,7 @@ import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
 import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
 import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseStatementInfo;
 
 /**
  * This sample shows the usage of SDK for tracing outgoing database requests.
@@ -17,12 +18,15 @@ public class DatabaseRequestSample {
 		String dbHost;
 
 		DatabaseInfo databaseInfo;
+		DatabaseStatementInfo commitStatementInfo;
 
 		private DBDriver(String dbName, String dbHost) {
 			this.dbName = dbName;
 			this.dbHost = dbHost;
 
 			databaseInfo = oneAgentSDK.createDatabaseInfo(dbName, "MyCoolDB", ChannelType.TCP_IP, dbHost);
+			// statements executed over and over again are registered once
+			commitStatementInfo = oneAgentSDK.createDatabaseStatementInfo(databaseInfo, "COMMIT");
 		}
 
 		public static DBDriver openConnection(String dbName, String dbHost) {
@@ -63,7 +67,7 @@ public class DatabaseRequestSample {
 		}
 
 		public void commit() {
-			DatabaseRequestTracer databaseRequestTracer = oneAgentSDK.traceSQLDatabaseRequest(databaseInfo, "COMMIT");
+			DatabaseRequestTracer databaseRequestTracer = oneAgentSDK.traceSQLDatabaseRequest(commitStatementInfo);
 
 			databaseRequestTracer.start();
 			try {
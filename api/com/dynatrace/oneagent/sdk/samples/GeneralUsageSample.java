@@ -2,16 +2,21 @@ package com.dynatrace.oneagent.sdk.samples;
 
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.SDKStateListener;
+import com.dynatrace.oneagent.sdk.api.enums.SDKState;
 import com.dynatrace.oneagent.sdk.api.infos.OneAgentInfo;
 
 /**
  * This sample shows the general usage of the SDK:
  * - acquire OneAgentSDK instance
  * - check for current SDK state
+ * - get notified about SDK state changes
  * - check agent version
  */
 public class GeneralUsageSample {
 
+	private static volatile boolean tracingActive;
+
 	public static void main(String args[]) {
 		
 		// acquire OneAgentSDK instance (probably done once per application)
@@ -35,6 +40,15 @@ public class GeneralUsageSample {
 			break;
 		}
 
+		// get notified about state changes instead of checking the state on every request:
+		oneAgentSDK.setSDKStateListener(new SDKStateListener() {
+			@Override
+			public void stateChanged(SDKState oldState, SDKState newState) {
+				tracingActive = newState == SDKState.ACTIVE;
+			}
+		});
+		tracingActive = oneAgentSDK.getCurrentState() == SDKState.ACTIVE;
+
 		// check for agent state:
 		OneAgentInfo agentInfo = oneAgentSDK.getAgentInfo();
 		if (agentInfo.agentFound()) {
@@ -1,9 +1,17 @@
 package com.dynatrace.oneagent.sdk.samples;
 
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
 import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
 import com.dynatrace.oneagent.sdk.api.InProcessLink;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracingContinuations;
+import com.dynatrace.oneagent.sdk.impl.concurrent.TracingExecutors;
 
 /**
  * This sample shows the usage of the SDK for tracing in-process links (e.g. asynchronous code execution).
@@ -26,6 +34,37 @@ public class InProcessLinkSample {
 	public static void main(String[] args) {
 		oneAgentSDK = OneAgentSDKFactory.createInstance();
 		doInProcessLinking();
+		doInProcessLinkingWithExecutor();
+		doInProcessLinkingWithCompletableFuture();
+	}
+
+	public static void doInProcessLinkingWithExecutor() {
+		// links are created on submit and traced on execution, by the wrapper
+		ExecutorService executor = TracingExecutors.wrap(oneAgentSDK, Executors.newFixedThreadPool(2));
+		executor.submit(new Runnable() {
+			@Override
+			public void run() {
+				// do the work
+			}
+		});
+		executor.shutdown();
+	}
+
+	public static void doInProcessLinkingWithCompletableFuture() {
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CompletableFuture.supplyAsync(TracingContinuations.supplier(oneAgentSDK, new Supplier<String>() {
+			@Override
+			public String get() {
+				// runs on the pool, linked to the current PurePath
+				return "result";
+			}
+		}), executor).thenAccept(TracingContinuations.consumer(oneAgentSDK, new Consumer<String>() {
+			@Override
+			public void accept(String result) {
+				// no additional tracer, if run synchronously on this thread
+			}
+		})).join();
+		executor.shutdown();
 	}
 
 
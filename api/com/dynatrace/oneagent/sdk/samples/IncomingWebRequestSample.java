@@ -1,6 +1,7 @@
 package com.dynatrace.oneagent.sdk.samples;
 
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
 import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
 import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
@@ -20,6 +21,21 @@ public class IncomingWebRequestSample {
 
 	}
 
+	/**
+	 * Reads headers from the request on demand, so the SDK only pulls the headers it is configured to capture.
+	 */
+	static final HeaderGetter<KeyValuePair[]> KEY_VALUE_PAIR_HEADER_GETTER = new HeaderGetter<KeyValuePair[]>() {
+		@Override
+		public CharSequence getHeader(String name, KeyValuePair[] headers) {
+			for (KeyValuePair header : headers) {
+				if (name.equalsIgnoreCase(header.key)) {
+					return header.value;
+				}
+			}
+			return null;
+		}
+	};
+
 	static class MyWebServer {
 
 		String name;
@@ -39,9 +55,7 @@ public class IncomingWebRequestSample {
 		public void handleGETRequest(String url, KeyValuePair[] requestHeaders, KeyValuePair[] parameters, String clientIP) {
 			IncomingWebRequestTracer webRequestTracer = oneAgentSDK.traceIncomingWebRequest(webApplicationInfo, url, "GET");
 
-			for (KeyValuePair requestHeader : requestHeaders) {
-				webRequestTracer.addRequestHeader(requestHeader.key, requestHeader.value);
-			}
+			webRequestTracer.addRequestHeaders(KEY_VALUE_PAIR_HEADER_GETTER, requestHeaders);
 
 			webRequestTracer.start();
 			try {
@@ -6,10 +6,13 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 
 import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.HeaderGetter;
+import com.dynatrace.oneagent.sdk.api.HeaderSetter;
 import com.dynatrace.oneagent.sdk.api.InProcessLink;
 import com.dynatrace.oneagent.sdk.api.InProcessLinkTracer;
 import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
 import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageBatchProcessTracer;
 import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
 import com.dynatrace.oneagent.sdk.api.IncomingMessageReceiveTracer;
 import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
@@ -65,6 +68,20 @@ public class MessagingSample {
 		}
 	}
 
+	private static final HeaderSetter<Message> MESSAGE_HEADER_SETTER = new HeaderSetter<Message>() {
+		@Override
+		public void setHeader(String name, String value, Message message) {
+			message.setHeaderField(name, value);
+		}
+	};
+
+	private static final HeaderGetter<Message> MESSAGE_HEADER_GETTER = new HeaderGetter<Message>() {
+		@Override
+		public CharSequence getHeader(String name, Message message) {
+			return message.getHeaderField(name);
+		}
+	};
+
 	public static void main(String[] args) {
 		oneAgentSDK = OneAgentSDKFactory.createInstance();
 		doClientMessageSend();
@@ -88,9 +105,9 @@ public class MessagingSample {
 			OutgoingMessageTracer outgoingMessageTracer = oneAgentSDK.traceOutgoingMessage(messagingSystemInfo);
 			outgoingMessageTracer.start();
 			try {
-				// transport the Dynatrace tag along with the message to allow the outgoing message tracer to be linked
+				// transport the tracing headers along with the message to allow the outgoing message tracer to be linked
 				// with the message processing tracer on the receiving side
-				toSend.setHeaderField(OneAgentSDK.DYNATRACE_MESSAGE_PROPERTYNAME, outgoingMessageTracer.getDynatraceStringTag());
+				outgoingMessageTracer.injectTracingHeaders(MESSAGE_HEADER_SETTER, toSend);
 				theQueue.send(toSend);
 				outgoingMessageTracer.setVendorMessageId(toSend.getMessageId()); // optional payload
 				outgoingMessageTracer.setCorrelationId(toSend.correlationId);
@@ -109,8 +126,8 @@ public class MessagingSample {
 				Message answer = theQueue.receive(correlationId);
 				
 				IncomingMessageProcessTracer processMessageTracer = oneAgentSDK.traceIncomingMessageProcess(messagingSystemInfo);
-				// retrieve Dynatrace tag created using the outgoing message tracer to link both sides together
-				processMessageTracer.setDynatraceStringTag(answer.getHeaderField(OneAgentSDK.DYNATRACE_MESSAGE_PROPERTYNAME));
+				// retrieve tracing headers created using the outgoing message tracer to link both sides together
+				processMessageTracer.extractTracingHeaders(MESSAGE_HEADER_GETTER, answer);
 				processMessageTracer.setVendorMessageId(answer.msgId);
 				processMessageTracer.setCorrelationId(answer.correlationId);
 				processMessageTracer.start();
@@ -214,20 +231,29 @@ public class MessagingSample {
 		try {
 			Message[] queryMessages = theQueue.receiveBulk("client queries");
 			
-			for(Message queryMessage : queryMessages) {
-				IncomingMessageProcessTracer processingMessageTracer = oneAgentSDK.traceIncomingMessageProcess(messagingSystemInfo);
-				// retrieve Dynatrace tag created using the outgoing message tracer to link both sides together
-				processingMessageTracer.setDynatraceStringTag(queryMessage.getHeaderField(OneAgentSDK.DYNATRACE_MESSAGE_PROPERTYNAME));
-				processingMessageTracer.setVendorMessageId(queryMessage.msgId);
-				processingMessageTracer.setCorrelationId(queryMessage.correlationId);
-				processingMessageTracer.start();
-				try {
-					doServerSideMessageProcessing(queryMessage);
-				} catch (Exception e) {
-					processingMessageTracer.error(e.getMessage());
-				} finally {
-					processingMessageTracer.end();
+			// trace processing of the whole batch with one tracer, while still linking each message to its sender
+			String[] vendorMessageIds = new String[queryMessages.length];
+			String[] correlationIds = new String[queryMessages.length];
+			for (int i = 0; i < queryMessages.length; i++) {
+				vendorMessageIds[i] = queryMessages[i].msgId;
+				correlationIds[i] = queryMessages[i].correlationId;
+			}
+			IncomingMessageBatchProcessTracer batchProcessTracer = oneAgentSDK.traceIncomingMessageBatchProcess(messagingSystemInfo);
+			batchProcessTracer.setMessages(queryMessages.length, MESSAGE_HEADER_GETTER, queryMessages, vendorMessageIds, correlationIds);
+			batchProcessTracer.start();
+			try {
+				for (int i = 0; i < queryMessages.length; i++) {
+					// a failing message must not keep the remaining messages of the poll from being processed
+					try {
+						doServerSideMessageProcessing(queryMessages[i]);
+					} catch (Exception e) {
+						batchProcessTracer.messageError(i, e.getMessage());
+					}
 				}
+			} catch (Exception e) {
+				batchProcessTracer.error(e.getMessage());
+			} finally {
+				batchProcessTracer.end();
 			}
 			
 		} catch (Exception e) {
@@ -0,0 +1,236 @@
+package com.dynatrace.oneagent.sdk.benchmarks;
+
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.dynatrace.oneagent.sdk.OneAgentSDKFactory;
+import com.dynatrace.oneagent.sdk.api.CustomServiceTracer;
+import com.dynatrace.oneagent.sdk.api.DatabaseRequestTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingMessageProcessTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.IncomingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.OneAgentSDK;
+import com.dynatrace.oneagent.sdk.api.OutgoingMessageTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingRemoteCallTracer;
+import com.dynatrace.oneagent.sdk.api.OutgoingWebRequestTracer;
+import com.dynatrace.oneagent.sdk.api.enums.ChannelType;
+import com.dynatrace.oneagent.sdk.api.enums.MessageDestinationType;
+import com.dynatrace.oneagent.sdk.api.export.FinishedTracer;
+import com.dynatrace.oneagent.sdk.api.export.TracerExporter;
+import com.dynatrace.oneagent.sdk.api.infos.DatabaseInfo;
+import com.dynatrace.oneagent.sdk.api.infos.MessagingSystemInfo;
+import com.dynatrace.oneagent.sdk.api.infos.TraceContextInfo;
+import com.dynatrace.oneagent.sdk.api.infos.WebApplicationInfo;
+import com.dynatrace.oneagent.sdk.impl.sampling.Samplers;
+
+/**
+ * Plain benchmark harness measuring the overhead of tracing with the no-op SDK (no agent present) and with the local
+ * recording SDK, per operation: time in nanoseconds and bytes allocated by the calling thread.
+ *
+ * <p>Every scenario is warmed up before it is measured in several rounds; time and allocations of the fastest round
+ * are reported, as it is least disturbed by GC and JIT activity. Run with a fixed heap and without other load, e.g.:
+ *
+ * <pre>
+ * java -Xms1g -Xmx1g com.dynatrace.oneagent.sdk.benchmarks.TracerOverheadBenchmark [operations per round]
+ * </pre>
+ */
+public class TracerOverheadBenchmark {
+
+	private static final int WARMUP_ROUNDS = 5;
+	private static final int MEASURED_ROUNDS = 10;
+
+	private interface Scenario {
+		void run(OneAgentSDK oneAgentSDK, Infos infos);
+	}
+
+	/**
+	 * Infos of one SDK, created once like in an application.
+	 */
+	private static final class Infos {
+
+		final DatabaseInfo databaseInfo;
+		final WebApplicationInfo webApplicationInfo;
+		final MessagingSystemInfo messagingSystemInfo;
+
+		Infos(OneAgentSDK oneAgentSDK) {
+			databaseInfo = oneAgentSDK.createDatabaseInfo("CustomerDB", "MySQL", ChannelType.TCP_IP, "db-host:3306");
+			webApplicationInfo = oneAgentSDK.createWebApplicationInfo("WebShopServer", "WebShop", "/shop");
+			messagingSystemInfo = oneAgentSDK.createMessagingSystemInfo("RabbitMQ", "orders", MessageDestinationType.QUEUE,
+					ChannelType.TCP_IP, "mq-host:5672");
+		}
+
+	}
+
+	/** consumes results, so that the JIT can not remove the measured calls */
+	private static volatile int sink;
+
+	public static void main(String[] args) {
+		int operationsPerRound = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+		com.sun.management.ThreadMXBean threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+		OneAgentSDK noop = OneAgentSDKFactory.createInstance();
+		OneAgentSDK local = OneAgentSDKFactory.createLocalInstance();
+		OneAgentSDK localExporting = OneAgentSDKFactory.createLocalInstance();
+		CountingExporter exporter = new CountingExporter();
+		localExporting.setTracerExporter(exporter, 512, 100, 65536);
+		OneAgentSDK localNotSampled = OneAgentSDKFactory.createLocalInstance();
+		localNotSampled.setSampler(Samplers.never());
+
+		String[] sdkNames = { "no-op", "local", "local+export", "local, not sampled" };
+		OneAgentSDK[] sdks = { noop, local, localExporting, localNotSampled };
+		String[] scenarioNames = { "custom service", "custom service + database request", "remote call with tag",
+				"incoming web request", "incoming message process", "outgoing web request with tag",
+				"outgoing message with tag", "custom service + getTraceContextInfo", "custom service + 2 attributes" };
+		Scenario[] scenarios = { TracerOverheadBenchmark::customService, TracerOverheadBenchmark::customServiceWithDatabaseRequest,
+				TracerOverheadBenchmark::remoteCallWithTag, TracerOverheadBenchmark::incomingWebRequest,
+				TracerOverheadBenchmark::incomingMessageProcess, TracerOverheadBenchmark::outgoingWebRequestWithTag,
+				TracerOverheadBenchmark::outgoingMessageWithTag, TracerOverheadBenchmark::customServiceWithTraceContextInfo,
+				TracerOverheadBenchmark::customServiceWithAttributes };
+
+		System.out.printf("%-20s %-38s %12s %12s%n", "SDK", "scenario", "ns/op", "bytes/op");
+		long threadId = Thread.currentThread().getId();
+		for (int s = 0; s < sdks.length; s++) {
+			Infos infos = new Infos(sdks[s]);
+			for (int c = 0; c < scenarios.length; c++) {
+				for (int round = 0; round < WARMUP_ROUNDS; round++) {
+					runRound(scenarios[c], sdks[s], infos, operationsPerRound);
+				}
+				// both values of the fastest round, so that a row never combines two different rounds
+				long bestNanos = Long.MAX_VALUE;
+				long bestBytes = 0;
+				for (int round = 0; round < MEASURED_ROUNDS; round++) {
+					long bytesBefore = threadMXBean.getThreadAllocatedBytes(threadId);
+					long nanosBefore = System.nanoTime();
+					runRound(scenarios[c], sdks[s], infos, operationsPerRound);
+					long nanos = System.nanoTime() - nanosBefore;
+					long bytes = threadMXBean.getThreadAllocatedBytes(threadId) - bytesBefore;
+					if (nanos < bestNanos) {
+						bestNanos = nanos;
+						bestBytes = bytes;
+					}
+				}
+				System.out.printf("%-20s %-38s %12.1f %12.1f%n", sdkNames[s], scenarioNames[c],
+						(double) bestNanos / operationsPerRound, (double) bestBytes / operationsPerRound);
+			}
+		}
+		localExporting.setTracerExporter(null, 1, 1, 1);
+		System.out.println("exported: " + exporter.count.get() + ", dropped: " + localExporting.getDroppedTracerExportCount());
+	}
+
+	private static void runRound(Scenario scenario, OneAgentSDK oneAgentSDK, Infos infos, int operations) {
+		for (int i = 0; i < operations; i++) {
+			scenario.run(oneAgentSDK, infos);
+		}
+	}
+
+	private static void customService(OneAgentSDK oneAgentSDK, Infos infos) {
+		CustomServiceTracer tracer = oneAgentSDK.traceCustomService("onTimer", "PeriodicCleanupTask");
+		tracer.start();
+		tracer.end();
+		tracer.release();
+	}
+
+	private static void customServiceWithDatabaseRequest(OneAgentSDK oneAgentSDK, Infos infos) {
+		CustomServiceTracer tracer = oneAgentSDK.traceCustomService("loadCustomer", "CustomerService");
+		tracer.start();
+		DatabaseRequestTracer databaseRequestTracer = oneAgentSDK.traceSQLDatabaseRequest(infos.databaseInfo,
+				"SELECT * FROM customers WHERE id = ?");
+		databaseRequestTracer.start();
+		databaseRequestTracer.setRowsReturned(1);
+		databaseRequestTracer.end();
+		databaseRequestTracer.release();
+		tracer.end();
+		tracer.release();
+	}
+
+	private static void remoteCallWithTag(OneAgentSDK oneAgentSDK, Infos infos) {
+		OutgoingRemoteCallTracer outgoingTracer = oneAgentSDK.traceOutgoingRemoteCall("placeOrder", "OrderService",
+				"rmi://order-host/OrderService", ChannelType.TCP_IP, "order-host:1099");
+		outgoingTracer.start();
+		String tag = outgoingTracer.getDynatraceStringTag();
+		IncomingRemoteCallTracer incomingTracer = oneAgentSDK.traceIncomingRemoteCall("placeOrder", "OrderService",
+				"rmi://order-host/OrderService");
+		incomingTracer.setDynatraceStringTag(tag);
+		incomingTracer.start();
+		incomingTracer.end();
+		incomingTracer.release();
+		outgoingTracer.end();
+		outgoingTracer.release();
+		sink += tag.length();
+	}
+
+	private static void incomingWebRequest(OneAgentSDK oneAgentSDK, Infos infos) {
+		IncomingWebRequestTracer tracer = oneAgentSDK.traceIncomingWebRequest(infos.webApplicationInfo,
+				"https://shop-host/shop/orders?id=42", "GET");
+		tracer.start();
+		tracer.setStatusCode(200);
+		tracer.end();
+		tracer.release();
+	}
+
+	private static void incomingMessageProcess(OneAgentSDK oneAgentSDK, Infos infos) {
+		IncomingMessageProcessTracer tracer = oneAgentSDK.traceIncomingMessageProcess(infos.messagingSystemInfo);
+		tracer.setVendorMessageId("msg-42");
+		tracer.start();
+		tracer.end();
+		tracer.release();
+	}
+
+	private static void outgoingWebRequestWithTag(OneAgentSDK oneAgentSDK, Infos infos) {
+		OutgoingWebRequestTracer tracer = oneAgentSDK.traceOutgoingWebRequest("https://price-host/prices?id=42", "GET");
+		tracer.start();
+		String tag = tracer.getDynatraceStringTag();
+		tracer.setStatusCode(200);
+		tracer.end();
+		tracer.release();
+		sink += tag.length();
+	}
+
+	private static void outgoingMessageWithTag(OneAgentSDK oneAgentSDK, Infos infos) {
+		OutgoingMessageTracer tracer = oneAgentSDK.traceOutgoingMessage(infos.messagingSystemInfo);
+		tracer.start();
+		String tag = tracer.getDynatraceStringTag();
+		tracer.setVendorMessageId("msg-42");
+		tracer.end();
+		tracer.release();
+		sink += tag.length();
+	}
+
+	private static void customServiceWithTraceContextInfo(OneAgentSDK oneAgentSDK, Infos infos) {
+		CustomServiceTracer tracer = oneAgentSDK.traceCustomService("logOrder", "OrderService");
+		tracer.start();
+		TraceContextInfo traceContextInfo = oneAgentSDK.getTraceContextInfo();
+		sink += traceContextInfo.getSpanId().length();
+		tracer.end();
+		tracer.release();
+	}
+
+	private static void customServiceWithAttributes(OneAgentSDK oneAgentSDK, Infos infos) {
+		CustomServiceTracer tracer = oneAgentSDK.traceCustomService("placeOrder", "OrderService");
+		tracer.start();
+		oneAgentSDK.addCustomRequestAttribute("customer", "ACME");
+		oneAgentSDK.addCustomRequestAttribute("amount", 42L);
+		tracer.end();
+		tracer.release();
+	}
+
+	/**
+	 * Exporter that only counts, so that the benchmark measures the SDK and not the exporter.
+	 */
+	private static final class CountingExporter implements TracerExporter {
+
+		final AtomicLong count = new AtomicLong();
+
+		@Override
+		public void export(List<FinishedTracer> tracers) {
+			count.addAndGet(tracers.size());
+		}
+
+		@Override
+		public void shutdown() {
+		}
+
+	}
+
+}